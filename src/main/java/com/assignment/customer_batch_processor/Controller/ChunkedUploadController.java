@@ -0,0 +1,133 @@
+package com.assignment.customer_batch_processor.Controller;
+
+import com.assignment.customer_batch_processor.Customer_Dto.ChunkedUploadRequest;
+import com.assignment.customer_batch_processor.service.ChunkedUploadService;
+import com.assignment.customer_batch_processor.service.ChunkedUploadService.UploadNotFoundException;
+import com.assignment.customer_batch_processor.service.ChunkedUploadService.UploadSession;
+import com.assignment.customer_batch_processor.service.FileConversionService;
+import com.assignment.customer_batch_processor.service.StagedUpload;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Resumable chunked upload for very large customer files.
+ *
+ * POST   /batch/uploads                           → start, returns uploadId and part count
+ * PUT    /batch/uploads/{uploadId}/parts/{n}      → raw bytes of part n (1-based), parallel and re-sendable
+ * GET    /batch/uploads/{uploadId}                → received / missing parts, to resume after a failure
+ * POST   /batch/uploads/{uploadId}/complete       → checksum, then conversion and batch job
+ * DELETE /batch/uploads/{uploadId}                → abort
+ */
+@Slf4j
+@RestController
+@RequestMapping("/batch/uploads")
+public class ChunkedUploadController {
+
+    @Autowired
+    private ChunkedUploadService chunkedUploadService;
+
+    @Autowired
+    private FileConversionService fileConversionService;
+
+    @PostMapping
+    public ResponseEntity<Object> initUpload(@Valid @RequestBody ChunkedUploadRequest request) {
+        try {
+            UploadSession session = chunkedUploadService.init(request);
+            return new ResponseEntity<>(sessionResponse(session), HttpStatus.CREATED);
+        } catch (IllegalArgumentException e) {
+            return JobResponses.errorResponse(e, HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return JobResponses.errorResponse(e);
+        }
+    }
+
+    @PutMapping(value = "/{uploadId}/parts/{partNumber}", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<Object> uploadPart(@PathVariable String uploadId,
+                                             @PathVariable int partNumber,
+                                             HttpServletRequest request) {
+        try {
+            long written = chunkedUploadService.writePart(uploadId, partNumber, request.getInputStream());
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("uploadId", uploadId);
+            response.put("partNumber", partNumber);
+            response.put("bytes", written);
+            return new ResponseEntity<>(response, HttpStatus.OK);
+
+        } catch (UploadNotFoundException e) {
+            return JobResponses.errorResponse(e, HttpStatus.NOT_FOUND);
+        } catch (IllegalArgumentException e) {
+            return JobResponses.errorResponse(e, HttpStatus.BAD_REQUEST);
+        } catch (Exception e) {
+            return JobResponses.errorResponse(e);
+        }
+    }
+
+    @GetMapping("/{uploadId}")
+    public ResponseEntity<Object> getUpload(@PathVariable String uploadId) {
+        try {
+            return new ResponseEntity<>(sessionResponse(chunkedUploadService.getSession(uploadId)), HttpStatus.OK);
+        } catch (UploadNotFoundException e) {
+            return JobResponses.errorResponse(e, HttpStatus.NOT_FOUND);
+        }
+    }
+
+    @PostMapping("/{uploadId}/complete")
+    public ResponseEntity<Object> completeUpload(@PathVariable String uploadId, HttpServletRequest request) {
+        try {
+            StagedUpload upload = chunkedUploadService.complete(uploadId);
+
+            JobExecution jobExecution = fileConversionService.processSavedUpload(upload, Uploaders.of(request));
+
+            log.info("Job execution {} is {} for chunked upload {}", jobExecution.getId(), jobExecution.getStatus(), uploadId);
+
+            return JobResponses.jobResponse(jobExecution);
+
+        } catch (UploadNotFoundException e) {
+            return JobResponses.errorResponse(e, HttpStatus.NOT_FOUND);
+        } catch (IllegalStateException e) {
+            return JobResponses.errorResponse(e, HttpStatus.CONFLICT);
+        } catch (Exception e) {
+            return JobResponses.errorResponse(e);
+        }
+    }
+
+    @DeleteMapping("/{uploadId}")
+    public ResponseEntity<Object> abortUpload(@PathVariable String uploadId) {
+        try {
+            chunkedUploadService.abort(uploadId);
+            return ResponseEntity.noContent().build();
+        } catch (Exception e) {
+            return JobResponses.errorResponse(e);
+        }
+    }
+
+    private Map<String, Object> sessionResponse(UploadSession session) {
+        Map<String, Object> response = new HashMap<>();
+        response.put("uploadId", session.getUploadId());
+        response.put("fileName", session.getFileName());
+        response.put("totalSize", session.getTotalSize());
+        response.put("partSize", session.getPartSize());
+        response.put("partCount", session.getPartCount());
+        response.put("receivedParts", session.getReceivedCount());
+        response.put("missingParts", session.getMissingParts());
+        return response;
+    }
+}
@@ -58,24 +58,35 @@
 package com.assignment.customer_batch_processor.Controller;
 
 import com.assignment.customer_batch_processor.service.BatchJobService;
+import com.assignment.customer_batch_processor.service.JobProgressService;
+import com.assignment.customer_batch_processor.service.RejectFileStore;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.batch.core.BatchStatus;
 import org.springframework.batch.core.JobExecution;
 import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.launch.NoSuchJobExecutionException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import com.assignment.customer_batch_processor.service.FileConversionService;
 
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
+import java.io.FileNotFoundException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
 
 @Slf4j
 @RestController
@@ -90,10 +101,17 @@ public class CustomerController {
 
     @Autowired
     private JobExplorer jobExplorer;
+
+    @Autowired
+    private RejectFileStore rejectFileStore;
+
+    @Autowired
+    private JobProgressService jobProgressService;
     
     @PostMapping("/upload")
     public ResponseEntity<Object> handleBatchUpload(
-            @RequestParam(value = "file", required = false) MultipartFile file) {
+            @RequestParam(value = "file", required = false) MultipartFile file,
+            HttpServletRequest request) {
         try {
 
            if (file == null || file.isEmpty()) {
@@ -103,65 +121,98 @@ public class CustomerController {
 
         // Validate file extension
         String fileName = file.getOriginalFilename();
-        if (fileName == null || !fileName.toLowerCase().endsWith(".xlsx")) {
-             throw new Exception ("Invalid file type. Only .xlsx files are allowed. ");
-        }
-
-        
-
+        validateFileName(fileName);
 
+            // Call service to convert XLSX to CSV and run the batch job
+            JobExecution jobExecution = fileConversionService.processUpload(file, Uploaders.of(request));
 
+            log.info("Job execution {} is {} for {}", jobExecution.getId(), jobExecution.getStatus(), fileName);
 
-            // Call service to convert XLSX to CSV
-            String csvFilePath = fileConversionService.convertXlsxToCsv(file);
+            return JobResponses.jobResponse(jobExecution);
             
-            log.info("Successfully converted {} to CSV", fileName);
-
-            JobExecution jobExecution = batchJobService.processCustomerFile(csvFilePath);
-
-
-            if(jobExecution.getStatus().equals(BatchStatus.FAILED)) {
-                List<Throwable> failureExceptions = jobExecution.getAllFailureExceptions();
-                String errorMessage = "Job failed";
-
-                if (!failureExceptions.isEmpty()) {
-                    Throwable rootCause = failureExceptions.getFirst();
-                    // Get the actual cause message, not the wrapper
-                    while (rootCause.getCause() != null) {
-                        rootCause = rootCause.getCause();
-                    }
-                    errorMessage = rootCause.getMessage();
-                }
-
-                Map<String,Object> errorResponse = new HashMap<>();
+        } catch (Exception e) {
+            return JobResponses.errorResponse(e);
+        }
+    }
 
-                errorResponse.put("status","FAILED");
-                String retryMessage = " Please fix the file and re-upload";
-                errorResponse.put("message", errorMessage + retryMessage);
+    /**
+     * Streaming upload - the request body is the raw XLSX file.
+     * It is copied straight to the staging directory, so very large workbooks
+     * are not limited by the multipart settings and never sit on the heap.
+     */
+    @PostMapping(value = "/upload/stream", consumes = MediaType.APPLICATION_OCTET_STREAM_VALUE)
+    public ResponseEntity<Object> handleStreamingUpload(
+            @RequestParam(value = "fileName") String fileName,
+            HttpServletRequest request) {
+        try {
+            validateFileName(fileName);
 
-                return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
-            }
-            Map<String,Object> response = new HashMap<>();
+            JobExecution jobExecution = fileConversionService.processUpload(request.getInputStream(), fileName, Uploaders.of(request));
 
-            response.put("jobId", jobExecution.getJobParameters().getString("jobid"));
-            response.put("status", jobExecution.getStatus().toString());
-            response.put("message", "File accepted and processing started");
+            log.info("Job execution {} is {} for streamed upload {}", jobExecution.getId(), jobExecution.getStatus(), fileName);
 
+            return JobResponses.jobResponse(jobExecution);
 
-            return new ResponseEntity<>(response, HttpStatus.OK);
-            
         } catch (Exception e) {
-            log.error("Error processing file upload: {}", e.getMessage());
-            Map<String,Object> response = new HashMap<>();
+            return JobResponses.errorResponse(e);
+        }
+    }
 
-            response.put("status","FAILED");
-            response.put("message", e.getMessage());
+    /**
+     * Status, item counts and throughput of a job execution, id is the jobExecutionId of the upload response
+     */
+    @GetMapping("/jobs/{id}")
+    public ResponseEntity<Object> getJobStatus(@PathVariable Long id) {
+        try {
+            JobExecution jobExecution = jobExplorer.getJobExecution(id);
+            if (jobExecution == null) {
+                throw new NoSuchJobExecutionException("No job execution with id " + id);
+            }
+            return JobResponses.jobStatus(jobExecution);
 
-            return new ResponseEntity<>(response, HttpStatus.INTERNAL_SERVER_ERROR);
+        } catch (NoSuchJobExecutionException e) {
+            return JobResponses.errorResponse(e, HttpStatus.NOT_FOUND);
         }
     }
 
+    /**
+     * Server-Sent Events with the progress of a job: "progress" events while it runs, then "complete"
+     */
+    @GetMapping(value = "/jobs/{id}/progress", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamJobProgress(@PathVariable Long id) {
+        try {
+            return jobProgressService.subscribe(id);
+        } catch (NoSuchJobExecutionException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage(), e);
+        }
+    }
 
+    /**
+     * Rows rejected by a quarantine job, as CSV
+     */
+    @GetMapping("/jobs/{jobId}/rejects")
+    public ResponseEntity<Object> downloadRejects(@PathVariable String jobId) {
+        try {
+            Path rejectFile = rejectFileStore.pathFor(jobId);
+            if (!Files.exists(rejectFile)) {
+                throw new FileNotFoundException("No rejected rows for job " + jobId);
+            }
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"rejects-" + jobId + ".csv\"")
+                    .contentType(MediaType.parseMediaType("text/csv"))
+                    .body(new FileSystemResource(rejectFile));
+
+        } catch (IllegalArgumentException e) {
+            return JobResponses.errorResponse(e, HttpStatus.BAD_REQUEST);
+        } catch (FileNotFoundException e) {
+            return JobResponses.errorResponse(e, HttpStatus.NOT_FOUND);
+        }
+    }
 
+    private void validateFileName(String fileName) throws Exception {
+        if (fileName == null || !fileName.toLowerCase().endsWith(".xlsx")) {
+            throw new Exception ("Invalid file type. Only .xlsx files are allowed. ");
+        }
+    }
 
 }
@@ -0,0 +1,225 @@
+package com.assignment.customer_batch_processor.Controller;
+
+import com.assignment.customer_batch_processor.Utilities.RejectFileSkipListener;
+import com.assignment.customer_batch_processor.Utilities.ValidationReportListener;
+import com.assignment.customer_batch_processor.validator.ValidationError;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.partition.support.PartitionStep;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Response bodies shared by the upload endpoints
+ */
+@Slf4j
+final class JobResponses {
+
+    private JobResponses() {
+    }
+
+    static ResponseEntity<Object> jobResponse(JobExecution jobExecution) {
+
+        if (jobExecution.getStatus().isRunning()) {
+            // Launched asynchronously, the client polls the status endpoint
+            Map<String,Object> response = new HashMap<>();
+            response.put("jobId", jobExecution.getJobParameters().getString("jobid"));
+            response.put("jobExecutionId", jobExecution.getId());
+            response.put("status", jobExecution.getStatus().toString());
+            response.put("message", "File accepted and processing started");
+            response.put("statusUrl", "/batch/jobs/" + jobExecution.getId());
+            return new ResponseEntity<>(response, HttpStatus.ACCEPTED);
+        }
+
+        if(jobExecution.getStatus().equals(BatchStatus.FAILED)) {
+            String errorMessage = failureMessage(jobExecution);
+
+            Map<String,Object> errorResponse = new HashMap<>();
+            if (addValidationReport(errorResponse, jobExecution)) {
+                errorMessage = errorResponse.get("invalidRows") + " invalid rows (" + errorResponse.get("errorCount") + " errors).";
+            }
+
+            errorResponse.put("status","FAILED");
+            String retryMessage = " Please fix the file and re-upload";
+            errorResponse.put("message", errorMessage + retryMessage);
+
+            return new ResponseEntity<>(errorResponse, HttpStatus.INTERNAL_SERVER_ERROR);
+        }
+        Map<String,Object> response = new HashMap<>();
+
+        response.put("jobId", jobExecution.getJobParameters().getString("jobid"));
+        response.put("status", jobExecution.getStatus().toString());
+        response.put("message", "File accepted and processing started");
+        addRejectedRows(response, jobExecution);
+
+
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    /**
+     * Status of a job execution for GET /batch/jobs/{id}: item counts over all steps
+     * (partition workers, not their manager) and items read per second since the job started.
+     * Jobs that validate before loading read every row twice, once per step.
+     */
+    static ResponseEntity<Object> jobStatus(JobExecution jobExecution) {
+        Map<String,Object> response = new LinkedHashMap<>();
+        response.put("jobExecutionId", jobExecution.getId());
+        response.put("jobId", jobExecution.getJobParameters().getString("jobid"));
+        response.put("jobName", jobExecution.getJobInstance().getJobName());
+        response.put("status", jobExecution.getStatus().toString());
+        response.put("exitCode", jobExecution.getExitStatus().getExitCode());
+        response.put("startTime", jobExecution.getStartTime());
+        response.put("endTime", jobExecution.getEndTime());
+
+        long readCount = 0;
+        long writeCount = 0;
+        long filterCount = 0;
+        long skipCount = 0;
+        List<Map<String,Object>> steps = new ArrayList<>();
+        List<StepExecution> stepExecutions = new ArrayList<>(jobExecution.getStepExecutions());
+        stepExecutions.sort(Comparator.comparing(StepExecution::getId));
+        for (StepExecution stepExecution : stepExecutions) {
+            if (PartitionStep.class.getName().equals(
+                    stepExecution.getExecutionContext().get(Step.STEP_TYPE_KEY))) {
+                // Manager of partitioned steps, its counts are the sum of its workers once they finish
+                continue;
+            }
+            readCount += stepExecution.getReadCount();
+            writeCount += stepExecution.getWriteCount();
+            filterCount += stepExecution.getFilterCount();
+            skipCount += stepExecution.getSkipCount();
+
+            Map<String,Object> step = new LinkedHashMap<>();
+            step.put("name", stepExecution.getStepName());
+            step.put("status", stepExecution.getStatus().toString());
+            step.put("readCount", stepExecution.getReadCount());
+            step.put("writeCount", stepExecution.getWriteCount());
+            step.put("skipCount", stepExecution.getSkipCount());
+            step.put("rowsPerSecond", perSecond(stepExecution.getReadCount(),
+                    stepExecution.getStartTime(), stepExecution.getEndTime()));
+            steps.add(step);
+        }
+
+        response.put("readCount", readCount);
+        response.put("writeCount", writeCount);
+        response.put("filterCount", filterCount);
+        response.put("skipCount", skipCount);
+        response.put("durationMs", elapsed(jobExecution.getStartTime(), jobExecution.getEndTime()).toMillis());
+        response.put("rowsPerSecond", perSecond(readCount, jobExecution.getStartTime(), jobExecution.getEndTime()));
+        response.put("steps", steps);
+
+        if (jobExecution.getStatus() == BatchStatus.FAILED) {
+            String message = failureMessage(jobExecution);
+            if (addValidationReport(response, jobExecution)) {
+                message = response.get("invalidRows") + " invalid rows (" + response.get("errorCount") + " errors).";
+            }
+            response.put("message", message);
+        }
+        addRejectedRows(response, jobExecution);
+        return new ResponseEntity<>(response, HttpStatus.OK);
+    }
+
+    /**
+     * Root cause message of the first failure, not the wrapper
+     */
+    private static String failureMessage(JobExecution jobExecution) {
+        List<Throwable> failureExceptions = jobExecution.getAllFailureExceptions();
+        if (failureExceptions.isEmpty()) {
+            return "Job failed";
+        }
+        Throwable rootCause = failureExceptions.getFirst();
+        while (rootCause.getCause() != null) {
+            rootCause = rootCause.getCause();
+        }
+        return rootCause.getMessage();
+    }
+
+    private static Duration elapsed(LocalDateTime startTime, LocalDateTime endTime) {
+        if (startTime == null) {
+            return Duration.ZERO;
+        }
+        return Duration.between(startTime, endTime == null ? LocalDateTime.now() : endTime);
+    }
+
+    private static long perSecond(long count, LocalDateTime startTime, LocalDateTime endTime) {
+        long millis = elapsed(startTime, endTime).toMillis();
+        return millis <= 0 ? 0 : count * 1000 / millis;
+    }
+
+    /**
+     * Adds the validation report of every step (partitions report separately) to the response
+     * @return false when no step recorded validation errors
+     */
+    static boolean addValidationReport(Map<String,Object> response, JobExecution jobExecution) {
+        List<ValidationError> errors = new ArrayList<>();
+        long invalidRows = 0;
+        long errorCount = 0;
+
+        for (StepExecution stepExecution : jobExecution.getStepExecutions()) {
+            ExecutionContext context = stepExecution.getExecutionContext();
+            if (context.containsKey(ValidationReportListener.ERRORS_KEY)) {
+                errors.addAll(ValidationReportListener.errors(context));
+                invalidRows += context.getLong(ValidationReportListener.INVALID_ROW_COUNT_KEY);
+                errorCount += context.getLong(ValidationReportListener.ERROR_COUNT_KEY);
+            }
+        }
+        if (invalidRows == 0) {
+            return false;
+        }
+
+        errors.sort(Comparator.comparing((ValidationError error) -> String.valueOf(error.source()))
+                .thenComparingLong(ValidationError::row));
+        response.put("invalidRows", invalidRows);
+        response.put("errorCount", errorCount);
+        response.put("errors", errors);
+        return true;
+    }
+
+    /**
+     * Quarantine jobs: number of rejected rows and where to download them
+     */
+    static void addRejectedRows(Map<String,Object> response, JobExecution jobExecution) {
+        long rejected = 0;
+        for (StepExecution stepExecution : jobExecution.getStepExecutions()) {
+            rejected += stepExecution.getExecutionContext().getLong(RejectFileSkipListener.REJECT_COUNT_KEY, 0L);
+        }
+        if (rejected > 0) {
+            response.put("rejectedRows", rejected);
+            response.put("rejectFile", "/batch/jobs/" + jobExecution.getJobParameters().getString("jobid") + "/rejects");
+        }
+    }
+
+    static ResponseEntity<Object> errorResponse(Exception e) {
+        // Job queue full: the upload is fine, it can be sent again later
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TaskRejectedException rejected) {
+                return errorResponse(rejected, HttpStatus.SERVICE_UNAVAILABLE);
+            }
+        }
+        return errorResponse(e, HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+
+    static ResponseEntity<Object> errorResponse(Exception e, HttpStatus status) {
+        log.error("Error processing file upload: {}", e.getMessage());
+        Map<String,Object> response = new HashMap<>();
+
+        response.put("status","FAILED");
+        response.put("message", e.getMessage());
+
+        return new ResponseEntity<>(response, status);
+    }
+}
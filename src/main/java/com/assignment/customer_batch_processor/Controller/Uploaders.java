@@ -0,0 +1,22 @@
+package com.assignment.customer_batch_processor.Controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+
+/**
+ * Identifies the uploader of a request, uploaders take turns in the job queue
+ */
+final class Uploaders {
+
+    static final String UPLOADER_HEADER = "X-Uploader-Id";
+
+    private Uploaders() {
+    }
+
+    /**
+     * The X-Uploader-Id header, the client address when it is missing
+     */
+    static String of(HttpServletRequest request) {
+        String uploader = request.getHeader(UPLOADER_HEADER);
+        return uploader == null || uploader.isBlank() ? request.getRemoteAddr() : uploader.trim();
+    }
+}
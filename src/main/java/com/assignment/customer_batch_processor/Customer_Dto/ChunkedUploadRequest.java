@@ -0,0 +1,30 @@
+package com.assignment.customer_batch_processor.Customer_Dto;
+
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Positive;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Starts a chunked upload session
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ChunkedUploadRequest {
+
+    @NotBlank(message = "File name cannot be blank.")
+    private String fileName;
+
+    // Size of the whole file in bytes
+    @Positive(message = "Total size must be greater than zero.")
+    private long totalSize;
+
+    // Size of every part in bytes, the last part may be smaller
+    @Positive(message = "Part size must be greater than zero.")
+    private long partSize;
+
+    // Optional hex SHA-256 of the whole file, checked on complete
+    private String sha256;
+}
@@ -0,0 +1,40 @@
+package com.assignment.customer_batch_processor.Customer_Dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * One event of the job progress stream (GET /batch/jobs/{id}/progress)
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class JobProgress {
+
+    private long jobExecutionId;
+
+    private String status;
+
+    // Step running now, partition workers are reported under their step name
+    private String step;
+
+    // Rows read and written by all steps so far
+    private long readCount;
+
+    private long writeCount;
+
+    private long skipCount;
+
+    // Rows read per second by the current step
+    private long rowsPerSecond;
+
+    // Seconds left in the current step, null until it can be estimated
+    private Long etaSeconds;
+
+    private long elapsedMs;
+}
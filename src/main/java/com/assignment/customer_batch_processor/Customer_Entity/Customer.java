@@ -9,17 +9,20 @@ import jakarta.persistence.GeneratedValue;
 import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Transient;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.springframework.batch.item.ItemCountAware;
 
 @Entity
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class Customer {
+public class Customer implements ItemCountAware {
 	@Id
 	@GeneratedValue(strategy = GenerationType.IDENTITY)
 	@Column(name = "id", updatable = false,nullable = false)
@@ -46,6 +49,31 @@ public class Customer {
 	@Column(name = "pan_number_encrypted", nullable = false, length = 500)
 	private String panNumber;
 
+	// Data row number in the input file, set by the reader and used in validation reports
+	@Transient
+	@EqualsAndHashCode.Exclude
+	private long rowNumber;
+
+	// Aadhaar and PAN already encrypted by CustomerEncryptionProcessor, the writer must not encrypt them again
+	@Transient
+	@EqualsAndHashCode.Exclude
+	private boolean encrypted;
+
+	// Every field already passed ColumnarCustomerValidator, CustomerItemProcessor only normalizes the row
+	@Transient
+	@EqualsAndHashCode.Exclude
+	private boolean prevalidated;
+
+	// CustomerField bits of the unique fields already in the customer table, set by DuplicateDetectionService
+	@Transient
+	@EqualsAndHashCode.Exclude
+	private int existingFields;
+
+	@Override
+	public void setItemCount(int count) {
+		this.rowNumber = count;
+	}
+
 @Override
 public String toString() {
     return "Customer{" +
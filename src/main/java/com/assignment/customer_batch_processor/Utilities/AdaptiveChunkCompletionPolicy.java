@@ -0,0 +1,200 @@
+package com.assignment.customer_batch_processor.Utilities;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.repeat.RepeatContext;
+import org.springframework.batch.repeat.policy.CompletionPolicySupport;
+import org.springframework.batch.repeat.context.RepeatContextSupport;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.MemoryUsage;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * ADAPTIVE CHUNK SIZE
+ *
+ * Chunk completion policy that moves the chunk size toward the size whose chunk transaction
+ * (read to commit) takes targetLatency: after each chunk the size moves halfway to the size the
+ * measured time per item suggests, by at most a factor of 2, within [minSize, maxSize].
+ * When the heap is above heapThreshold after the last GC the size is halved instead.
+ *
+ * Registered as ChunkListener of the same step to time the chunks. One instance per step
+ * execution (step scope); chunk threads of a multi-threaded step share it, so the timing is per thread.
+ * The live size belongs to the step execution, concurrent executions of a step adapt on their own.
+ * The last size chosen by any execution is kept per step name, the next execution starts from it.
+ *
+ * Metrics: customer.batch.chunk.size (gauge, last size chosen per step), customer.batch.chunk.latency (timer, per step),
+ * customer.batch.chunk.size.min and customer.batch.chunk.size.max (gauges).
+ */
+@Slf4j
+public class AdaptiveChunkCompletionPolicy extends CompletionPolicySupport implements ChunkListener {
+
+    // Last size chosen per step name, starting size of the next execution and value of the size gauge
+    private static final Map<String, AtomicInteger> LAST_SIZES = new ConcurrentHashMap<>();
+
+    private final int initialSize;
+    private final int minSize;
+    private final int maxSize;
+    private final long targetLatencyNanos;
+    private final double heapThreshold;
+    private final MeterRegistry meterRegistry;
+
+    private final ThreadLocal<SizedContext> currentChunk = new ThreadLocal<>();
+    private final ThreadLocal<Long> chunkStart = new ThreadLocal<>();
+    private volatile AtomicInteger chunkSize;
+    private volatile AtomicInteger lastSize;
+    private volatile Timer latencyTimer;
+
+    public AdaptiveChunkCompletionPolicy(int initialSize, int minSize, int maxSize, Duration targetLatency,
+                                         double heapThreshold, MeterRegistry meterRegistry) {
+        this.minSize = Math.max(minSize, 1);
+        this.maxSize = Math.max(maxSize, this.minSize);
+        this.initialSize = clamp(initialSize);
+        this.targetLatencyNanos = targetLatency.toNanos();
+        this.heapThreshold = heapThreshold;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("customer.batch.chunk.size.min", this.minSize, Integer::doubleValue)
+                .strongReference(true).register(meterRegistry);
+        Gauge.builder("customer.batch.chunk.size.max", this.maxSize, Integer::doubleValue)
+                .strongReference(true).register(meterRegistry);
+    }
+
+    @Override
+    public RepeatContext start(RepeatContext parent) {
+        SizedContext context = new SizedContext(parent, currentSize());
+        currentChunk.set(context);
+        return context;
+    }
+
+    @Override
+    public boolean isComplete(RepeatContext context) {
+        return ((SizedContext) context).getStartedCount() >= ((SizedContext) context).size;
+    }
+
+    @Override
+    public void update(RepeatContext context) {
+        ((SizedContext) context).increment();
+    }
+
+    @Override
+    public void beforeChunk(ChunkContext context) {
+        if (chunkSize == null) {
+            bind(context.getStepContext().getStepName());
+        }
+        chunkStart.set(System.nanoTime());
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        Long start = chunkStart.get();
+        SizedContext chunk = currentChunk.get();
+        chunkStart.remove();
+        currentChunk.remove();
+        if (start == null || chunk == null || chunk.getStartedCount() == 0) {
+            return;
+        }
+
+        long latencyNanos = Math.max(System.nanoTime() - start, 1);
+        latencyTimer.record(latencyNanos, TimeUnit.NANOSECONDS);
+        adjust(chunk.getStartedCount(), latencyNanos, heapUsageAfterGc());
+    }
+
+    @Override
+    public void afterChunkError(ChunkContext context) {
+        chunkStart.remove();
+        currentChunk.remove();
+    }
+
+    /**
+     * Next size after a chunk of items that took latencyNanos, heapUsage is the used fraction of the heap
+     */
+    public synchronized int adjust(int items, long latencyNanos, double heapUsage) {
+        int size = chunkSize.get();
+        int next;
+        if (heapUsage > heapThreshold) {
+            next = clamp(size / 2);
+            log.info("Heap at {}%, chunk size {} -> {}", Math.round(heapUsage * 100), size, next);
+        } else {
+            double ideal = (double) items * targetLatencyNanos / latencyNanos;
+            double halfway = size + (ideal - size) / 2;
+            next = clamp((int) Math.max(size / 2.0, Math.min(size * 2.0, halfway)));
+            if (next != size) {
+                log.debug("Chunk of {} items took {} ms, chunk size {} -> {}",
+                        items, TimeUnit.NANOSECONDS.toMillis(latencyNanos), size, next);
+            }
+        }
+        chunkSize.set(next);
+        lastSize.set(next);
+        return next;
+    }
+
+    public int currentSize() {
+        AtomicInteger size = chunkSize;
+        return size == null ? initialSize : size.get();
+    }
+
+    /**
+     * Meters and starting size of the step, on its first chunk
+     */
+    private synchronized void bind(String stepName) {
+        if (chunkSize != null) {
+            return;
+        }
+        AtomicInteger last = LAST_SIZES.computeIfAbsent(stepName, name -> {
+            AtomicInteger value = new AtomicInteger(initialSize);
+            Gauge.builder("customer.batch.chunk.size", value, AtomicInteger::get)
+                    .tag("step", name)
+                    .strongReference(true)
+                    .register(meterRegistry);
+            return value;
+        });
+        latencyTimer = Timer.builder("customer.batch.chunk.latency").tag("step", stepName).register(meterRegistry);
+        lastSize = last;
+        chunkSize = new AtomicInteger(clamp(last.get()));
+    }
+
+    private int clamp(int size) {
+        return Math.max(minSize, Math.min(maxSize, size));
+    }
+
+    /**
+     * Highest used fraction of a heap pool after its last collection, garbage not yet collected does not count
+     */
+    static double heapUsageAfterGc() {
+        double highest = 0;
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() != MemoryType.HEAP || !pool.isCollectionUsageThresholdSupported()) {
+                continue;
+            }
+            MemoryUsage usage = pool.getCollectionUsage();
+            if (usage != null && usage.getMax() > 0) {
+                highest = Math.max(highest, (double) usage.getUsed() / usage.getMax());
+            }
+        }
+        return highest;
+    }
+
+    /**
+     * Repeat context that keeps the size the chunk started with
+     */
+    private static class SizedContext extends RepeatContextSupport {
+
+        private final int size;
+
+        SizedContext(RepeatContext parent, int size) {
+            super(parent);
+            this.size = size;
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.assignment.customer_batch_processor.Utilities;
+
+import com.assignment.customer_batch_processor.Customer_Entity.Customer;
+
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * BINARY SPILL WRITER
+ *
+ * Compact intermediate file for converted rows, read back by BinaryCustomerItemReader.
+ *
+ * Layout: the 8 byte magic "CUSTBIN1", then one record per data row (no header row):
+ *   varint recordLength, then exactly 7 fields in CustomerItemReader.FIELD_NAMES order.
+ * Each field starts with a varint tag:
+ *   tag even → UTF-8 text of (tag >> 1) bytes follows
+ *   tag odd  → (tag >> 1) ASCII digits stored as one varint number (leading zeros kept by the digit count)
+ * Phone and Aadhaar numbers take about half the bytes they take in the CSV,
+ * and nothing needs quoting or escaping.
+ */
+public class BinaryCustomerFileWriter implements AutoCloseable {
+
+    public static final String EXTENSION = ".bin";
+    static final byte[] MAGIC = "CUSTBIN1".getBytes(StandardCharsets.US_ASCII);
+    static final int FIELD_COUNT = CustomerItemReader.FIELD_NAMES.length;
+
+    // 18 digits always fit in a long
+    static final int MAX_NUMERIC_DIGITS = 18;
+
+    private final OutputStream out;
+    private final ByteArrayOutputStream record = new ByteArrayOutputStream(256);
+    private long rowCount;
+
+    public BinaryCustomerFileWriter(String filePath) throws IOException {
+        this.out = new BufferedOutputStream(new FileOutputStream(filePath), 64 * 1024);
+        out.write(MAGIC);
+    }
+
+    /**
+     * Appends one row, missing trailing cells are written as empty strings
+     */
+    public void writeRow(List<String> cells) throws IOException {
+        record.reset();
+        for (int i = 0; i < FIELD_COUNT; i++) {
+            writeField(i < cells.size() ? cells.get(i) : "");
+        }
+        writeRecord();
+    }
+
+    /**
+     * Appends the seven CSV fields of a customer, null fields are written as empty strings
+     */
+    public void writeCustomer(Customer customer) throws IOException {
+        record.reset();
+        writeField(customer.getName());
+        writeField(customer.getEmail());
+        writeField(customer.getPhoneNumber());
+        writeField(customer.getAadhaarNumber());
+        writeField(customer.getPanNumber());
+        writeField(customer.getState());
+        writeField(customer.getCity());
+        writeRecord();
+    }
+
+    private void writeRecord() throws IOException {
+        writeVarLong(out, record.size());
+        record.writeTo(out);
+        rowCount++;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void writeField(String value) throws IOException {
+        if (value == null) {
+            value = "";
+        }
+        if (isPlainNumber(value)) {
+            writeVarLong(record, ((long) value.length() << 1) | 1);
+            writeVarLong(record, Long.parseLong(value));
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(record, (long) bytes.length << 1);
+        record.write(bytes, 0, bytes.length);
+    }
+
+    private static boolean isPlainNumber(String value) {
+        int length = value.length();
+        if (length == 0 || length > MAX_NUMERIC_DIGITS) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeVarLong(OutputStream target, long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            target.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        target.write((int) value);
+    }
+}
@@ -0,0 +1,174 @@
+package com.assignment.customer_batch_processor.Utilities;
+
+import com.assignment.customer_batch_processor.Customer_Entity.Customer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * BINARY SPILL READER
+ *
+ * Reads the file written by BinaryCustomerFileWriter through a memory-mapped window.
+ * There is no tokenizing, quoting or field mapping: every field is a length (or a
+ * number) read straight from the mapped bytes, the only allocations per row are the
+ * Customer and its seven strings.
+ * Restart skips the already read records by their length prefix without decoding them.
+ */
+@Slf4j
+public class BinaryCustomerItemReader extends AbstractItemCountingItemStreamItemReader<Customer> {
+
+    private static final long WINDOW_SIZE = 64L * 1024 * 1024;
+
+    private final Path path;
+    private FileChannel channel;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long fileSize;
+    private byte[] scratch = new byte[256];
+
+    public BinaryCustomerItemReader(String filePath) {
+        this.path = Paths.get(filePath);
+        setName("binaryItemReader");
+        setSaveState(true);
+    }
+
+    @Override
+    protected void doOpen() throws Exception {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        fileSize = channel.size();
+        map(0);
+
+        byte[] magic = new byte[BinaryCustomerFileWriter.MAGIC.length];
+        if (fileSize < magic.length) {
+            throw new IOException("Not a customer spill file: " + path);
+        }
+        window.get(magic);
+        if (!Arrays.equals(magic, BinaryCustomerFileWriter.MAGIC)) {
+            throw new IOException("Not a customer spill file: " + path);
+        }
+    }
+
+    @Override
+    protected Customer doRead() throws Exception {
+        int recordLength = nextRecordLength();
+        if (recordLength < 0) {
+            return null;
+        }
+
+        Customer customer = new Customer();
+        customer.setName(readField());
+        customer.setEmail(readField());
+        customer.setPhoneNumber(readField());
+        customer.setAadhaarNumber(readField());
+        customer.setPanNumber(readField());
+        customer.setState(readField());
+        customer.setCity(readField());
+        return customer;
+    }
+
+    @Override
+    protected void jumpToItem(int itemIndex) throws Exception {
+        for (int i = 0; i < itemIndex; i++) {
+            int recordLength = nextRecordLength();
+            if (recordLength < 0) {
+                return;
+            }
+            window.position(window.position() + recordLength);
+        }
+    }
+
+    @Override
+    protected void doClose() throws Exception {
+        window = null;
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    /**
+     * Reads the length prefix of the next record and makes sure the whole record is mapped
+     * @return record length, -1 at the end of the file
+     */
+    private int nextRecordLength() throws IOException {
+        if (position() >= fileSize) {
+            return -1;
+        }
+        ensureMapped(10);
+        int recordLength = (int) readVarLong();
+        ensureMapped(recordLength);
+        if (window.remaining() < recordLength) {
+            throw new IOException("Truncated record at offset " + position() + " in " + path);
+        }
+        return recordLength;
+    }
+
+    private String readField() {
+        long tag = readVarLong();
+        int length = (int) (tag >>> 1);
+
+        if ((tag & 1) == 0) {
+            if (length == 0) {
+                return "";
+            }
+            byte[] bytes = scratch(length);
+            window.get(bytes, 0, length);
+            return new String(bytes, 0, length, StandardCharsets.UTF_8);
+        }
+
+        // Digits stored as a number, written back right to left so leading zeros are kept
+        long value = readVarLong();
+        byte[] digits = scratch(length);
+        for (int i = length - 1; i >= 0; i--) {
+            digits[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return new String(digits, 0, length, StandardCharsets.ISO_8859_1);
+    }
+
+    private long readVarLong() {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = window.get();
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while (b < 0);
+        return value;
+    }
+
+    private byte[] scratch(int length) {
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        return scratch;
+    }
+
+    private long position() {
+        return windowStart + window.position();
+    }
+
+    /**
+     * Remaps the window at the current position when fewer than length bytes are left in it
+     */
+    private void ensureMapped(int length) throws IOException {
+        if (window.remaining() < length && windowStart + window.limit() < fileSize) {
+            map(position());
+        }
+    }
+
+    private void map(long start) throws IOException {
+        long size = Math.min(WINDOW_SIZE, fileSize - start);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+        windowStart = start;
+    }
+}
@@ -0,0 +1,164 @@
+package com.assignment.customer_batch_processor.Utilities;
+
+import com.assignment.customer_batch_processor.Customer_Entity.Customer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemReader;
+import org.springframework.batch.item.ItemStream;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * BLOCK PRE-VALIDATION
+ *
+ * Reads the delegate in blocks of blockSize customers and runs each check on the whole block,
+ * before CustomerItemProcessor sees the rows:
+ * - ColumnarCustomerValidator marks the valid rows prevalidated, the processor only normalizes them
+ * - DuplicateDetectionService marks the values already saved, with one query per block and field
+ * A read error is thrown in its place, after the customers read before it.
+ *
+ * The reader belongs to a step bean and its delegate is step scoped, so the block is kept per
+ * step execution. When a chunk commits in the middle of a block the saved state is the delegate's
+ * state at the block start plus the number of customers already returned: a restart reads the
+ * block again and drops those.
+ */
+@Slf4j
+public class BlockValidatingItemReader implements ItemStreamReader<Customer> {
+
+    public static final String CONSUMED_KEY = "blockValidatingItemReader.consumed";
+
+    private final ItemReader<Customer> delegate;
+    private final List<Consumer<List<Customer>>> checks;
+    private final int blockSize;
+
+    private final Map<Long, Block> blocks = new ConcurrentHashMap<>();
+
+    public BlockValidatingItemReader(ItemReader<Customer> delegate, List<Consumer<List<Customer>>> checks, int blockSize) {
+        this.delegate = delegate;
+        this.checks = List.copyOf(checks);
+        this.blockSize = Math.max(blockSize, 1);
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        blocks.put(stepExecutionId(), new Block());
+        if (delegate instanceof ItemStream stream) {
+            stream.open(executionContext);
+        }
+        int consumed = executionContext.getInt(CONSUMED_KEY, 0);
+        int skipped = 0;
+        try {
+            while (skipped < consumed && delegate.read() != null) {
+                skipped++;
+            }
+        } catch (Exception e) {
+            throw new ItemStreamException("Unable to skip the " + consumed + " customers read before the restart", e);
+        }
+        if (skipped > 0) {
+            log.info("Restart: skipped {} customers already read from the last block", skipped);
+        }
+    }
+
+    @Override
+    public Customer read() throws Exception {
+        Block block = block();
+        synchronized (block) {
+            if (block.next == block.customers.size() && block.failure == null && !block.exhausted) {
+                fill(block);
+            }
+            if (block.next < block.customers.size()) {
+                return block.customers.get(block.next++);
+            }
+            if (block.failure != null) {
+                Exception failure = block.failure;
+                block.failure = null;
+                throw failure;
+            }
+            return null;
+        }
+    }
+
+    private void fill(Block block) {
+        block.customers.clear();
+        block.next = 0;
+        block.start = new ExecutionContext();
+        if (delegate instanceof ItemStream stream) {
+            stream.update(block.start);
+        }
+        try {
+            while (block.customers.size() < blockSize) {
+                Customer customer = delegate.read();
+                if (customer == null) {
+                    block.exhausted = true;
+                    break;
+                }
+                block.customers.add(customer);
+            }
+        } catch (Exception e) {
+            block.failure = e;
+        }
+        if (block.customers.isEmpty()) {
+            return;
+        }
+        for (Consumer<List<Customer>> check : checks) {
+            check.accept(block.customers);
+        }
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        Block block = block();
+        synchronized (block) {
+            // Without saved delegate state (multi-threaded steps) a restart starts over, nothing to skip
+            if (block.next < block.customers.size() && !block.start.isEmpty()) {
+                block.start.entrySet().forEach(entry -> executionContext.put(entry.getKey(), entry.getValue()));
+                executionContext.putInt(CONSUMED_KEY, block.next);
+                return;
+            }
+        }
+        if (delegate instanceof ItemStream stream) {
+            stream.update(executionContext);
+        }
+        executionContext.remove(CONSUMED_KEY);
+    }
+
+    @Override
+    public void close() throws ItemStreamException {
+        blocks.remove(stepExecutionId());
+        if (delegate instanceof ItemStream stream) {
+            stream.close();
+        }
+    }
+
+    private Block block() {
+        return blocks.computeIfAbsent(stepExecutionId(), id -> new Block());
+    }
+
+    private static long stepExecutionId() {
+        StepContext context = StepSynchronizationManager.getContext();
+        StepExecution stepExecution = context == null ? null : context.getStepExecution();
+        return stepExecution == null || stepExecution.getId() == null ? 0L : stepExecution.getId();
+    }
+
+    /**
+     * Customers read ahead for one step execution
+     */
+    private static final class Block {
+
+        private final List<Customer> customers = new ArrayList<>();
+        private int next;
+        private boolean exhausted;
+        private Exception failure;
+        // Delegate state before the block was read
+        private ExecutionContext start = new ExecutionContext();
+    }
+}
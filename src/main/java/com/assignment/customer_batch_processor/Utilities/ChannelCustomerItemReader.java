@@ -0,0 +1,78 @@
+package com.assignment.customer_batch_processor.Utilities;
+
+import com.assignment.customer_batch_processor.Customer_Entity.Customer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
+
+/**
+ * PIPELINED READER
+ *
+ * Drains the row channel filled by a running XLSX conversion, so the step
+ * starts while the converter is still writing the CSV.
+ * When the channel is gone (restart, or conversion already collected) it
+ * falls back to reading the converted file.
+ */
+@Slf4j
+public class ChannelCustomerItemReader implements ItemStreamReader<Customer> {
+
+    private final CustomerRowChannelRegistry registry;
+    private final String channelId;
+    private final String filePath;
+
+    private CustomerRowChannel channel;
+    private ItemStreamReader<Customer> fileReader;
+    private int rowCount;
+
+    public ChannelCustomerItemReader(CustomerRowChannelRegistry registry, String channelId, String filePath) {
+        this.registry = registry;
+        this.channelId = channelId;
+        this.filePath = filePath;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        CustomerRowChannel candidate = registry.get(channelId);
+        if (candidate != null && !candidate.isCancelled()) {
+            channel = candidate;
+            log.info("Reading customers from conversion pipeline {}", channelId);
+            return;
+        }
+
+        log.info("Pipeline {} not available, reading converted file {}", channelId, filePath);
+        fileReader = CustomerItemReader.forFile(filePath);
+        fileReader.open(executionContext);
+    }
+
+    @Override
+    public Customer read() throws Exception {
+        if (fileReader != null) {
+            return fileReader.read();
+        }
+        Customer customer = channel.take();
+        if (customer != null) {
+            // The file readers number their rows themselves
+            customer.setItemCount(++rowCount);
+        }
+        return customer;
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        if (fileReader != null) {
+            fileReader.update(executionContext);
+        }
+    }
+
+    @Override
+    public void close() throws ItemStreamException {
+        if (fileReader != null) {
+            fileReader.close();
+        }
+        if (channel != null) {
+            // Stops the producer if the step ended before the conversion did
+            registry.close(channelId);
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.assignment.customer_batch_processor.Utilities;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Splits one CSV into gridSize byte ranges of about the same size.
+ *
+ * Every boundary is moved forward to the start of the next record, scanning with the
+ * same quote rules as MappedCsvCustomerItemReader so a quoted line break never splits
+ * a record. The first range starts after the header line.
+ * Each partition gets filePath, startOffset and endOffset in its step execution context,
+ * the worker reader keeps its own restart offset there as well.
+ */
+@Slf4j
+public class CsvByteRangePartitioner implements Partitioner {
+
+    private static final int BUFFER_SIZE = 1024 * 1024;
+
+    private final String filePath;
+
+    public CsvByteRangePartitioner(String filePath) {
+        this.filePath = filePath;
+    }
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        List<Long> boundaries;
+        try {
+            boundaries = recordBoundaries(Math.max(gridSize, 1));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to partition " + filePath, e);
+        }
+
+        Map<String, ExecutionContext> partitions = new HashMap<>();
+        for (int i = 0; i < boundaries.size() - 1; i++) {
+            ExecutionContext context = new ExecutionContext();
+            context.putString("filePath", filePath);
+            context.putLong("startOffset", boundaries.get(i));
+            context.putLong("endOffset", boundaries.get(i + 1));
+            partitions.put("range" + i, context);
+        }
+
+        log.info("Partitioned {} into {} byte ranges", filePath, partitions.size());
+        return partitions;
+    }
+
+    /**
+     * Record-aligned offsets: the end of the header, one offset per boundary, the file size
+     */
+    private List<Long> recordBoundaries(int gridSize) throws IOException {
+        List<Long> boundaries = new ArrayList<>();
+
+        try (FileChannel channel = FileChannel.open(Paths.get(filePath), StandardOpenOption.READ)) {
+            long fileSize = channel.size();
+            ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+
+            long offset = 0;
+            long nextTarget = -1;
+            long rangeSize = 0;
+            boolean quoted = false;
+
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                while (buffer.hasRemaining()) {
+                    byte b = buffer.get();
+                    offset++;
+                    if (b == '"') {
+                        quoted = !quoted;
+                    } else if (b == '\n' && !quoted) {
+                        if (nextTarget < 0) {
+                            // End of the header line, split what follows
+                            boundaries.add(offset);
+                            rangeSize = Math.max((fileSize - offset) / gridSize, 1);
+                            nextTarget = offset + rangeSize;
+                        } else if (offset >= nextTarget && offset < fileSize) {
+                            boundaries.add(offset);
+                            nextTarget = offset + rangeSize;
+                        }
+                    }
+                }
+                buffer.clear();
+            }
+
+            if (boundaries.isEmpty()) {
+                boundaries.add(fileSize);
+            }
+            boundaries.add(fileSize);
+        }
+        return boundaries;
+    }
+}
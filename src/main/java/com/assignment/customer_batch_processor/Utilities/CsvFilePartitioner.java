@@ -0,0 +1,53 @@
+package com.assignment.customer_batch_processor.Utilities;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * One partition per converted file of a directory (one .csv or .bin file per sheet).
+ * Each partition gets the file in its step execution context under "filePath".
+ */
+@Slf4j
+public class CsvFilePartitioner implements Partitioner {
+
+    private final String inputDir;
+
+    public CsvFilePartitioner(String inputDir) {
+        this.inputDir = inputDir;
+    }
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        List<Path> files;
+        try (Stream<Path> listing = Files.list(Paths.get(inputDir))) {
+            files = listing
+                    .filter(p -> p.getFileName().toString().endsWith(".csv")
+                            || p.getFileName().toString().endsWith(BinaryCustomerFileWriter.EXTENSION))
+                    .sorted()
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to list partition files in " + inputDir, e);
+        }
+
+        Map<String, ExecutionContext> partitions = new HashMap<>();
+        for (int i = 0; i < files.size(); i++) {
+            ExecutionContext context = new ExecutionContext();
+            context.putString("filePath", files.get(i).toString());
+            partitions.put("partition" + i, context);
+        }
+
+        log.info("Partitioned {} into {} files", inputDir, partitions.size());
+        return partitions;
+    }
+}
@@ -0,0 +1,41 @@
+package com.assignment.customer_batch_processor.Utilities;
+
+import com.assignment.customer_batch_processor.Customer_Entity.Customer;
+import com.assignment.customer_batch_processor.service.DuplicateDetectionService;
+import com.assignment.customer_batch_processor.service.EncryptionService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Load step processor of the async pipeline.
+ * Encrypts Aadhaar and PAN on the async executor instead of in CustomerItemWriter,
+ * so AES work overlaps with reading and with the database writes of the step thread.
+ */
+@Component
+@Slf4j
+public class CustomerEncryptionProcessor implements ItemProcessor<Customer, Customer> {
+
+    @Autowired
+    public EncryptionService encryptionService;
+
+    @Autowired
+    public DuplicateDetectionService duplicateDetectionService;
+
+    @Override
+    public Customer process(Customer customer) throws Exception {
+        if (customer.isEncrypted()) {
+            return customer;
+        }
+        duplicateDetectionService.saving(customer, customer.getAadhaarNumber(), customer.getPanNumber());
+        if (customer.getAadhaarNumber() != null) {
+            customer.setAadhaarNumber(encryptionService.encrypt(customer.getAadhaarNumber()));
+        }
+        if (customer.getPanNumber() != null) {
+            customer.setPanNumber(encryptionService.encrypt(customer.getPanNumber()));
+        }
+        customer.setEncrypted(true);
+        return customer;
+    }
+}
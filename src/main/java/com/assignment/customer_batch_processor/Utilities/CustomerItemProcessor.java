@@ -1,14 +1,19 @@
 package com.assignment.customer_batch_processor.Utilities;
 
 import com.assignment.customer_batch_processor.Customer_Entity.Customer;
+import com.assignment.customer_batch_processor.service.DuplicateDetectionService;
 import com.assignment.customer_batch_processor.service.EncryptionService;
 import com.assignment.customer_batch_processor.validator.CustomerValidator;
+import com.assignment.customer_batch_processor.validator.ValidationError;
 import com.assignment.customer_batch_processor.validator.ValidationException;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.item.ItemProcessor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
 /**
  * Receive Customer objects from Reader
  * Validate all fields using regex patterns
@@ -22,12 +27,16 @@ public class CustomerItemProcessor implements ItemProcessor<Customer, Customer>
     public CustomerValidator customerValidator;
     @Autowired
     public EncryptionService encryptionService;
-    private int processedCount = 0;
+    @Autowired
+    public DuplicateDetectionService duplicateDetectionService;
+    // Shared by all step threads, LongAdder keeps increments contention free
+    private final LongAdder processedCount = new LongAdder();
 
     @Override
     public Customer process(Customer customer) throws ValidationException {
-        processedCount++;
-        log.info(" PROCESSOR: Processing customer #{} - {}", processedCount, customer.getName());
+        processedCount.increment();
+        long count = processedCount.sum();
+        log.info(" PROCESSOR: Processing customer #{} - {}", count, customer.getName());
 
         try {
             // STEP: Clean and normalize data
@@ -37,7 +46,7 @@ public class CustomerItemProcessor implements ItemProcessor<Customer, Customer>
             customerFromCsv.setCreatedDate(java.time.LocalDateTime.now());
             customerFromCsv.setUpdatedDate(null);
 
-            logProgress();
+            logProgress(count);
             log.info(" PROCESSOR: Successfully processed customer - Name: {}", customerFromCsv.getName());
 
             return customerFromCsv;
@@ -48,79 +57,26 @@ public class CustomerItemProcessor implements ItemProcessor<Customer, Customer>
         }
     }
 
+    /**
+     * Checks every field before failing, so one ValidationException reports all invalid fields of the row.
+     * Valid rows create no error objects, the exception is built only at the step boundary.
+     * Valid rows are then checked for duplicate email, phone number, Aadhaar and PAN.
+     */
     private Customer cleanAndBuildCustomer(Customer customer) {
         log.info(" PROCESSOR: Cleaning customer data");
-
-
-
-        // Name
-
-
-        if (customer.getName() != null) {
-            if (customerValidator.isValidName(customer.getName())) {
-                customer.setName(customer.getName().trim());
-            } else {
-                throw new ValidationException("Invalid name " + customer.getName());
-            }
-        }
-
-        // Email
-        if (customer.getEmail() != null) {
-            if (customerValidator.isValidEmail(customer.getEmail())) {
-
-                customer.setEmail(customer.getEmail().trim().toLowerCase());
-            } else {
-                throw new ValidationException("Invalid email for name " + customer.getName());
-            }
-        }
-
-        // Phone
-        if (customer.getPhoneNumber() != null) {
-            if (customerValidator.isValidMobile(customer.getPhoneNumber())) {
-                customer.setPhoneNumber(customer.getPhoneNumber().trim().replaceAll("[^0-9]", ""));
-            } else {
-                throw new ValidationException("Invalid phone number for name " + customer.getName());
+        // Rows ColumnarCustomerValidator found valid only need normalizing
+        if (customer.isPrevalidated()) {
+            customerValidator.normalize(customer);
+        } else {
+            int invalidFields = customerValidator.normalizeAndValidate(customer);
+            if (invalidFields != 0) {
+                throw ValidationException.of(customer, invalidFields);
             }
         }
-
-        // Aadhaar
-        if (customer.getAadhaarNumber() != null) {
-            if (customerValidator.isValidAadhaar(customer.getAadhaarNumber())) {
-                customer.setAadhaarNumber(customer.getAadhaarNumber().trim().replaceAll("[^0-9]", ""));
-            } else {
-                throw new ValidationException("Invalid Aadhaar for name " + customer.getName());
-            }
-        }
-
-        // PAN
-        if (customer.getPanNumber() != null) {
-            if (customerValidator.isValidPAN(customer.getPanNumber())) {
-                customer.setPanNumber(customer.getPanNumber().trim().toUpperCase());
-            } else {
-                throw new ValidationException("Invalid PAN for name " + customer.getName());
-            }
-        }
-
-        // State
-        if (customer.getState() != null) {
-            if (customerValidator.isValidState(customer.getState())) {
-                customer.setState(customer.getState().trim().toUpperCase());
-            } else {
-                throw new ValidationException("Invalid state for name " + customer.getName());
-            }
-        }
-
-        // City
-        if (customer.getCity() != null) {
-            if (customerValidator.isValidCity(customer.getCity())) {
-                customer.setCity(customer.getCity().trim().toUpperCase());
-            } else {
-                throw new ValidationException("Invalid city for name " + customer.getName());
-            }
+        List<ValidationError> duplicates = duplicateDetectionService.duplicates(customer);
+        if (!duplicates.isEmpty()) {
+            throw new ValidationException(duplicates);
         }
-
-
-
         return customer;
     }
 
@@ -134,9 +90,9 @@ public class CustomerItemProcessor implements ItemProcessor<Customer, Customer>
 
     //  Logs progress every 1000 records
 
-    private void logProgress() {
-        if (processedCount % 1000 == 0) {
-            log.info(" PROCESSOR: Progress - Processed: {}", processedCount);
+    private void logProgress(long count) {
+        if (count % 1000 == 0) {
+            log.info(" PROCESSOR: Progress - Processed: {}", count);
         }
     }
 
@@ -5,6 +5,7 @@ import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.item.ItemReader;
+import org.springframework.batch.item.ItemStreamReader;
 import org.springframework.batch.item.file.FlatFileItemReader;
 import org.springframework.batch.item.file.mapping.BeanWrapperFieldSetMapper;
 import org.springframework.batch.item.file.mapping.DefaultLineMapper;
@@ -16,6 +17,8 @@ import org.springframework.stereotype.Component;
 
 import jakarta.annotation.PostConstruct;
 
+import java.util.List;
+
 /**
  * READER COMPONENT
  *
@@ -31,6 +34,10 @@ import jakarta.annotation.PostConstruct;
 @Slf4j
 public class CustomerItemReader {
 
+    // Column order of the customer sheet / CSV
+    public static final String[] FIELD_NAMES =
+            {"name", "email", "phoneNumber", "aadhaarNumber", "panNumber", "state", "city"};
+
     public static FlatFileItemReader<Customer> customerFlatFileItemReader(String filePath) {
 
         FlatFileItemReader<Customer> reader = new FlatFileItemReader<>();
@@ -43,7 +50,7 @@ public class CustomerItemReader {
 
         // Configure tokenizer
         DelimitedLineTokenizer tokenizer = new DelimitedLineTokenizer();
-        tokenizer.setNames("name", "email", "phoneNumber", "aadhaarNumber", "panNumber", "state", "city");
+        tokenizer.setNames(FIELD_NAMES);
         tokenizer.setDelimiter(",");
         tokenizer.setQuoteCharacter('"');
         tokenizer.setStrict(false);
@@ -64,4 +71,52 @@ public class CustomerItemReader {
 
     }
 
+    /**
+     * Reader for a job input file.
+     * An .xlsx input is read directly from the sheet, a .bin input as the binary spill file,
+     * anything else as the converted CSV.
+     */
+    public static ItemStreamReader<Customer> forFile(String filePath) {
+        return forFile(filePath, false);
+    }
+
+    /**
+     * Reader for a job input file, a CSV is read with the memory-mapped reader when mappedCsv is set
+     */
+    public static ItemStreamReader<Customer> forFile(String filePath, boolean mappedCsv) {
+        if (filePath != null && filePath.toLowerCase().endsWith(".xlsx")) {
+            log.info("Reading customers directly from XLSX file: {}", filePath);
+            return new XlsxCustomerItemReader(filePath);
+        }
+        if (filePath != null && filePath.endsWith(BinaryCustomerFileWriter.EXTENSION)) {
+            log.info("Reading customers from binary spill file: {}", filePath);
+            return new BinaryCustomerItemReader(filePath);
+        }
+        if (mappedCsv) {
+            return new MappedCsvCustomerItemReader(filePath);
+        }
+        return customerFlatFileItemReader(filePath);
+    }
+
+    /**
+     * Maps the cells of one row to a Customer, by position.
+     * Missing trailing cells become empty strings, extra cells are ignored,
+     * the same way the non strict DelimitedLineTokenizer does.
+     */
+    public static Customer toCustomer(List<String> values) {
+        Customer customer = new Customer();
+        customer.setName(valueAt(values, 0));
+        customer.setEmail(valueAt(values, 1));
+        customer.setPhoneNumber(valueAt(values, 2));
+        customer.setAadhaarNumber(valueAt(values, 3));
+        customer.setPanNumber(valueAt(values, 4));
+        customer.setState(valueAt(values, 5));
+        customer.setCity(valueAt(values, 6));
+        return customer;
+    }
+
+    private static String valueAt(List<String> values, int index) {
+        return index < values.size() ? values.get(index) : "";
+    }
+
 }
\ No newline at end of file
@@ -5,9 +5,9 @@ package com.assignment.customer_batch_processor.Utilities;
 
 import com.assignment.customer_batch_processor.Customer_Entity.Customer;
 import com.assignment.customer_batch_processor.repository.CustomerRepository;
+import com.assignment.customer_batch_processor.service.DuplicateDetectionService;
 import com.assignment.customer_batch_processor.service.EncryptionService;
 import com.assignment.customer_batch_processor.validator.RetryException;
-import com.assignment.customer_batch_processor.validator.ValidationException;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import jakarta.transaction.Transactional;
@@ -19,7 +19,7 @@ import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
 import java.util.List;
-import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
 
 /**
  * WRITER COMPONENT
@@ -42,8 +42,11 @@ public class CustomerItemWriter implements ItemWriter<Customer> {
     @Autowired
     public EncryptionService encryptionService;
 
-    // Updated static variables for retry testing
-    private static int totalProcessed = 0;
+    @Autowired
+    public DuplicateDetectionService duplicateDetectionService;
+
+    // Updated static variables for retry testing, shared by all step threads
+    private static final LongAdder totalProcessed = new LongAdder();
    // private static boolean hasFailedOnce = false;
 
    // private static int attemptCount = 0;
@@ -55,7 +58,7 @@ public class CustomerItemWriter implements ItemWriter<Customer> {
         List<? extends Customer> customers = chunk.getItems();
         int chunkSize = customers.size();
 
-        log.info("WRITER: Writing chunk of {} customers to database. Total so far: {} ", chunkSize, totalProcessed);
+        log.info("WRITER: Writing chunk of {} customers to database. Total so far: {} ", chunkSize, totalProcessed.sum());
 
         /**
          * Test to check if retry is working.
@@ -67,47 +70,80 @@ public class CustomerItemWriter implements ItemWriter<Customer> {
 //        }
 
 
-        for (Customer customer : customers) {
+        // Aadhaar/PAN as received, put back if the chunk fails so a retry or skip scan starts from the processed item
+        String[] plainAadhaar = new String[chunkSize];
+        String[] plainPan = new String[chunkSize];
+        boolean encrypted = true;
+        for (int index = 0; index < chunkSize; index++) {
+            Customer customer = customers.get(index);
+            plainAadhaar[index] = customer.getAadhaarNumber();
+            plainPan[index] = customer.getPanNumber();
+            encrypted &= customer.isEncrypted();
+        }
+
+        // Async pipeline: CustomerEncryptionProcessor already encrypted them, otherwise the whole chunk is encrypted at once
+        String[] encryptedAadhaar = new String[chunkSize];
+        String[] encryptedPan = new String[chunkSize];
+        if (!encrypted) {
             try {
-                // Your existing code...
-                if (customer.getAadhaarNumber() != null) {
-                    String encryptedAadhaar = encryptionService.encrypt(customer.getAadhaarNumber());
-                    customer.setAadhaarNumber(encryptedAadhaar);
-                    log.debug(" WRITER: Aadhaar encrypted successfully");
-                }
+                encryptionService.encryptAll(plainAadhaar, encryptedAadhaar);
+                encryptionService.encryptAll(plainPan, encryptedPan);
+                log.debug(" WRITER: Aadhaar and PAN of {} customers encrypted successfully", chunkSize);
+            } catch (Exception e) {
+                log.info("WRITER: Failed to encrypt chunk: {}", e.getMessage());
+                throw new RetryException("Exception in write data {} " + e.getMessage(), e);
+            }
+        }
 
-                if (customer.getPanNumber() != null) {
-                    String encryptedPan = encryptionService.encrypt(customer.getPanNumber());
-                    customer.setPanNumber(encryptedPan);
-                    log.debug(" WRITER: PAN encrypted successfully");
+        for (int index = 0; index < chunkSize; index++) {
+            Customer customer = customers.get(index);
+            try {
+                if (!customer.isEncrypted()) {
+                    duplicateDetectionService.saving(customer, plainAadhaar[index], plainPan[index]);
+                    customer.setAadhaarNumber(encryptedAadhaar[index]);
+                    customer.setPanNumber(encryptedPan[index]);
                 }
-                //isDuplicateCustomer(customer);
                 setAuditFields(customer);
                 saveCustomer(customer);
 
 
-                totalProcessed++;
-                log.info("WRITER: Saved customer #{} - Name: {}", totalProcessed, customer.getName());
+                totalProcessed.increment();
+                log.info("WRITER: Saved customer #{} - Name: {}", totalProcessed.sum(), customer.getName());
 
             } catch (Exception e) {
                 log.info("WRITER: Failed to save customer {}: {}", customer.getName(), e.getMessage());
+                restore(customers, index + 1, plainAadhaar, plainPan);
                 throw new RetryException("Exception in write data {} " + e.getMessage(), e);
             }
         }
 
         // Flush changes to database
         try {
-            customerRepository.flush();
+            entityManager.flush();
             entityManager.clear(); // Clear persistence context to free memory
         } catch (Exception e) {
             log.info("WRITER: Error flushing entity manager: {}", e.getMessage());
+            restore(customers, chunkSize, plainAadhaar, plainPan);
             throw new RetryException("Exception in write data {} " + e.getMessage(), e);
         }
 
-        log.info("Successfully wrote {} customers. Total processed: {}", chunkSize, totalProcessed);
+        log.info("Successfully wrote {} customers. Total processed: {}", chunkSize, totalProcessed.sum());
     }
 
 
+    /**
+     * The chunk transaction rolls back: the first count customers get their Aadhaar/PAN as received back
+     * and lose the generated id, otherwise a retry would encrypt twice and persist a detached entity
+     */
+    private void restore(List<? extends Customer> customers, int count, String[] plainAadhaar, String[] plainPan) {
+        for (int i = 0; i < count; i++) {
+            Customer customer = customers.get(i);
+            customer.setAadhaarNumber(plainAadhaar[i]);
+            customer.setPanNumber(plainPan[i]);
+            customer.setId(null);
+        }
+    }
+
     private void setAuditFields(Customer customer) {
         LocalDateTime now = LocalDateTime.now();
         customer.setCreatedDate(now);
@@ -116,30 +152,15 @@ public class CustomerItemWriter implements ItemWriter<Customer> {
 
     /**
      * STEP : Save customer to database
+     * Every customer is new, persist goes through the transaction-bound EntityManager
+     * of the calling thread, so concurrent chunks never share a persistence context.
      */
     private void saveCustomer(Customer customer) throws Exception {
         try {
-            customerRepository.save(customer);
+            entityManager.persist(customer);
         } catch (Exception e) {
             log.error("Exception in save customer");
             throw new Exception("Exception in save Customer " + e.getMessage(), e);
         }
     }
-
-    /**
-     * i am checking if my customer is having the duplicate entry just to test.
-     */
-//    public void isDuplicateCustomer(Customer customer) throws RetryException {
-//        try {
-//            Optional<Customer> c = customerRepository.findByEmail(customer.getEmail());
-//
-//            if (c.isPresent()) {
-//                log.info("is duplicate email present {} ", c.get().getEmail());
-//                throw new ValidationException("Customer All ready exist" + c.get().getName());
-//            }
-//        } catch (Exception e) {
-//            log.error("Duplicate customer exist");
-//            throw new org.springframework.retry.RetryException("Customer All ready exist" + customer.getName());
-//        }
 }
-
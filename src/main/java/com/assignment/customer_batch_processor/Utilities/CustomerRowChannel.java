@@ -0,0 +1,120 @@
+package com.assignment.customer_batch_processor.Utilities;
+
+import com.assignment.customer_batch_processor.Customer_Entity.Customer;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Bounded hand-off between the XLSX converter (producer) and the job reader (consumer).
+ *
+ * The producer blocks when the queue is full, so memory stays bounded by the
+ * queue capacity no matter how far conversion runs ahead of processing.
+ * The consumer gives up when no row arrives for idleTimeout, a producer that died
+ * without completing or failing the channel cannot hold the job forever.
+ */
+public class CustomerRowChannel {
+
+    // Marks the end of the stream (completed, failed or cancelled)
+    private static final Customer END = new Customer();
+    private static final Duration DEFAULT_IDLE_TIMEOUT = Duration.ofMinutes(10);
+
+    private final String id;
+    private final BlockingQueue<Customer> queue;
+    private final Duration idleTimeout;
+    private volatile Throwable failure;
+    private volatile boolean cancelled;
+    private boolean finished;
+
+    public CustomerRowChannel(String id, int capacity) {
+        this(id, capacity, DEFAULT_IDLE_TIMEOUT);
+    }
+
+    public CustomerRowChannel(String id, int capacity, Duration idleTimeout) {
+        this.id = id;
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.idleTimeout = idleTimeout;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    /**
+     * Producer side: waits for space in the queue
+     * @throws CancellationException if the consumer went away
+     */
+    public void publish(Customer customer) throws InterruptedException {
+        while (!queue.offer(customer, 1, TimeUnit.SECONDS)) {
+            if (cancelled) {
+                throw new CancellationException("Row channel " + id + " was cancelled by the consumer");
+            }
+        }
+    }
+
+    /**
+     * Producer side: all rows were published
+     */
+    public void complete() {
+        offerEnd();
+    }
+
+    /**
+     * Producer side: conversion failed, the consumer gets the error on its next take
+     */
+    public void fail(Throwable error) {
+        this.failure = error;
+        offerEnd();
+    }
+
+    /**
+     * Consumer side: stop the producer and drop whatever is queued
+     */
+    public void cancel() {
+        cancelled = true;
+        queue.clear();
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Consumer side: next row, or null once the producer completed
+     * @throws IllegalStateException when the producer failed or sent nothing for idleTimeout
+     */
+    public Customer take() throws Exception {
+        if (finished) {
+            return null;
+        }
+        Customer customer = queue.poll(idleTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        if (customer == null) {
+            finished = true;
+            throw new IllegalStateException("No row from the XLSX conversion on channel " + id + " for " + idleTimeout);
+        }
+        if (customer == END) {
+            finished = true;
+            if (failure != null) {
+                throw new IllegalStateException("XLSX conversion failed: " + failure.getMessage(), failure);
+            }
+            return null;
+        }
+        return customer;
+    }
+
+    private void offerEnd() {
+        // Waits like publish, but gives up once the consumer cancelled
+        try {
+            while (!queue.offer(END, 1, TimeUnit.SECONDS)) {
+                if (cancelled) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
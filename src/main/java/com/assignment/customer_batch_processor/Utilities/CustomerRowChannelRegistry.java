@@ -0,0 +1,50 @@
+package com.assignment.customer_batch_processor.Utilities;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the open row channels of pipelined uploads.
+ * The channel id travels to the job as the 'channelId' job parameter.
+ */
+@Component
+@Slf4j
+public class CustomerRowChannelRegistry {
+
+    @Value("${app.pipeline.queue-capacity:5000}")
+    private int queueCapacity;
+
+    // The reader fails when the conversion sends no row for this long
+    @Value("${app.pipeline.idle-timeout:10m}")
+    private Duration idleTimeout;
+
+    private final Map<String, CustomerRowChannel> channels = new ConcurrentHashMap<>();
+
+    public CustomerRowChannel open() {
+        CustomerRowChannel channel = new CustomerRowChannel(UUID.randomUUID().toString(), queueCapacity, idleTimeout);
+        channels.put(channel.getId(), channel);
+        log.debug("Opened row channel {} with capacity {}", channel.getId(), queueCapacity);
+        return channel;
+    }
+
+    public CustomerRowChannel get(String channelId) {
+        return channelId == null ? null : channels.get(channelId);
+    }
+
+    /**
+     * Removes the channel and stops its producer if it is still running
+     */
+    public void close(String channelId) {
+        CustomerRowChannel channel = channels.remove(channelId);
+        if (channel != null) {
+            channel.cancel();
+            log.debug("Closed row channel {}", channelId);
+        }
+    }
+}
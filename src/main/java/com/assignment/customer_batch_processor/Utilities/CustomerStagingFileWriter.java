@@ -0,0 +1,80 @@
+package com.assignment.customer_batch_processor.Utilities;
+
+import com.assignment.customer_batch_processor.Customer_Entity.Customer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamWriter;
+
+import java.io.IOException;
+
+/**
+ * STAGING WRITER
+ *
+ * Writer of the single-pass stage step: validated, normalized customers are spilled to a
+ * binary file (BinaryCustomerFileWriter format) next to the input instead of being thrown away,
+ * the promote step then loads that file with BinaryCustomerItemReader.
+ *
+ * Every open starts a new file: the staging file is deleted when the job ends, whatever its
+ * status, so a failed stage step is not resumed and validation runs again from the first row.
+ */
+@Slf4j
+public class CustomerStagingFileWriter implements ItemStreamWriter<Customer> {
+
+    public static final String SUFFIX = ".staged" + BinaryCustomerFileWriter.EXTENSION;
+
+    private final String stagedFilePath;
+    private BinaryCustomerFileWriter writer;
+
+    public CustomerStagingFileWriter(String stagedFilePath) {
+        this.stagedFilePath = stagedFilePath;
+    }
+
+    /**
+     * Staging file for a job input file
+     */
+    public static String stagedFilePathFor(String filePath) {
+        return filePath + SUFFIX;
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        try {
+            writer = new BinaryCustomerFileWriter(stagedFilePath);
+        } catch (IOException e) {
+            throw new ItemStreamException("Unable to open staging file " + stagedFilePath, e);
+        }
+    }
+
+    @Override
+    public synchronized void write(Chunk<? extends Customer> chunk) throws Exception {
+        for (Customer customer : chunk) {
+            writer.writeCustomer(customer);
+        }
+        log.info("WRITER: Staged {} customers. Total staged: {}", chunk.size(), writer.getRowCount());
+    }
+
+    @Override
+    public synchronized void update(ExecutionContext executionContext) throws ItemStreamException {
+        try {
+            writer.flush();
+        } catch (IOException e) {
+            throw new ItemStreamException("Unable to flush staging file " + stagedFilePath, e);
+        }
+    }
+
+    @Override
+    public void close() throws ItemStreamException {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.close();
+        } catch (IOException e) {
+            throw new ItemStreamException("Unable to close staging file " + stagedFilePath, e);
+        } finally {
+            writer = null;
+        }
+    }
+}
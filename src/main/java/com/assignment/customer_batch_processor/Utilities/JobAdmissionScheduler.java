@@ -0,0 +1,259 @@
+package com.assignment.customer_batch_processor.Utilities;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * JOB ADMISSION
+ *
+ * Task executor of the async job launcher: jobs wait in a bounded queue and at most
+ * maxConcurrentJobs of them run at once (on jobExecutor). Queued jobs stay STARTING.
+ * - two lanes: small files are admitted first, but after smallLaneWeight small jobs in a row
+ *   a waiting large job goes next, so large files are never starved
+ * - within a lane uploaders take turns (round robin), one uploader's burst does not delay the others
+ * - a full queue rejects the job (TaskRejectedException), the upload can be retried later
+ *
+ * The lane and uploader of a job are given with {@link #ticket} around the launcher call,
+ * the launcher submits the job from the same thread. The ticket holds a place in the queue,
+ * so a full queue is reported before the launcher creates a job execution. A job the job executor
+ * refuses when its turn comes is reported to the ticket's start failure handler, the launcher has
+ * returned by then and cannot fail its execution.
+ *
+ * Metrics: customer.batch.jobs.queued (gauge, per lane), customer.batch.jobs.running (gauge),
+ * customer.batch.jobs.rejected (counter), customer.batch.jobs.queue.wait (timer).
+ */
+@Slf4j
+public class JobAdmissionScheduler implements TaskExecutor {
+
+    public enum Lane { SMALL, LARGE }
+
+    private static final String UNKNOWN_UPLOADER = "anonymous";
+
+    private final TaskExecutor jobExecutor;
+    private final int maxConcurrentJobs;
+    private final int maxQueuedJobs;
+    private final int smallLaneWeight;
+
+    private final ThreadLocal<Ticket> currentTicket = new ThreadLocal<>();
+
+    // Per lane: uploader -> waiting jobs, in the order uploaders get their next turn
+    private final Map<Lane, LinkedHashMap<String, Deque<QueuedJob>>> queues = new EnumMap<>(Lane.class);
+    private final Map<Lane, Integer> queuedPerLane = new EnumMap<>(Lane.class);
+    private int queued;
+    // Places held by tickets whose job is not submitted yet
+    private int reserved;
+    private int running;
+    private int smallAdmittedInARow;
+
+    private final Counter rejectedCounter;
+    private final Timer waitTimer;
+
+    public JobAdmissionScheduler(TaskExecutor jobExecutor, int maxConcurrentJobs, int maxQueuedJobs,
+                                 int smallLaneWeight, MeterRegistry meterRegistry) {
+        this.jobExecutor = jobExecutor;
+        this.maxConcurrentJobs = Math.max(maxConcurrentJobs, 1);
+        this.maxQueuedJobs = Math.max(maxQueuedJobs, 0);
+        this.smallLaneWeight = Math.max(smallLaneWeight, 1);
+
+        for (Lane lane : Lane.values()) {
+            queues.put(lane, new LinkedHashMap<>());
+            queuedPerLane.put(lane, 0);
+            Gauge.builder("customer.batch.jobs.queued", this, scheduler -> scheduler.queuedJobs(lane))
+                    .tag("lane", lane.name().toLowerCase())
+                    .register(meterRegistry);
+        }
+        Gauge.builder("customer.batch.jobs.running", this, JobAdmissionScheduler::runningJobs).register(meterRegistry);
+        rejectedCounter = Counter.builder("customer.batch.jobs.rejected").register(meterRegistry);
+        waitTimer = Timer.builder("customer.batch.jobs.queue.wait").register(meterRegistry);
+    }
+
+    /**
+     * Holds a place in the queue for the next job submitted by this thread, with its lane and uploader
+     * @throws TaskRejectedException when the queue is full
+     */
+    public Ticket ticket(String uploader, Lane lane) {
+        synchronized (this) {
+            reserve();
+        }
+        Ticket ticket = new Ticket(uploader == null || uploader.isBlank() ? UNKNOWN_UPLOADER : uploader, lane);
+        currentTicket.set(ticket);
+        return ticket;
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        Ticket ticket = currentTicket.get();
+        currentTicket.remove();
+        String uploader = ticket == null ? UNKNOWN_UPLOADER : ticket.uploader();
+        Lane lane = ticket == null ? Lane.LARGE : ticket.lane();
+
+        synchronized (this) {
+            if (ticket == null) {
+                reserve();
+            }
+            reserved--;
+            queues.get(lane).computeIfAbsent(uploader, key -> new ArrayDeque<>())
+                    .add(new QueuedJob(task, ticket, uploader, lane, System.nanoTime()));
+            queuedPerLane.merge(lane, 1, Integer::sum);
+            queued++;
+            log.debug("Queued {} job of {}, {} waiting, {} running", lane, uploader, queued, running);
+        }
+        dispatch();
+    }
+
+    /**
+     * Starts queued jobs while there are free slots
+     */
+    private void dispatch() {
+        List<QueuedJob> admitted = new ArrayList<>();
+        synchronized (this) {
+            while (running < maxConcurrentJobs && queued > 0) {
+                admitted.add(next());
+                running++;
+            }
+        }
+        for (QueuedJob job : admitted) {
+            waitTimer.record(System.nanoTime() - job.queuedAt(), TimeUnit.NANOSECONDS);
+            log.debug("Admitted {} job of {}", job.lane(), job.uploader());
+            try {
+                jobExecutor.execute(() -> {
+                    try {
+                        job.task().run();
+                    } finally {
+                        finished();
+                    }
+                });
+            } catch (RuntimeException e) {
+                log.error("Unable to start job of {}: {}", job.uploader(), e.getMessage());
+                if (job.ticket() != null) {
+                    job.ticket().startFailed(e);
+                }
+                finished();
+            }
+        }
+    }
+
+    /**
+     * Takes a place for a job, jobs that will find a free slot do not need a place in the queue
+     */
+    private void reserve() {
+        if (queued + reserved >= maxQueuedJobs + maxConcurrentJobs - running) {
+            rejectedCounter.increment();
+            throw new TaskRejectedException("Job queue is full (" + maxQueuedJobs + " jobs waiting), retry the upload later");
+        }
+        reserved++;
+    }
+
+    private synchronized void release() {
+        reserved--;
+    }
+
+    private void finished() {
+        synchronized (this) {
+            running--;
+        }
+        dispatch();
+    }
+
+    /**
+     * Takes the next job: lane by priority and weight, then the uploader whose turn it is
+     */
+    private QueuedJob next() {
+        boolean smallWaiting = !queues.get(Lane.SMALL).isEmpty();
+        boolean largeWaiting = !queues.get(Lane.LARGE).isEmpty();
+        Lane lane = smallWaiting && (!largeWaiting || smallAdmittedInARow < smallLaneWeight) ? Lane.SMALL : Lane.LARGE;
+        smallAdmittedInARow = lane == Lane.SMALL ? smallAdmittedInARow + 1 : 0;
+
+        // The uploader first in line takes one job and goes to the back if it has more
+        LinkedHashMap<String, Deque<QueuedJob>> uploaders = queues.get(lane);
+        Iterator<Map.Entry<String, Deque<QueuedJob>>> first = uploaders.entrySet().iterator();
+        Map.Entry<String, Deque<QueuedJob>> turn = first.next();
+        first.remove();
+        QueuedJob job = turn.getValue().poll();
+        if (!turn.getValue().isEmpty()) {
+            uploaders.put(turn.getKey(), turn.getValue());
+        }
+
+        queuedPerLane.merge(lane, -1, Integer::sum);
+        queued--;
+        return job;
+    }
+
+    public synchronized int queuedJobs(Lane lane) {
+        return queuedPerLane.get(lane);
+    }
+
+    public synchronized int runningJobs() {
+        return running;
+    }
+
+    /**
+     * Closing the ticket gives its place back when no job was submitted with it
+     */
+    public final class Ticket implements AutoCloseable {
+
+        private final String uploader;
+        private final Lane lane;
+        private Consumer<Throwable> startFailureHandler;
+        private Throwable startFailure;
+
+        private Ticket(String uploader, Lane lane) {
+            this.uploader = uploader;
+            this.lane = lane;
+        }
+
+        String uploader() {
+            return uploader;
+        }
+
+        Lane lane() {
+            return lane;
+        }
+
+        /**
+         * Called if the job executor refuses the job submitted with this ticket, at once when it already has
+         */
+        public synchronized void onStartFailure(Consumer<Throwable> handler) {
+            if (startFailure != null) {
+                handler.accept(startFailure);
+            } else {
+                startFailureHandler = handler;
+            }
+        }
+
+        private synchronized void startFailed(Throwable e) {
+            if (startFailureHandler != null) {
+                startFailureHandler.accept(e);
+            } else {
+                startFailure = e;
+            }
+        }
+
+        @Override
+        public void close() {
+            if (currentTicket.get() == this) {
+                currentTicket.remove();
+                release();
+            }
+        }
+    }
+
+    private record QueuedJob(Runnable task, Ticket ticket, String uploader, Lane lane, long queuedAt) {
+    }
+}
@@ -0,0 +1,307 @@
+package com.assignment.customer_batch_processor.Utilities;
+
+import com.assignment.customer_batch_processor.Customer_Entity.Customer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * MEMORY-MAPPED CSV READER
+ *
+ * Drop-in replacement for the FlatFileItemReader built by CustomerItemReader:
+ * the CSV is mapped in 64MB windows, records and delimiters are found by scanning
+ * the mapped bytes, and every field is set on the Customer directly, without the
+ * DelimitedLineTokenizer / BeanWrapperFieldSetMapper round trip.
+ *
+ * Same results as the FlatFileItemReader setup: header line skipped, lines starting
+ * with # skipped, values trimmed, "..." quoting with "" escapes, missing trailing
+ * fields are empty strings and extra fields are ignored. A quoted value may also
+ * contain line breaks.
+ *
+ * Restart uses the byte offset saved in the step execution context, no line is read twice.
+ */
+@Slf4j
+public class MappedCsvCustomerItemReader extends AbstractItemCountingItemStreamItemReader<Customer> {
+
+    private static final long WINDOW_SIZE = 64L * 1024 * 1024;
+    private static final String NAME = "mappedCsvItemReader";
+    private static final String OFFSET_KEY = "offset";
+    // Byte offset of the next record, in the step execution context after every chunk
+    public static final String OFFSET_CONTEXT_KEY = NAME + "." + OFFSET_KEY;
+    private static final byte QUOTE = '"';
+    private static final byte DELIMITER = ',';
+    private static final int FIELD_COUNT = CustomerItemReader.FIELD_NAMES.length;
+
+    private final Path path;
+    private final long startOffset;
+    private final long endOffset;
+
+    private FileChannel channel;
+    private MappedByteBuffer window;
+    private long windowStart;
+    private long fileSize;
+    private long position;
+    private long restartOffset = -1;
+    private byte[] scratch = new byte[256];
+
+    public MappedCsvCustomerItemReader(String filePath) {
+        this(filePath, 0, Long.MAX_VALUE);
+    }
+
+    /**
+     * Reads only the records that start in [startOffset, endOffset).
+     * startOffset must be the first byte of a line, the header is skipped only when it is 0.
+     */
+    public MappedCsvCustomerItemReader(String filePath, long startOffset, long endOffset) {
+        this.path = Paths.get(filePath);
+        this.startOffset = startOffset;
+        this.endOffset = endOffset;
+        setName(NAME);
+        setSaveState(true);
+    }
+
+    @Override
+    public void open(ExecutionContext executionContext) throws ItemStreamException {
+        String key = getExecutionContextKey(OFFSET_KEY);
+        restartOffset = isSaveState() && executionContext.containsKey(key) ? executionContext.getLong(key) : -1;
+        super.open(executionContext);
+    }
+
+    @Override
+    public void update(ExecutionContext executionContext) throws ItemStreamException {
+        super.update(executionContext);
+        if (isSaveState()) {
+            executionContext.putLong(getExecutionContextKey(OFFSET_KEY), position);
+        }
+    }
+
+    @Override
+    protected void doOpen() throws Exception {
+        channel = FileChannel.open(path, StandardOpenOption.READ);
+        fileSize = channel.size();
+        position = startOffset;
+        windowStart = 0;
+        window = null;
+
+        // Skip header row
+        if (startOffset == 0 && fileSize > 0) {
+            long headerEnd = findRecordEnd(0);
+            log.info("Skipped header line: {}", decode(0, lineEnd(0, headerEnd)));
+            position = headerEnd;
+        }
+    }
+
+    @Override
+    protected void jumpToItem(int itemIndex) throws Exception {
+        if (restartOffset >= 0) {
+            position = restartOffset;
+            return;
+        }
+        for (int i = 0; i < itemIndex; i++) {
+            long start = nextRecordStart();
+            if (start < 0) {
+                return;
+            }
+            position = findRecordEnd(start);
+        }
+    }
+
+    @Override
+    protected Customer doRead() throws Exception {
+        long start = nextRecordStart();
+        if (start < 0) {
+            return null;
+        }
+        long end = findRecordEnd(start);
+        position = end;
+        return parse(start, lineEnd(start, end));
+    }
+
+    @Override
+    protected void doClose() throws Exception {
+        window = null;
+        if (channel != null) {
+            channel.close();
+            channel = null;
+        }
+    }
+
+    /**
+     * Start of the next record to read, skipping # comment lines.
+     * @return -1 at the end of the file or of the range
+     */
+    private long nextRecordStart() throws IOException {
+        while (position < fileSize && position < endOffset) {
+            map(position);
+            if (byteAt(position) != '#') {
+                return position;
+            }
+            position = findRecordEnd(position);
+        }
+        return -1;
+    }
+
+    /**
+     * Offset just after the line break ending the record that starts at start.
+     * Line breaks inside quotes belong to the record.
+     */
+    private long findRecordEnd(long start) throws IOException {
+        map(start);
+        boolean quoted = false;
+        long offset = start;
+        while (true) {
+            int limit = window.limit();
+            int i = (int) (offset - windowStart);
+            while (i < limit) {
+                byte b = window.get(i++);
+                if (b == QUOTE) {
+                    quoted = !quoted;
+                } else if (b == '\n' && !quoted) {
+                    return windowStart + i;
+                }
+            }
+            offset = windowStart + limit;
+            if (offset >= fileSize) {
+                return fileSize;
+            }
+            // Record runs past the window: remap so the whole record is mapped
+            if (windowStart == start) {
+                throw new IOException("Record at offset " + start + " is larger than " + WINDOW_SIZE + " bytes");
+            }
+            map(start, true);
+            offset = start;
+            quoted = false;
+        }
+    }
+
+    /**
+     * End of the record content, without the trailing \n or \r\n
+     */
+    private long lineEnd(long start, long recordEnd) {
+        long end = recordEnd;
+        if (end > start && byteAt(end - 1) == '\n') {
+            end--;
+        }
+        if (end > start && byteAt(end - 1) == '\r') {
+            end--;
+        }
+        return end;
+    }
+
+    /**
+     * Splits the mapped bytes of one record on unquoted commas and sets the fields by position
+     */
+    private Customer parse(long start, long end) {
+        Customer customer = new Customer();
+        int field = 0;
+        int from = (int) (start - windowStart);
+        int to = (int) (end - windowStart);
+        boolean quoted = false;
+        int tokenStart = from;
+
+        for (int i = from; i <= to && field < FIELD_COUNT; i++) {
+            if (i < to) {
+                byte b = window.get(i);
+                if (b == QUOTE) {
+                    quoted = !quoted;
+                    continue;
+                }
+                if (b != DELIMITER || quoted) {
+                    continue;
+                }
+            }
+            setField(customer, field++, token(tokenStart, i));
+            tokenStart = i + 1;
+        }
+
+        // Missing trailing fields are empty, like the non strict tokenizer
+        while (field < FIELD_COUNT) {
+            setField(customer, field++, "");
+        }
+        return customer;
+    }
+
+    /**
+     * Value of the token in [from, to): trimmed, outer quotes removed and "" unescaped
+     */
+    private String token(int from, int to) {
+        while (from < to && (window.get(from) & 0xFF) <= ' ') {
+            from++;
+        }
+        while (to > from && (window.get(to - 1) & 0xFF) <= ' ') {
+            to--;
+        }
+        if (to - from >= 2 && window.get(from) == QUOTE && window.get(to - 1) == QUOTE) {
+            byte[] bytes = scratch(to - from);
+            int length = 0;
+            for (int i = from + 1; i < to - 1; i++) {
+                byte b = window.get(i);
+                bytes[length++] = b;
+                if (b == QUOTE && i + 1 < to - 1 && window.get(i + 1) == QUOTE) {
+                    i++;
+                }
+            }
+            return new String(bytes, 0, length, StandardCharsets.UTF_8).trim();
+        }
+        if (from == to) {
+            return "";
+        }
+        byte[] bytes = scratch(to - from);
+        window.get(from, bytes, 0, to - from);
+        return new String(bytes, 0, to - from, StandardCharsets.UTF_8);
+    }
+
+    private static void setField(Customer customer, int field, String value) {
+        switch (field) {
+            case 0 -> customer.setName(value);
+            case 1 -> customer.setEmail(value);
+            case 2 -> customer.setPhoneNumber(value);
+            case 3 -> customer.setAadhaarNumber(value);
+            case 4 -> customer.setPanNumber(value);
+            case 5 -> customer.setState(value);
+            default -> customer.setCity(value);
+        }
+    }
+
+    private String decode(long start, long length) {
+        byte[] bytes = scratch((int) length);
+        window.get((int) (start - windowStart), bytes, 0, (int) length);
+        return new String(bytes, 0, (int) length, StandardCharsets.UTF_8);
+    }
+
+    private byte byteAt(long offset) {
+        return window.get((int) (offset - windowStart));
+    }
+
+    private byte[] scratch(int length) {
+        if (scratch.length < length) {
+            scratch = new byte[Math.max(length, scratch.length * 2)];
+        }
+        return scratch;
+    }
+
+    private void map(long offset) throws IOException {
+        map(offset, false);
+    }
+
+    /**
+     * Maps a window containing offset, unless the current window already does
+     */
+    private void map(long offset, boolean force) throws IOException {
+        if (!force && window != null && offset >= windowStart && offset < windowStart + window.limit()) {
+            return;
+        }
+        long size = Math.min(WINDOW_SIZE, fileSize - offset);
+        window = channel.map(FileChannel.MapMode.READ_ONLY, offset, size);
+        windowStart = offset;
+    }
+}
@@ -1,17 +0,0 @@
-package com.assignment.customer_batch_processor.Utilities;
-
-import com.assignment.customer_batch_processor.Customer_Entity.Customer;
-import lombok.NonNull;
-import lombok.extern.slf4j.Slf4j;
-import org.springframework.batch.item.ItemProcessor;
-import org.springframework.stereotype.Component;
-
-@Component
-@Slf4j
-public class NoOpItemProcessor implements ItemProcessor<Customer, Customer> {
-
-    @Override
-    public Customer process(@NonNull Customer customer) {
-        return customer;
-    }
-}
@@ -0,0 +1,28 @@
+package com.assignment.customer_batch_processor.Utilities;
+
+import com.assignment.customer_batch_processor.Customer_Entity.Customer;
+import com.assignment.customer_batch_processor.validator.CustomerValidator;
+import lombok.NonNull;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.ItemProcessor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Processor of the load steps of the two-pass jobs: the rows were validated by an earlier step,
+ * so they are only normalized. Saved values are then the same as in the one-pass jobs, which
+ * DuplicateDetectionService relies on to find them (trimmed, email in lower case, PAN in upper case).
+ */
+@Component
+@Slf4j
+public class NormalizingItemProcessor implements ItemProcessor<Customer, Customer> {
+
+    @Autowired
+    private CustomerValidator customerValidator;
+
+    @Override
+    public Customer process(@NonNull Customer customer) {
+        customerValidator.normalize(customer);
+        return customer;
+    }
+}
@@ -0,0 +1,109 @@
+package com.assignment.customer_batch_processor.Utilities;
+
+import com.assignment.customer_batch_processor.Customer_Entity.Customer;
+import com.assignment.customer_batch_processor.service.RejectFileStore;
+import com.assignment.customer_batch_processor.validator.ValidationError;
+import com.assignment.customer_batch_processor.validator.ValidationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.SkipListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.nio.file.Paths;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * QUARANTINE LISTENER
+ *
+ * Appends every row skipped by a quarantine step to the job's reject file: the row number,
+ * the stage that rejected it (process = invalid fields, write = database failure), the reason
+ * and the row values. Aadhaar and PAN are masked to their last 4 characters, the file is
+ * served as it is by GET /jobs/{jobId}/rejects. The reject file is flushed after each committed chunk.
+ * One instance per step execution (step scope).
+ */
+@Slf4j
+public class RejectFileSkipListener implements SkipListener<Customer, Customer>, StepExecutionListener, ChunkListener {
+
+    public static final String REJECT_COUNT_KEY = "rejectCount";
+
+    private static final int UNMASKED_CHARACTERS = 4;
+
+    private final RejectFileStore rejectFileStore;
+    private final LongAdder rejectCount = new LongAdder();
+    private String jobId;
+    private String source;
+
+    public RejectFileSkipListener(RejectFileStore rejectFileStore) {
+        this.rejectFileStore = rejectFileStore;
+    }
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        jobId = stepExecution.getJobParameters().getString("jobid");
+        ExecutionContext context = stepExecution.getExecutionContext();
+        if (context.containsKey("filePath")) {
+            source = Paths.get(context.getString("filePath")).getFileName().toString();
+        }
+    }
+
+    @Override
+    public void onSkipInProcess(Customer item, Throwable t) {
+        String reason = t instanceof ValidationException validationException && !validationException.getErrors().isEmpty()
+                ? validationException.getErrors().stream().map(ValidationError::reason).collect(Collectors.joining("; "))
+                : t.getMessage();
+        reject(item, "process", reason);
+    }
+
+    @Override
+    public void onSkipInWrite(Customer item, Throwable t) {
+        Throwable cause = t;
+        while (cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        reject(item, "write", cause.getMessage());
+    }
+
+    private void reject(Customer item, String stage, String reason) {
+        rejectCount.increment();
+        rejectFileStore.append(jobId, List.of(String.valueOf(item.getRowNumber()), source == null ? "" : source,
+                stage, String.valueOf(reason), nullToEmpty(item.getName()), nullToEmpty(item.getEmail()),
+                nullToEmpty(item.getPhoneNumber()), mask(item.getAadhaarNumber()),
+                mask(item.getPanNumber()), nullToEmpty(item.getState()), nullToEmpty(item.getCity())));
+        log.info("Rejected row {} at {}: {}", item.getRowNumber(), stage, reason);
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        rejectFileStore.flush(jobId);
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        rejectFileStore.flush(jobId);
+        stepExecution.getExecutionContext().putLong(REJECT_COUNT_KEY, rejectCount.sum());
+        return null;
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+
+    /**
+     * Value with every character but the last 4 replaced by '*', e.g. ********9012.
+     * Values of 4 characters or less are masked entirely.
+     */
+    private static String mask(String value) {
+        if (value == null) {
+            return "";
+        }
+        String trimmed = value.trim();
+        int visible = trimmed.length() > UNMASKED_CHARACTERS ? UNMASKED_CHARACTERS : 0;
+        return "*".repeat(trimmed.length() - visible) + trimmed.substring(trimmed.length() - visible);
+    }
+}
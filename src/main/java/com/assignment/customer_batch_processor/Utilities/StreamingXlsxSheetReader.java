@@ -0,0 +1,336 @@
+package com.assignment.customer_batch_processor.Utilities;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler.SheetContentsHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.apache.poi.xssf.usermodel.XSSFRelation;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * STREAMING XLSX READER
+ *
+ * Reads a sheet with the POI event API (XSSFReader + XSSFSheetXMLHandler)
+ * instead of loading the whole workbook with XSSFWorkbook.
+ * Only the current row is kept on the heap, shared strings are read through
+ * the read-only table, so memory stays flat as the row count grows.
+ *
+ * Cell values follow the same rules as FileConversionService.getCellValueAsString.
+ *
+ * Not thread-safe: POI does not document XSSFReader for concurrent use. To parse sheets in
+ * parallel, open their streams on one thread with openSheets, then each thread parses its own
+ * stream with readSheet(InputStream, RowHandler); the shared strings and styles are only read.
+ */
+@Slf4j
+public class StreamingXlsxSheetReader implements AutoCloseable {
+
+    /**
+     * Receives every row of the sheet.
+     * The cell list is reused and is only valid during the call.
+     */
+    @FunctionalInterface
+    public interface RowHandler {
+        void row(int rowNum, List<String> cells) throws Exception;
+    }
+
+    private final OPCPackage opcPackage;
+    private final XSSFReader xssfReader;
+    private final ReadOnlySharedStringsTable sharedStrings;
+    private final StylesTable styles;
+    private final boolean date1904;
+    private final int sheetCount;
+
+    public StreamingXlsxSheetReader(String xlsxFilePath) throws IOException {
+        try {
+            this.opcPackage = OPCPackage.open(new File(xlsxFilePath), PackageAccess.READ);
+            this.xssfReader = new XSSFReader(opcPackage);
+            this.sharedStrings = new ReadOnlySharedStringsTable(opcPackage, false);
+            this.styles = xssfReader.getStylesTable();
+            WorkbookProperties properties = readWorkbookProperties(xssfReader);
+            this.date1904 = properties.date1904;
+            this.sheetCount = properties.sheetCount;
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Unable to open XLSX file " + xlsxFilePath, e);
+        }
+    }
+
+    public boolean isDate1904() {
+        return date1904;
+    }
+
+    public int getSheetCount() {
+        return sheetCount;
+    }
+
+    /**
+     * Number of sheets in the workbook, without loading shared strings or styles
+     */
+    public static int countSheets(String xlsxFilePath) throws IOException {
+        OPCPackage pkg = null;
+        try {
+            pkg = OPCPackage.open(new File(xlsxFilePath), PackageAccess.READ);
+            return readWorkbookProperties(new XSSFReader(pkg)).sheetCount;
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Unable to open XLSX file " + xlsxFilePath, e);
+        } finally {
+            if (pkg != null) {
+                pkg.revert();
+            }
+        }
+    }
+
+    public ReadOnlySharedStringsTable getSharedStrings() {
+        return sharedStrings;
+    }
+
+    public StylesTable getStyles() {
+        return styles;
+    }
+
+    /**
+     * Opens the raw XML stream of the sheet at the given index
+     */
+    public InputStream openSheet(int sheetIndex) throws IOException {
+        try {
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) xssfReader.getSheetsData();
+            int index = 0;
+            while (sheets.hasNext()) {
+                InputStream sheet = sheets.next();
+                if (index++ == sheetIndex) {
+                    return sheet;
+                }
+                sheet.close();
+            }
+        } catch (IOException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new IOException("Unable to read sheet " + sheetIndex, e);
+        }
+        throw new IOException("Sheet " + sheetIndex + " not found in workbook");
+    }
+
+    /**
+     * Opens the raw XML streams of every sheet, in workbook order
+     */
+    public List<InputStream> openSheets() throws IOException {
+        List<InputStream> streams = new ArrayList<>(sheetCount);
+        try {
+            XSSFReader.SheetIterator sheets = (XSSFReader.SheetIterator) xssfReader.getSheetsData();
+            while (sheets.hasNext()) {
+                streams.add(sheets.next());
+            }
+            return streams;
+        } catch (IOException | RuntimeException e) {
+            closeQuietly(streams);
+            throw e;
+        } catch (Exception e) {
+            closeQuietly(streams);
+            throw new IOException("Unable to read the sheets", e);
+        }
+    }
+
+    /**
+     * Streams every row of the sheet to the handler
+     * @return number of rows read
+     */
+    public int readSheet(int sheetIndex, RowHandler rowHandler) throws Exception {
+        try (InputStream sheet = openSheet(sheetIndex)) {
+            return readSheet(sheet, rowHandler);
+        }
+    }
+
+    /**
+     * Streams every row of a sheet stream from openSheet or openSheets to the handler,
+     * the caller closes the stream
+     * @return number of rows read
+     */
+    public int readSheet(InputStream sheet, RowHandler rowHandler) throws Exception {
+        XlsxCellValueFormatter formatter = new XlsxCellValueFormatter(date1904);
+        RowCollector collector = new RowCollector(rowHandler);
+        XSSFSheetXMLHandler sheetHandler = new XSSFSheetXMLHandler(styles, sharedStrings, collector, formatter, false);
+
+        try {
+            XMLReader parser = XMLHelper.newXMLReader();
+            parser.setContentHandler(new CellTrackingHandler(sheetHandler, collector, formatter));
+            parser.parse(new InputSource(sheet));
+        } catch (SAXException e) {
+            if (e.getException() != null) {
+                throw e.getException();
+            }
+            throw e;
+        }
+        return collector.rowCount;
+    }
+
+    @Override
+    public void close() {
+        opcPackage.revert();
+    }
+
+    public static void closeQuietly(List<InputStream> streams) {
+        for (InputStream stream : streams) {
+            try {
+                stream.close();
+            } catch (IOException e) {
+                log.debug("Unable to close sheet stream: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Normalizes a value reported by XSSFSheetXMLHandler to the
+     * getCellValueAsString representation for the given cell type attribute
+     */
+    static String normalize(String cellType, String value) {
+        if (value == null) {
+            return "";
+        }
+        if (cellType == null || "n".equals(cellType)) {
+            return value;
+        }
+        switch (cellType) {
+            case "b":
+                return value.toLowerCase();
+            case "e":
+                return "";
+            default:
+                return value.trim();
+        }
+    }
+
+    private static WorkbookProperties readWorkbookProperties(XSSFReader reader) throws Exception {
+        WorkbookProperties properties = new WorkbookProperties();
+        try (InputStream workbook = reader.getWorkbookData()) {
+            XMLReader parser = XMLHelper.newXMLReader();
+            parser.setContentHandler(new DefaultHandler() {
+                @Override
+                public void startElement(String uri, String localName, String qName, Attributes attributes) {
+                    if ("workbookPr".equals(localName)) {
+                        String value = attributes.getValue("date1904");
+                        properties.date1904 = "1".equals(value) || "true".equalsIgnoreCase(value);
+                    } else if ("sheet".equals(localName)) {
+                        properties.sheetCount++;
+                    }
+                }
+            });
+            parser.parse(new InputSource(workbook));
+        }
+        return properties;
+    }
+
+    /**
+     * Values read from workbook.xml
+     */
+    private static class WorkbookProperties {
+        boolean date1904;
+        int sheetCount;
+    }
+
+    /**
+     * Collects the cells of the current row and hands them to the RowHandler
+     */
+    private static class RowCollector implements SheetContentsHandler {
+
+        private final RowHandler rowHandler;
+        private final List<String> cells = new ArrayList<>();
+        private String cellType;
+        private boolean cellEmitted;
+        private int rowCount = 0;
+
+        RowCollector(RowHandler rowHandler) {
+            this.rowHandler = rowHandler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells.clear();
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            rowCount++;
+            try {
+                rowHandler.row(rowNum, cells);
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            cells.add(normalize(cellType, formattedValue));
+            cellEmitted = true;
+        }
+
+        // Styled cells without a value are still part of the row, as BLANK cells
+        void blankCell() {
+            cells.add("");
+        }
+    }
+
+    /**
+     * Sits in front of XSSFSheetXMLHandler and tracks the cell type,
+     * whether the cell has a formula and whether it produced a value.
+     */
+    private static class CellTrackingHandler extends DefaultHandler {
+
+        private final XSSFSheetXMLHandler delegate;
+        private final RowCollector collector;
+        private final XlsxCellValueFormatter formatter;
+
+        CellTrackingHandler(XSSFSheetXMLHandler delegate, RowCollector collector, XlsxCellValueFormatter formatter) {
+            this.delegate = delegate;
+            this.collector = collector;
+            this.formatter = formatter;
+        }
+
+        @Override
+        public void startElement(String uri, String localName, String qName, Attributes attributes) throws SAXException {
+            if (XSSFRelation.NS_SPREADSHEETML.equals(uri)) {
+                if ("c".equals(localName)) {
+                    collector.cellType = attributes.getValue("t");
+                    collector.cellEmitted = false;
+                    formatter.setFormulaCell(false);
+                } else if ("f".equals(localName)) {
+                    formatter.setFormulaCell(true);
+                }
+            }
+            delegate.startElement(uri, localName, qName, attributes);
+        }
+
+        @Override
+        public void endElement(String uri, String localName, String qName) throws SAXException {
+            delegate.endElement(uri, localName, qName);
+            if (XSSFRelation.NS_SPREADSHEETML.equals(uri) && "c".equals(localName) && !collector.cellEmitted) {
+                collector.blankCell();
+            }
+        }
+
+        @Override
+        public void characters(char[] ch, int start, int length) throws SAXException {
+            delegate.characters(ch, start, length);
+        }
+    }
+}
@@ -0,0 +1,126 @@
+package com.assignment.customer_batch_processor.Utilities;
+
+import com.assignment.customer_batch_processor.Customer_Entity.Customer;
+import com.assignment.customer_batch_processor.validator.ValidationError;
+import com.assignment.customer_batch_processor.validator.ValidationException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.SkipListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * VALIDATION REPORT
+ *
+ * Used by validation steps that skip invalid rows instead of failing on the first one:
+ * collects the errors of every skipped row (up to maxErrors, the rest are only counted)
+ * and fails the step at the end when there was any, with the report in its execution context.
+ * The errors are stored as maps of JDK types (source, row, field, reason), read back with
+ * {@link #errors}: an application class in a serialized context would be resolved by the
+ * class loader of whoever reads it, e.g. not the devtools restart loader.
+ * One instance per step execution (step scope), so partitions keep separate reports.
+ */
+@Slf4j
+public class ValidationReportListener implements SkipListener<Customer, Customer>, StepExecutionListener {
+
+    public static final String ERRORS_KEY = "validationErrors";
+    public static final String ERROR_COUNT_KEY = "validationErrorCount";
+    public static final String INVALID_ROW_COUNT_KEY = "invalidRowCount";
+
+    private final int maxErrors;
+    private final List<ValidationError> errors = new ArrayList<>();
+    private final LongAdder errorCount = new LongAdder();
+    private final LongAdder invalidRowCount = new LongAdder();
+    private String source;
+
+    public ValidationReportListener(int maxErrors) {
+        this.maxErrors = maxErrors;
+    }
+
+    @Override
+    public void beforeStep(StepExecution stepExecution) {
+        source = source(stepExecution.getExecutionContext());
+    }
+
+    @Override
+    public void onSkipInProcess(Customer item, Throwable t) {
+        if (!(t instanceof ValidationException validationException)) {
+            return;
+        }
+        List<ValidationError> rowErrors = validationException.getErrors().isEmpty()
+                ? List.of(new ValidationError(item.getRowNumber(), null, t.getMessage()))
+                : validationException.getErrors();
+
+        invalidRowCount.increment();
+        errorCount.add(rowErrors.size());
+        synchronized (errors) {
+            for (ValidationError error : rowErrors) {
+                if (errors.size() < maxErrors) {
+                    errors.add(source == null ? error : error.withSource(source));
+                }
+            }
+        }
+    }
+
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        if (invalidRowCount.sum() == 0) {
+            return null;
+        }
+        ExecutionContext context = stepExecution.getExecutionContext();
+        synchronized (errors) {
+            ArrayList<Map<String, Object>> report = new ArrayList<>(errors.size());
+            for (ValidationError error : errors) {
+                Map<String, Object> entry = new HashMap<>(8);
+                entry.put("source", error.source());
+                entry.put("row", error.row());
+                entry.put("field", error.field());
+                entry.put("reason", error.reason());
+                report.add(entry);
+            }
+            context.put(ERRORS_KEY, report);
+        }
+        context.putLong(ERROR_COUNT_KEY, errorCount.sum());
+        context.putLong(INVALID_ROW_COUNT_KEY, invalidRowCount.sum());
+
+        String summary = invalidRowCount.sum() + " invalid rows, " + errorCount.sum() + " errors";
+        log.info("Validation failed for {}: {}", stepExecution.getStepName(), summary);
+        return ExitStatus.FAILED.addExitDescription(summary);
+    }
+
+    /**
+     * Errors of the report saved by afterStep, empty when the step has none
+     */
+    @SuppressWarnings("unchecked")
+    public static List<ValidationError> errors(ExecutionContext context) {
+        if (!context.containsKey(ERRORS_KEY)) {
+            return List.of();
+        }
+        List<Map<String, Object>> report = (List<Map<String, Object>>) context.get(ERRORS_KEY);
+        List<ValidationError> errors = new ArrayList<>(report.size());
+        for (Map<String, Object> entry : report) {
+            errors.add(new ValidationError((String) entry.get("source"), ((Number) entry.get("row")).longValue(),
+                    (String) entry.get("field"), (String) entry.get("reason")));
+        }
+        return errors;
+    }
+
+    /**
+     * Partitions read one sheet file or one byte range, rows are numbered within it
+     */
+    private static String source(ExecutionContext context) {
+        if (!context.containsKey("filePath")) {
+            return null;
+        }
+        String name = Paths.get(context.getString("filePath")).getFileName().toString();
+        return context.containsKey("startOffset") ? name + "@" + context.getLong("startOffset") : name;
+    }
+}
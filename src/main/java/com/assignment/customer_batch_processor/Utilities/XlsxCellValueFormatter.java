@@ -0,0 +1,54 @@
+package com.assignment.customer_batch_processor.Utilities;
+
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+
+/**
+ * Cell formatting rules shared by the streaming XLSX readers.
+ *
+ * Mirrors FileConversionService.getCellValueAsString so that the streaming
+ * conversion produces exactly the same CSV text as the XSSFWorkbook one:
+ * - date formatted numbers → java.util.Date#toString()
+ * - whole numbers → no decimal part
+ * - formula results → raw double value
+ */
+public class XlsxCellValueFormatter extends DataFormatter {
+
+    private final boolean date1904;
+
+    // Set by the sheet handler while the current cell carries a <f> element
+    private boolean formulaCell;
+
+    public XlsxCellValueFormatter(boolean date1904) {
+        this.date1904 = date1904;
+    }
+
+    public void setFormulaCell(boolean formulaCell) {
+        this.formulaCell = formulaCell;
+    }
+
+    @Override
+    public String formatRawCellContents(double value, int formatIndex, String formatString) {
+        if (formulaCell) {
+            return String.valueOf(value);
+        }
+        return formatNumeric(value, formatIndex, formatString, date1904);
+    }
+
+    /**
+     * Formats a numeric (non formula) cell value
+     */
+    public static String formatNumeric(double value, int formatIndex, String formatString, boolean date1904) {
+        if (formatString != null
+                && DateUtil.isValidExcelDate(value)
+                && DateUtil.isADateFormat(formatIndex, formatString)) {
+            return DateUtil.getJavaDate(value, date1904).toString();
+        }
+
+        // Handle numeric values (remove decimal if it's a whole number)
+        if (value == Math.floor(value)) {
+            return String.valueOf((long) value);
+        }
+        return String.valueOf(value);
+    }
+}
@@ -0,0 +1,55 @@
+package com.assignment.customer_batch_processor.Utilities;
+
+import com.assignment.customer_batch_processor.Customer_Entity.Customer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+
+import java.util.List;
+
+/**
+ * XLSX READER
+ *
+ * Reads Customer rows straight out of the first sheet of the uploaded XLSX,
+ * so the job does not need the intermediate CSV file.
+ * Skips the header row, restart is handled through the saved read count.
+ */
+@Slf4j
+public class XlsxCustomerItemReader extends AbstractItemCountingItemStreamItemReader<Customer> {
+
+    private final String filePath;
+    private XlsxSheetRowCursor cursor;
+
+    public XlsxCustomerItemReader(String filePath) {
+        this.filePath = filePath;
+        setName("xlsxItemReader");
+        setSaveState(true);
+    }
+
+    @Override
+    protected void doOpen() throws Exception {
+        cursor = new XlsxSheetRowCursor(filePath, 0);
+
+        // Skip header row
+        List<String> header = cursor.nextRow();
+        if (header != null) {
+            log.info("Skipped header line: {}", String.join(",", header));
+        }
+    }
+
+    @Override
+    protected Customer doRead() throws Exception {
+        List<String> cells = cursor.nextRow();
+        if (cells == null) {
+            return null;
+        }
+        return CustomerItemReader.toCustomer(cells);
+    }
+
+    @Override
+    protected void doClose() throws Exception {
+        if (cursor != null) {
+            cursor.close();
+            cursor = null;
+        }
+    }
+}
@@ -0,0 +1,205 @@
+package com.assignment.customer_batch_processor.Utilities;
+
+import org.apache.poi.ss.usermodel.BuiltinFormats;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFCellStyle;
+import org.apache.poi.xssf.usermodel.XSSFRichTextString;
+
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Pull based row cursor over one sheet of an XLSX file.
+ *
+ * Walks the sheet XML with StAX so a caller (an ItemReader) can ask for
+ * one row at a time. Cell values follow the same rules as the SAX based
+ * StreamingXlsxSheetReader and FileConversionService.getCellValueAsString.
+ */
+public class XlsxSheetRowCursor implements AutoCloseable {
+
+    private final StreamingXlsxSheetReader workbook;
+    private final InputStream sheetStream;
+    private final XMLStreamReader xml;
+    private final List<String> cells = new ArrayList<>();
+    private final StringBuilder text = new StringBuilder();
+
+    private int rowNum = -1;
+
+    public XlsxSheetRowCursor(String xlsxFilePath, int sheetIndex) throws IOException {
+        this.workbook = new StreamingXlsxSheetReader(xlsxFilePath);
+        try {
+            this.sheetStream = workbook.openSheet(sheetIndex);
+            this.xml = XMLHelper.newXMLInputFactory().createXMLStreamReader(sheetStream);
+        } catch (IOException e) {
+            workbook.close();
+            throw e;
+        } catch (XMLStreamException e) {
+            workbook.close();
+            throw new IOException("Unable to read sheet " + sheetIndex, e);
+        }
+    }
+
+    /**
+     * Zero based index of the row returned by the last call to nextRow
+     */
+    public int getRowNum() {
+        return rowNum;
+    }
+
+    /**
+     * Moves to the next row of the sheet
+     * @return the cells of the row, reused between calls, or null at the end of the sheet
+     */
+    public List<String> nextRow() throws IOException {
+        try {
+            while (xml.hasNext()) {
+                if (xml.next() == XMLStreamConstants.START_ELEMENT && "row".equals(xml.getLocalName())) {
+                    String r = xml.getAttributeValue(null, "r");
+                    rowNum = r != null ? Integer.parseInt(r) - 1 : rowNum + 1;
+                    readRow();
+                    return cells;
+                }
+            }
+            return null;
+        } catch (XMLStreamException e) {
+            throw new IOException("Error reading sheet row after " + rowNum, e);
+        }
+    }
+
+    private void readRow() throws XMLStreamException {
+        cells.clear();
+        while (xml.hasNext()) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT && "c".equals(xml.getLocalName())) {
+                cells.add(readCell());
+            } else if (event == XMLStreamConstants.END_ELEMENT && "row".equals(xml.getLocalName())) {
+                return;
+            }
+        }
+    }
+
+    private String readCell() throws XMLStreamException {
+        String type = xml.getAttributeValue(null, "t");
+        String style = xml.getAttributeValue(null, "s");
+        boolean formula = false;
+        String value = null;
+
+        while (xml.hasNext()) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = xml.getLocalName();
+                if ("f".equals(name)) {
+                    formula = true;
+                } else if ("v".equals(name)) {
+                    value = xml.getElementText();
+                } else if ("is".equals(name)) {
+                    value = readInlineString();
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT && "c".equals(xml.getLocalName())) {
+                break;
+            }
+        }
+        return cellValue(type, style, formula, value);
+    }
+
+    // <is><t>..</t></is> or rich text runs <is><r><t>..</t></r></is>, phonetic runs are ignored
+    private String readInlineString() throws XMLStreamException {
+        text.setLength(0);
+        int phoneticDepth = 0;
+        while (xml.hasNext()) {
+            int event = xml.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = xml.getLocalName();
+                if ("rPh".equals(name)) {
+                    phoneticDepth++;
+                } else if ("t".equals(name) && phoneticDepth == 0) {
+                    text.append(xml.getElementText());
+                }
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                String name = xml.getLocalName();
+                if ("rPh".equals(name)) {
+                    phoneticDepth--;
+                } else if ("is".equals(name)) {
+                    break;
+                }
+            }
+        }
+        return new XSSFRichTextString(text.toString()).toString();
+    }
+
+    private String cellValue(String type, String style, boolean formula, String value) {
+        if (value == null) {
+            return "";
+        }
+        if (type == null || "n".equals(type)) {
+            return numericValue(style, formula, value);
+        }
+        switch (type) {
+            case "s":
+                return workbook.getSharedStrings().getItemAt(Integer.parseInt(value)).toString().trim();
+            case "b":
+                return value.startsWith("0") ? "false" : "true";
+            case "e":
+                return "";
+            default:
+                // inlineStr and str (string formula result)
+                return value.trim();
+        }
+    }
+
+    private String numericValue(String style, boolean formula, String value) {
+        if (value.isEmpty()) {
+            return value;
+        }
+        StylesTable styles = workbook.getStyles();
+        XSSFCellStyle cellStyle = null;
+        if (styles != null) {
+            if (style != null) {
+                cellStyle = styles.getStyleAt(Integer.parseInt(style));
+            } else if (styles.getNumCellStyles() > 0) {
+                cellStyle = styles.getStyleAt(0);
+            }
+        }
+        if (cellStyle == null) {
+            return value;
+        }
+
+        int formatIndex = cellStyle.getDataFormat();
+        String formatString = cellStyle.getDataFormatString();
+        if (formatString == null) {
+            formatString = BuiltinFormats.getBuiltinFormat(formatIndex);
+        }
+
+        double numericValue;
+        try {
+            numericValue = Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return value;
+        }
+        if (formula) {
+            return String.valueOf(numericValue);
+        }
+        return XlsxCellValueFormatter.formatNumeric(numericValue, formatIndex, formatString, workbook.isDate1904());
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            xml.close();
+        } catch (XMLStreamException e) {
+            throw new IOException(e);
+        } finally {
+            try {
+                sheetStream.close();
+            } finally {
+                workbook.close();
+            }
+        }
+    }
+}
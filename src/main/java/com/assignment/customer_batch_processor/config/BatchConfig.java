@@ -1,34 +1,78 @@
 package com.assignment.customer_batch_processor.config;
 
 import com.assignment.customer_batch_processor.Customer_Entity.Customer;
+import com.assignment.customer_batch_processor.Utilities.AdaptiveChunkCompletionPolicy;
+import com.assignment.customer_batch_processor.Utilities.BinaryCustomerItemReader;
+import com.assignment.customer_batch_processor.Utilities.CustomerEncryptionProcessor;
 import com.assignment.customer_batch_processor.Utilities.CustomerItemProcessor;
 import com.assignment.customer_batch_processor.Utilities.CustomerItemReader;
 import com.assignment.customer_batch_processor.Utilities.CustomerItemWriter;
-import com.assignment.customer_batch_processor.Utilities.NoOpItemProcessor;
+import com.assignment.customer_batch_processor.Utilities.CustomerStagingFileWriter;
+import com.assignment.customer_batch_processor.Utilities.NormalizingItemProcessor;
+import com.assignment.customer_batch_processor.Utilities.ChannelCustomerItemReader;
+import com.assignment.customer_batch_processor.Utilities.BlockValidatingItemReader;
+import com.assignment.customer_batch_processor.Utilities.CsvByteRangePartitioner;
+import com.assignment.customer_batch_processor.Utilities.CsvFilePartitioner;
+import com.assignment.customer_batch_processor.Utilities.JobAdmissionScheduler;
+import com.assignment.customer_batch_processor.Utilities.MappedCsvCustomerItemReader;
+import com.assignment.customer_batch_processor.Utilities.CustomerRowChannelRegistry;
+import com.assignment.customer_batch_processor.Utilities.RejectFileSkipListener;
+import com.assignment.customer_batch_processor.Utilities.ValidationReportListener;
+import com.assignment.customer_batch_processor.service.ConvertedFileCache;
+import com.assignment.customer_batch_processor.service.DuplicateDetectionService;
+import com.assignment.customer_batch_processor.service.JobProgressService;
+import com.assignment.customer_batch_processor.service.RejectFileStore;
+import com.assignment.customer_batch_processor.validator.ColumnarCustomerValidator;
 import com.assignment.customer_batch_processor.validator.RetryException;
 import com.assignment.customer_batch_processor.validator.ValidationException;
+import io.micrometer.core.instrument.MeterRegistry;
 import jakarta.persistence.EntityManagerFactory;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ChunkListener;
 import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.SkipListener;
 import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecutionListener;
 import org.springframework.batch.core.configuration.annotation.StepScope;
 import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
+import org.springframework.batch.core.partition.support.Partitioner;
 import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.AbstractTaskletStepBuilder;
+import org.springframework.batch.core.step.builder.SimpleStepBuilder;
 import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.integration.async.AsyncItemProcessor;
+import org.springframework.batch.integration.async.AsyncItemWriter;
 import org.springframework.batch.item.ItemProcessor;
 import org.springframework.batch.item.ItemReader;
+import org.springframework.batch.item.ItemStreamReader;
 import org.springframework.batch.item.ItemWriter;
-import org.springframework.batch.item.file.FlatFileItemReader;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
 import org.springframework.batch.item.support.CompositeItemWriter;
 import org.springframework.batch.item.support.builder.CompositeItemWriterBuilder;
+import org.springframework.batch.item.support.builder.SynchronizedItemStreamReaderBuilder;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskExecutor;
 import org.springframework.dao.DataAccessException;
 import org.springframework.transaction.PlatformTransactionManager;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
 
 @Configuration
 @Slf4j
@@ -48,7 +92,109 @@ public class BatchConfig {
     CustomerItemReader customerItemReader;
 
     @Autowired
-    NoOpItemProcessor noOpItemProcessor;
+    NormalizingItemProcessor normalizingItemProcessor;
+
+    @Autowired
+    CustomerRowChannelRegistry customerRowChannelRegistry;
+
+    // mapped → MappedCsvCustomerItemReader, flatfile → FlatFileItemReader + BeanWrapperFieldSetMapper
+    @Value("${app.batch.csv-reader:mapped}")
+    String csvReaderType;
+
+    // Chunk threads for validationStep and csvReadingStep, 1 keeps them single-threaded
+    @Value("${app.batch.step-threads:1}")
+    int stepThreads;
+
+    @Autowired
+    @Qualifier("batchStepTaskExecutor")
+    TaskExecutor batchStepTaskExecutor;
+
+    // Byte ranges per CSV in rangePartitionedCsvJob, 0 means one per available processor
+    @Value("${app.batch.range-partitions:0}")
+    int rangePartitions;
+
+    // Validation steps check every row and fail at the end with a report, instead of on the first invalid row
+    @Value("${app.validation.collect-all:true}")
+    boolean collectAllValidationErrors;
+
+    // Errors kept in the report per step, the rest are only counted
+    @Value("${app.validation.max-errors:1000}")
+    int maxValidationErrors;
+
+    // Validating steps validate blocks of rows at once before the processor, see BlockValidatingItemReader
+    @Value("${app.validation.columnar.enabled:false}")
+    boolean columnarValidation;
+
+    // Rows per block of BlockValidatingItemReader
+    @Value("${app.validation.block-size:1024}")
+    int validationBlockSize;
+
+    @Autowired
+    ColumnarCustomerValidator columnarCustomerValidator;
+
+    @Autowired
+    DuplicateDetectionService duplicateDetectionService;
+
+    // Rows a quarantine step may reject (invalid rows and failed writes together) before the job fails
+    @Value("${app.quarantine.skip-limit:1000}")
+    int quarantineSkipLimit;
+
+    @Autowired
+    RejectFileStore rejectFileStore;
+
+    // Async pipeline: processors run on asyncProcessorTaskExecutor and AsyncItemWriter collects the results
+    @Value("${app.batch.async.enabled:false}")
+    boolean asyncProcessing;
+
+    @Autowired
+    @Qualifier("asyncProcessorTaskExecutor")
+    TaskExecutor asyncProcessorTaskExecutor;
+
+    @Autowired
+    CustomerEncryptionProcessor customerEncryptionProcessor;
+
+    // Items per chunk, the starting size when adaptive chunk sizing is enabled
+    @Value("${app.batch.chunk-size:2000}")
+    int chunkSize;
+
+    @Value("${app.batch.adaptive-chunk.enabled:true}")
+    boolean adaptiveChunkEnabled;
+
+    @Value("${app.batch.adaptive-chunk.min-size:100}")
+    int adaptiveChunkMinSize;
+
+    @Value("${app.batch.adaptive-chunk.max-size:20000}")
+    int adaptiveChunkMaxSize;
+
+    // Time a chunk should take from its first read to its commit
+    @Value("${app.batch.adaptive-chunk.target-latency:500ms}")
+    Duration adaptiveChunkTargetLatency;
+
+    // Used heap fraction (after GC) above which the chunk size is halved
+    @Value("${app.batch.adaptive-chunk.heap-threshold:0.8}")
+    double adaptiveChunkHeapThreshold;
+
+    @Autowired
+    MeterRegistry meterRegistry;
+
+    @Autowired
+    ConvertedFileCache convertedFileCache;
+
+    @Autowired
+    JobProgressService jobProgressService;
+
+    /**
+     * Launcher used by the upload endpoints: run() returns once the execution is created,
+     * the job waits in jobAdmissionScheduler for a slot and runs on jobLaunchTaskExecutor
+     */
+    @Bean
+    public TaskExecutorJobLauncher asyncJobLauncher(JobRepository jobRepository,
+                                                    JobAdmissionScheduler jobAdmissionScheduler) {
+        TaskExecutorJobLauncher jobLauncher = new TaskExecutorJobLauncher();
+        jobLauncher.setJobRepository(jobRepository);
+        jobLauncher.setTaskExecutor(jobAdmissionScheduler);
+        return jobLauncher;
+    }
 
 
     
@@ -56,6 +202,10 @@ public class BatchConfig {
     public Job csvReadingJob(JobRepository jobRepository, Step csvReadingStep, Step validationStep) {
         log.debug("Creating CSV Reading Job with validation and encryption");
         return new JobBuilder("csvReadingJob", jobRepository)
+                .listener(completedContentListener())
+                .listener(jobProgressService)
+                .listener(duplicateDetectionService)
+                .listener(pipelineChannelCloseListener())
                 .start(validationStep)
                 .on("FAILED").fail()                 // Explicitly fail the job
                 .on("COMPLETED").to(csvReadingStep)  // Continue to processing if validation passes
@@ -68,16 +218,13 @@ public class BatchConfig {
     @Bean
     public Step validationStep(JobRepository jobRepository,
                                PlatformTransactionManager transactionManager,
-                               ItemReader<Customer> csvItemReader,
+                               ItemReader<Customer> validationItemReader,
                                ItemProcessor<Customer, Customer> csvItemProcessor,
                                ItemWriter<Customer> noOpWriter) {
         log.debug("inside validationStep");
-        return new StepBuilder("validationStep", jobRepository)
-                .<Customer, Customer>chunk(2000, transactionManager)
-                .reader(csvItemReader)
-                .processor(csvItemProcessor) // Uses CustomerItemProcessor
-                .writer(noOpWriter)
-                .build();
+        // Uses CustomerItemProcessor
+        return validateStep("validationStep", jobRepository, transactionManager,
+                validationItemReader, csvItemProcessor, noOpWriter, true);
 
 
     }
@@ -91,34 +238,602 @@ public class BatchConfig {
     public Step csvReadingStep(JobRepository jobRepository,
                              PlatformTransactionManager transactionManager,
                              ItemReader<Customer> csvItemReader,
-                             ItemProcessor<Customer, Customer> noOpProcess,
+                             ItemProcessor<Customer, Customer> normalizeProcess,
                              ItemWriter<Customer> csvItemWriter) {
         
-        log.info("Creating CSV Reading Step with chunk size: 1000");
+        log.info("Creating CSV Reading Step with chunk size: {}", adaptiveChunkEnabled ? "adaptive" : chunkSize);
+
+
+        return loadStep("csvReadingStep", jobRepository, transactionManager,
+                csvItemReader, normalizeProcess, csvItemWriter, true);
+    }
+
+    /**
+     * Chunk step that validates: fails on the first invalid row, or checks every row in collect-all mode.
+     * The async pipeline validates on asyncProcessorTaskExecutor, but only without collect-all:
+     * an AsyncItemProcessor error surfaces in the write phase, where it cannot be skipped as invalid.
+     */
+    private Step validateStep(String stepName,
+                              JobRepository jobRepository,
+                              PlatformTransactionManager transactionManager,
+                              ItemReader<Customer> reader,
+                              ItemProcessor<Customer, Customer> processor,
+                              ItemWriter<Customer> writer,
+                              boolean useStepThreads) {
+        if (asyncProcessing && !collectAllValidationErrors) {
+            SimpleStepBuilder<Customer, Future<Customer>> builder =
+                    asyncChunk(stepName, jobRepository, transactionManager, prevalidated(reader), processor, writer);
+            if (useStepThreads) {
+                applyStepThreads(builder);
+            }
+            return builder.build();
+        }
+
+        SimpleStepBuilder<Customer, Customer> builder = this.<Customer>chunkStep(stepName, jobRepository, transactionManager)
+                .reader(prevalidated(reader))
+                .processor(processor)
+                .writer(writer);
+        builder = reportValidationErrors(builder);
+        if (useStepThreads) {
+            applyStepThreads(builder);
+        }
+        return builder.build();
+    }
 
+    /**
+     * Chunk step that saves validated customers: failed writes are retried, the step runs again on restart.
+     * The async pipeline encrypts Aadhaar/PAN on asyncProcessorTaskExecutor instead of in the writer.
+     */
+    private Step loadStep(String stepName,
+                          JobRepository jobRepository,
+                          PlatformTransactionManager transactionManager,
+                          ItemReader<Customer> reader,
+                          ItemProcessor<Customer, Customer> processor,
+                          ItemWriter<Customer> writer,
+                          boolean useStepThreads) {
+        if (asyncProcessing) {
+            return retryWrites(asyncChunk(stepName, jobRepository, transactionManager,
+                    reader, customerEncryptionProcessor, writer), useStepThreads);
+        }
+        return retryWrites(this.<Customer>chunkStep(stepName, jobRepository, transactionManager)
+                .reader(reader)
+                .processor(processor)
+                .writer(writer), useStepThreads);
+    }
 
-        return new StepBuilder("csvReadingStep", jobRepository)
-                .<Customer, Customer>chunk(2000, transactionManager)
-                .reader(csvItemReader)
-                .processor(noOpProcess) // Uses your CustomerItemProcessor
-                .writer(csvItemWriter)
+    private <O> Step retryWrites(SimpleStepBuilder<Customer, O> chunkBuilder, boolean useStepThreads) {
+        SimpleStepBuilder<Customer, O> builder = chunkBuilder
                 .faultTolerant()
                 .noRetry(ValidationException.class)
                 .retry(DataAccessException.class)
                 .retry(RetryException.class)
                 .retryLimit(3)
                 .allowStartIfComplete(true)
-                .startLimit(5)
+                .startLimit(5);
+        if (useStepThreads) {
+            applyStepThreads(builder);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Async pipeline: the processor runs on asyncProcessorTaskExecutor, one Future per item, while the
+     * step thread keeps reading. AsyncItemWriter waits for the chunk's futures and passes the customers
+     * to writer, so read I/O, processor work and database writes overlap.
+     */
+    private SimpleStepBuilder<Customer, Future<Customer>> asyncChunk(String stepName,
+                                                                    JobRepository jobRepository,
+                                                                    PlatformTransactionManager transactionManager,
+                                                                    ItemReader<Customer> reader,
+                                                                    ItemProcessor<Customer, Customer> processor,
+                                                                    ItemWriter<Customer> writer) {
+        AsyncItemProcessor<Customer, Customer> asyncProcessor = new AsyncItemProcessor<>();
+        asyncProcessor.setDelegate(processor);
+        asyncProcessor.setTaskExecutor(asyncProcessorTaskExecutor);
+
+        AsyncItemWriter<Customer> asyncWriter = new AsyncItemWriter<>();
+        asyncWriter.setDelegate(writer);
+
+        return this.<Future<Customer>>chunkStep(stepName, jobRepository, transactionManager)
+                .reader(reader)
+                .processor(asyncProcessor)
+                .writer(asyncWriter);
+    }
+
+    /**
+     * Chunk-oriented step builder with the configured chunk size: fixed app.batch.chunk-size,
+     * or adapted at runtime by adaptiveChunkCompletionPolicy, which also times the chunks
+     */
+    private <O> SimpleStepBuilder<Customer, O> chunkStep(String stepName,
+                                                         JobRepository jobRepository,
+                                                         PlatformTransactionManager transactionManager) {
+        StepBuilder stepBuilder = new StepBuilder(stepName, jobRepository);
+        SimpleStepBuilder<Customer, O> builder;
+        if (adaptiveChunkEnabled) {
+            AdaptiveChunkCompletionPolicy policy = adaptiveChunkCompletionPolicy();
+            builder = stepBuilder.<Customer, O>chunk(policy, transactionManager);
+            builder.listener((ChunkListener) policy);
+        } else {
+            builder = stepBuilder.<Customer, O>chunk(chunkSize, transactionManager);
+        }
+        // Every committed chunk updates the job's progress stream
+        builder.listener((ChunkListener) jobProgressService);
+        return builder;
+    }
+
+    @Bean
+    @StepScope
+    public AdaptiveChunkCompletionPolicy adaptiveChunkCompletionPolicy() {
+        return new AdaptiveChunkCompletionPolicy(chunkSize, adaptiveChunkMinSize, adaptiveChunkMaxSize,
+                adaptiveChunkTargetLatency, adaptiveChunkHeapThreshold, meterRegistry);
+    }
+
+    /**
+     * Multi-threaded chunk mode: chunks run concurrently on batchStepTaskExecutor.
+     * throttleLimit is deprecated but still caps a multi-threaded step at 4 threads when unset.
+     */
+    @SuppressWarnings("removal")
+    private void applyStepThreads(AbstractTaskletStepBuilder<?> builder) {
+        if (stepThreads > 1) {
+            builder.taskExecutor(batchStepTaskExecutor).throttleLimit(stepThreads);
+        }
+    }
+
+    /**
+     * Collect-all mode: invalid rows are skipped, without rolling back the chunk, and recorded by
+     * validationReportListener, which fails the step once every row has been checked
+     */
+    private SimpleStepBuilder<Customer, Customer> reportValidationErrors(SimpleStepBuilder<Customer, Customer> builder) {
+        if (!collectAllValidationErrors) {
+            return builder;
+        }
+        ValidationReportListener listener = validationReportListener();
+        return builder.faultTolerant()
+                .skip(ValidationException.class)
+                .skipLimit(Integer.MAX_VALUE)
+                .noRollback(ValidationException.class)
+                .listener((SkipListener<Customer, Customer>) listener)
+                .listener((StepExecutionListener) listener);
+    }
+
+    @Bean
+    @StepScope
+    public ValidationReportListener validationReportListener() {
+        return new ValidationReportListener(maxValidationErrors);
+    }
+
+    /**
+     * Block checks before the processor: columnar mode validates blocks of rows at once (CustomerItemProcessor
+     * only normalizes the valid rows), duplicate detection looks up the values already saved per block
+     */
+    private ItemReader<Customer> prevalidated(ItemReader<Customer> reader) {
+        List<Consumer<List<Customer>>> checks = new ArrayList<>();
+        if (columnarValidation) {
+            checks.add(columnarCustomerValidator::markPrevalidated);
+        }
+        if (duplicateDetectionService.isEnabled()) {
+            checks.add(duplicateDetectionService::markExisting);
+        }
+        if (checks.isEmpty()) {
+            return reader;
+        }
+        return new BlockValidatingItemReader(reader, checks, validationBlockSize);
+    }
+
+    /**
+     * Readers are not thread-safe: in multi-threaded mode reads are serialized and,
+     * since the read count no longer matches what was written, restart state is not saved
+     */
+    private ItemStreamReader<Customer> forStepThreads(ItemStreamReader<Customer> reader) {
+        if (stepThreads <= 1) {
+            return reader;
+        }
+        if (reader instanceof AbstractItemCountingItemStreamItemReader<?> countingReader) {
+            countingReader.setSaveState(false);
+        }
+        return new SynchronizedItemStreamReaderBuilder<Customer>().delegate(reader).build();
+    }
+
+
+
+    /**
+     * Remembers the execution that completed for the uploaded content (contentHash),
+     * re-uploads of the same content can return it instead of loading again
+     */
+    private JobExecutionListener completedContentListener() {
+        return new JobExecutionListener() {
+            @Override
+            public void afterJob(JobExecution jobExecution) {
+                if (jobExecution.getStatus() == BatchStatus.COMPLETED) {
+                    convertedFileCache.recordCompletedExecution(
+                            jobExecution.getJobParameters().getString("contentHash"), jobExecution.getId());
+                }
+            }
+        };
+    }
+
+    /**
+     * Pipelined runs: closes the row channel when the job ends, which stops a conversion
+     * still publishing to it (the job may end before its reader ever opened the channel)
+     */
+    private JobExecutionListener pipelineChannelCloseListener() {
+        return new JobExecutionListener() {
+            @Override
+            public void afterJob(JobExecution jobExecution) {
+                String channelId = jobExecution.getJobParameters().getString("channelId");
+                if (channelId != null) {
+                    customerRowChannelRegistry.close(channelId);
+                }
+            }
+        };
+    }
+
+    /**
+     * Single-pass variant of csvReadingJob: the input is read and validated once by stageStep,
+     * which spills the normalized rows to a binary staging file. promoteStep loads the staging
+     * file only if every row was valid, so nothing is saved for an invalid file, as before.
+     */
+    @Bean
+    public Job singlePassCsvJob(JobRepository jobRepository, Step stageStep, Step promoteStep) {
+        log.debug("Creating single-pass CSV Job");
+        return new JobBuilder("singlePassCsvJob", jobRepository)
+                .listener(completedContentListener())
+                .listener(jobProgressService)
+                .listener(duplicateDetectionService)
+                .listener(stagingFileCleanupListener())
+                .start(stageStep)
+                .on("FAILED").fail()
+                .on("COMPLETED").to(promoteStep)
+                .from(promoteStep)
+                .on("*").end()
+                .end()
+                .build();
+    }
+
+    @Bean
+    public Step stageStep(JobRepository jobRepository,
+                          PlatformTransactionManager transactionManager,
+                          ItemReader<Customer> csvItemReader,
+                          ItemProcessor<Customer, Customer> csvItemProcessor,
+                          ItemWriter<Customer> stagingItemWriter) {
+        return validateStep("stageStep", jobRepository, transactionManager,
+                csvItemReader, csvItemProcessor, stagingItemWriter, true);
+    }
+
+    /**
+     * Loads the staging file, same settings as csvReadingStep
+     */
+    @Bean
+    public Step promoteStep(JobRepository jobRepository,
+                            PlatformTransactionManager transactionManager,
+                            ItemReader<Customer> stagedItemReader,
+                            ItemProcessor<Customer, Customer> normalizeProcess,
+                            ItemWriter<Customer> csvItemWriter) {
+        return loadStep("promoteStep", jobRepository, transactionManager,
+                stagedItemReader, normalizeProcess, csvItemWriter, true);
+    }
+
+    @Bean
+    @StepScope
+    public CustomerStagingFileWriter stagingItemWriter(@Value("#{jobParameters['filePath']}") String filePath) {
+        return new CustomerStagingFileWriter(CustomerStagingFileWriter.stagedFilePathFor(filePath));
+    }
+
+    @Bean
+    @StepScope
+    public ItemStreamReader<Customer> stagedItemReader(@Value("#{jobParameters['filePath']}") String filePath) {
+        return forStepThreads(new BinaryCustomerItemReader(CustomerStagingFileWriter.stagedFilePathFor(filePath)));
+    }
+
+    /**
+     * Deletes the staging file when the job ends, whatever its status: every upload is launched
+     * with unique parameters, so a failed or stopped execution is never restarted
+     */
+    private JobExecutionListener stagingFileCleanupListener() {
+        return new JobExecutionListener() {
+            @Override
+            public void afterJob(JobExecution jobExecution) {
+                String filePath = jobExecution.getJobParameters().getString("filePath");
+                try {
+                    Files.deleteIfExists(Paths.get(CustomerStagingFileWriter.stagedFilePathFor(filePath)));
+                } catch (IOException e) {
+                    log.warn("Unable to delete staging file for {}: {}", filePath, e.getMessage());
+                }
+            }
+        };
+    }
+
+    /**
+     * Quarantine mode for feeds that tolerate partial loads: one pass that validates and loads,
+     * valid rows commit in chunks and rejected rows go to the job's reject file.
+     */
+    @Bean
+    public Job quarantineCsvJob(JobRepository jobRepository, Step quarantineStep) {
+        log.debug("Creating quarantine CSV Job");
+        return new JobBuilder("quarantineCsvJob", jobRepository)
+                .listener(completedContentListener())
+                .listener(jobProgressService)
+                .listener(duplicateDetectionService)
+                .listener(rejectFileCloseListener())
+                .listener(pipelineChannelCloseListener())
+                .start(quarantineStep)
+                .build();
+    }
+
+    /**
+     * Quarantine mode for multi-sheet workbooks, one partition per sheet
+     */
+    @Bean
+    public Job partitionedQuarantineJob(JobRepository jobRepository, Step partitionedQuarantineStep) {
+        log.debug("Creating partitioned quarantine CSV Job");
+        return new JobBuilder("partitionedQuarantineJob", jobRepository)
+                .listener(completedContentListener())
+                .listener(jobProgressService)
+                .listener(duplicateDetectionService)
+                .listener(rejectFileCloseListener())
+                .start(partitionedQuarantineStep)
+                .build();
+    }
+
+    /**
+     * Reads through validationItemReader, so pipelined uploads are quarantined while they convert
+     */
+    @Bean
+    public Step quarantineStep(JobRepository jobRepository,
+                               PlatformTransactionManager transactionManager,
+                               ItemReader<Customer> validationItemReader,
+                               ItemProcessor<Customer, Customer> csvItemProcessor,
+                               ItemWriter<Customer> csvItemWriter) {
+        SimpleStepBuilder<Customer, Customer> builder = this.<Customer>chunkStep("quarantineStep", jobRepository, transactionManager)
+                .reader(prevalidated(validationItemReader))
+                .processor(csvItemProcessor)
+                .writer(csvItemWriter);
+        builder = quarantine(builder);
+        applyStepThreads(builder);
+        return builder.build();
+    }
+
+    @Bean
+    public Step partitionedQuarantineStep(JobRepository jobRepository,
+                                          Step quarantineWorkerStep,
+                                          Partitioner csvFilePartitioner,
+                                          TaskExecutor partitionTaskExecutor) {
+        return new StepBuilder("partitionedQuarantineStep", jobRepository)
+                .partitioner("quarantineWorkerStep", csvFilePartitioner)
+                .step(quarantineWorkerStep)
+                .taskExecutor(partitionTaskExecutor)
+                .build();
+    }
+
+    @Bean
+    public Step quarantineWorkerStep(JobRepository jobRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     ItemReader<Customer> partitionItemReader,
+                                     ItemProcessor<Customer, Customer> csvItemProcessor,
+                                     ItemWriter<Customer> csvItemWriter) {
+        SimpleStepBuilder<Customer, Customer> builder = this.<Customer>chunkStep("quarantineWorkerStep", jobRepository, transactionManager)
+                .reader(prevalidated(partitionItemReader))
+                .processor(csvItemProcessor)
+                .writer(csvItemWriter);
+        return quarantine(builder).build();
+    }
+
+    /**
+     * Invalid rows are skipped without a rollback. Failed writes are retried like csvReadingStep,
+     * then the chunk is rewritten item by item and only the failing rows are skipped.
+     * Every skipped row goes to the reject file.
+     */
+    private SimpleStepBuilder<Customer, Customer> quarantine(SimpleStepBuilder<Customer, Customer> builder) {
+        RejectFileSkipListener listener = rejectFileSkipListener();
+        return builder.faultTolerant()
+                .skip(ValidationException.class)
+                .skip(RetryException.class)
+                .skip(DataAccessException.class)
+                .skipLimit(quarantineSkipLimit)
+                .noRollback(ValidationException.class)
+                .noRetry(ValidationException.class)
+                .retry(DataAccessException.class)
+                .retry(RetryException.class)
+                .retryLimit(3)
+                .listener((SkipListener<Customer, Customer>) listener)
+                .listener((StepExecutionListener) listener)
+                .listener((ChunkListener) listener);
+    }
+
+    @Bean
+    @StepScope
+    public RejectFileSkipListener rejectFileSkipListener() {
+        return new RejectFileSkipListener(rejectFileStore);
+    }
+
+    private JobExecutionListener rejectFileCloseListener() {
+        return new JobExecutionListener() {
+            @Override
+            public void afterJob(JobExecution jobExecution) {
+                rejectFileStore.close(jobExecution.getJobParameters().getString("jobid"));
+            }
+        };
+    }
+
+    /**
+     * Partitioned variant of csvReadingJob for multi-sheet workbooks.
+     * filePath is a directory with one CSV per sheet, every sheet is validated
+     * in parallel before any sheet is loaded.
+     */
+    @Bean
+    public Job partitionedCsvJob(JobRepository jobRepository, Step partitionedValidationStep, Step partitionedLoadStep) {
+        log.debug("Creating partitioned CSV Job");
+        return new JobBuilder("partitionedCsvJob", jobRepository)
+                .listener(completedContentListener())
+                .listener(jobProgressService)
+                .listener(duplicateDetectionService)
+                .start(partitionedValidationStep)
+                .on("FAILED").fail()
+                .on("COMPLETED").to(partitionedLoadStep)
+                .from(partitionedLoadStep)
+                .on("*").end()
+                .end()
+                .build();
+    }
+
+    /**
+     * Variant of csvReadingJob for one large CSV: the file is split into record-aligned
+     * byte ranges and every range is validated, then loaded, by its own worker step.
+     */
+    @Bean
+    public Job rangePartitionedCsvJob(JobRepository jobRepository, Step rangeValidationStep, Step rangeLoadStep) {
+        log.debug("Creating byte-range partitioned CSV Job");
+        return new JobBuilder("rangePartitionedCsvJob", jobRepository)
+                .listener(completedContentListener())
+                .listener(jobProgressService)
+                .listener(duplicateDetectionService)
+                .start(rangeValidationStep)
+                .on("FAILED").fail()
+                .on("COMPLETED").to(rangeLoadStep)
+                .from(rangeLoadStep)
+                .on("*").end()
+                .end()
+                .build();
+    }
+
+    @Bean
+    public Step rangeValidationStep(JobRepository jobRepository,
+                                    Step validationWorkerStep,
+                                    Partitioner csvByteRangePartitioner,
+                                    TaskExecutor partitionTaskExecutor) {
+        return new StepBuilder("rangeValidationStep", jobRepository)
+                .partitioner("validationWorkerStep", csvByteRangePartitioner)
+                .step(validationWorkerStep)
+                .gridSize(rangePartitionCount())
+                .taskExecutor(partitionTaskExecutor)
+                .build();
+    }
+
+    @Bean
+    public Step rangeLoadStep(JobRepository jobRepository,
+                              Step loadWorkerStep,
+                              Partitioner csvByteRangePartitioner,
+                              TaskExecutor partitionTaskExecutor) {
+        return new StepBuilder("rangeLoadStep", jobRepository)
+                .partitioner("loadWorkerStep", csvByteRangePartitioner)
+                .step(loadWorkerStep)
+                .gridSize(rangePartitionCount())
+                .taskExecutor(partitionTaskExecutor)
+                .allowStartIfComplete(true)
                 .build();
     }
 
+    @Bean
+    @StepScope
+    public CsvByteRangePartitioner csvByteRangePartitioner(@Value("#{jobParameters['filePath']}") String filePath) {
+        return new CsvByteRangePartitioner(filePath);
+    }
+
+    private int rangePartitionCount() {
+        return rangePartitions > 0 ? rangePartitions : Runtime.getRuntime().availableProcessors();
+    }
 
+    @Bean
+    public Step partitionedValidationStep(JobRepository jobRepository,
+                                          Step validationWorkerStep,
+                                          Partitioner csvFilePartitioner,
+                                          TaskExecutor partitionTaskExecutor) {
+        return new StepBuilder("partitionedValidationStep", jobRepository)
+                .partitioner("validationWorkerStep", csvFilePartitioner)
+                .step(validationWorkerStep)
+                .taskExecutor(partitionTaskExecutor)
+                .build();
+    }
+
+    @Bean
+    public Step partitionedLoadStep(JobRepository jobRepository,
+                                    Step loadWorkerStep,
+                                    Partitioner csvFilePartitioner,
+                                    TaskExecutor partitionTaskExecutor) {
+        return new StepBuilder("partitionedLoadStep", jobRepository)
+                .partitioner("loadWorkerStep", csvFilePartitioner)
+                .step(loadWorkerStep)
+                .taskExecutor(partitionTaskExecutor)
+                .allowStartIfComplete(true)
+                .build();
+    }
+
+    /**
+     * Validates one sheet, same settings as validationStep
+     */
+    @Bean
+    public Step validationWorkerStep(JobRepository jobRepository,
+                                     PlatformTransactionManager transactionManager,
+                                     ItemReader<Customer> partitionItemReader,
+                                     ItemProcessor<Customer, Customer> csvItemProcessor,
+                                     ItemWriter<Customer> noOpWriter) {
+        return validateStep("validationWorkerStep", jobRepository, transactionManager,
+                partitionItemReader, csvItemProcessor, noOpWriter, false);
+    }
+
+    /**
+     * Loads one sheet, same settings as csvReadingStep
+     */
+    @Bean
+    public Step loadWorkerStep(JobRepository jobRepository,
+                               PlatformTransactionManager transactionManager,
+                               ItemReader<Customer> partitionItemReader,
+                               ItemProcessor<Customer, Customer> normalizeProcess,
+                               ItemWriter<Customer> csvItemWriter) {
+        return loadStep("loadWorkerStep", jobRepository, transactionManager,
+                partitionItemReader, normalizeProcess, csvItemWriter, false);
+    }
 
     @Bean
     @StepScope
-    public FlatFileItemReader<Customer> csvItemReader(@Value("#{jobParameters['filePath']}") String filePath) {
+    public CsvFilePartitioner csvFilePartitioner(@Value("#{jobParameters['filePath']}") String inputDir) {
+        return new CsvFilePartitioner(inputDir);
+    }
+
+    /**
+     * Reader for one partition, the file comes from the partition's step execution context.
+     * Byte-range partitions read only the records starting in [startOffset, endOffset).
+     */
+    @Bean
+    @StepScope
+    public ItemStreamReader<Customer> partitionItemReader(@Value("#{stepExecutionContext['filePath']}") String filePath,
+                                                          @Value("#{stepExecutionContext['startOffset']}") Long startOffset,
+                                                          @Value("#{stepExecutionContext['endOffset']}") Long endOffset) {
+
+        if (startOffset != null && endOffset != null) {
+            return new MappedCsvCustomerItemReader(filePath, startOffset, endOffset);
+        }
+        return CustomerItemReader.forFile(filePath, useMappedCsvReader());
+    }
+
+    /**
+     * Reader for the job input file.
+     * An .xlsx input is read directly from the sheet, anything else as the converted CSV.
+     */
+    @Bean
+    @StepScope
+    public ItemStreamReader<Customer> csvItemReader(@Value("#{jobParameters['filePath']}") String filePath) {
+
+        return forStepThreads(CustomerItemReader.forFile(filePath, useMappedCsvReader()));
+    }
+
+    /**
+     * Reader for the validation step.
+     * For pipelined uploads it drains the conversion channel while the CSV is still being written.
+     */
+    @Bean
+    @StepScope
+    public ItemStreamReader<Customer> validationItemReader(@Value("#{jobParameters['filePath']}") String filePath,
+                                                           @Value("#{jobParameters['channelId']}") String channelId) {
+
+        if (channelId != null) {
+            return forStepThreads(new ChannelCustomerItemReader(customerRowChannelRegistry, channelId, filePath));
+        }
+        return forStepThreads(CustomerItemReader.forFile(filePath, useMappedCsvReader()));
+    }
 
-        return CustomerItemReader.customerFlatFileItemReader(filePath);
+    private boolean useMappedCsvReader() {
+        return "mapped".equalsIgnoreCase(csvReaderType);
     }
 
     /**
@@ -132,12 +847,13 @@ public class BatchConfig {
     }
 
     /**
-     * this does not perform any validation checks again.
+     * Processor of the load steps of the two-pass jobs: the rows were validated by an earlier step,
+     * so it only normalizes them (trim, lower case email, upper case PAN) like the one-pass jobs.
      * @return Customer
      */
     @Bean
-    public ItemProcessor<Customer,Customer> noOpProcess() {
-        return noOpItemProcessor;
+    public ItemProcessor<Customer,Customer> normalizeProcess() {
+        return normalizingItemProcessor;
     }
     
     /**
@@ -175,13 +891,13 @@ public ItemWriter<Customer> databaseItemWriter()
     @Bean
     public ItemWriter<Customer> consoleItemWriter() {
         return new ItemWriter<Customer>() {
-            private int totalWritten = 0;
+            private final LongAdder totalWritten = new LongAdder();
                 @Override
                 public void write(org.springframework.batch.item.Chunk<? extends Customer> chunk) throws Exception {
-                    totalWritten += chunk.size();
+                    totalWritten.add(chunk.size());
 
                     log.info("Saved batch of {} customers to database. Total processed: {} ",
-                            chunk.size(), totalWritten);
+                            chunk.size(), totalWritten.sum());
 
                     if (!chunk.isEmpty()) {
                         Customer first = chunk.getItems().getFirst();
@@ -0,0 +1,149 @@
+package com.assignment.customer_batch_processor.config;
+
+import com.assignment.customer_batch_processor.Utilities.JobAdmissionScheduler;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Thread pools used outside of the Spring Batch steps
+ */
+@Configuration
+@Slf4j
+public class ExecutorConfig {
+
+    /**
+     * Runs XLSX conversions of pipelined uploads while the job consumes their rows
+     */
+    @Bean
+    public ThreadPoolTaskExecutor conversionTaskExecutor(@Value("${app.pipeline.conversion-threads:2}") int threads) {
+        log.debug("Creating conversion executor with {} threads", threads);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("xlsx-convert-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    /**
+     * Runs the chunks of csvReadingStep and validationStep when app.batch.step-threads > 1.
+     * Virtual threads fit the load step, which mostly waits on JDBC.
+     */
+    @Bean
+    public SimpleAsyncTaskExecutor batchStepTaskExecutor(@Value("${app.batch.step-threads:1}") int threads,
+                                                         @Value("${app.batch.virtual-threads:false}") boolean virtualThreads) {
+        log.debug("Creating step executor with {} {} threads", threads, virtualThreads ? "virtual" : "platform");
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("batch-step-");
+        executor.setVirtualThreads(virtualThreads);
+        executor.setConcurrencyLimit(Math.max(threads, 1));
+        return executor;
+    }
+
+    /**
+     * Runs the jobs started by the upload endpoints, one virtual thread per job:
+     * a job mostly waits on file and JDBC I/O, and the request thread is released at once
+     */
+    @Bean
+    public SimpleAsyncTaskExecutor jobLaunchTaskExecutor() {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("batch-job-");
+        executor.setVirtualThreads(true);
+        return executor;
+    }
+
+    /**
+     * Queue in front of jobLaunchTaskExecutor: limits the jobs running at once, small files
+     * first, uploaders take turns. Used by the async job launcher.
+     */
+    @Bean
+    public JobAdmissionScheduler jobAdmissionScheduler(@Qualifier("jobLaunchTaskExecutor") TaskExecutor jobLaunchTaskExecutor,
+                                                       @Value("${app.batch.scheduler.max-concurrent-jobs:2}") int maxConcurrentJobs,
+                                                       @Value("${app.batch.scheduler.max-queued-jobs:100}") int maxQueuedJobs,
+                                                       @Value("${app.batch.scheduler.small-lane-weight:3}") int smallLaneWeight,
+                                                       MeterRegistry meterRegistry) {
+        log.debug("Creating job scheduler, {} concurrent jobs, {} queued", maxConcurrentJobs, maxQueuedJobs);
+        return new JobAdmissionScheduler(jobLaunchTaskExecutor, maxConcurrentJobs, maxQueuedJobs, smallLaneWeight, meterRegistry);
+    }
+
+    /**
+     * Sends the job progress streams, one thread: a broadcast only serializes one snapshot per job
+     */
+    @Bean
+    public ThreadPoolTaskScheduler progressTaskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("job-progress-");
+        return scheduler;
+    }
+
+    /**
+     * Housekeeping tasks, e.g. expiring abandoned chunked uploads
+     */
+    @Bean
+    public ThreadPoolTaskScheduler maintenanceTaskScheduler() {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(1);
+        scheduler.setThreadNamePrefix("maintenance-");
+        return scheduler;
+    }
+
+    /**
+     * Converts the sheets of a multi-sheet workbook, one task per sheet.
+     * 0 threads means one per available processor.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor sheetConversionTaskExecutor(@Value("${app.conversion.sheet-threads:0}") int threads) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        log.debug("Creating sheet conversion executor with {} threads", poolSize);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setThreadNamePrefix("xlsx-sheet-");
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        return executor;
+    }
+
+    /**
+     * Runs the worker steps of the partitioned job, one partition per converted sheet.
+     * 0 threads means one per available processor.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor partitionTaskExecutor(@Value("${app.batch.partition-threads:0}") int threads) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        log.debug("Creating partition executor with {} threads", poolSize);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setThreadNamePrefix("batch-partition-");
+        return executor;
+    }
+
+    /**
+     * Runs the item processors of the async pipeline (validation, encryption), one task per item.
+     * The queue is bounded: when it is full the step thread processes the item itself.
+     * 0 threads means one per available processor.
+     */
+    @Bean
+    public ThreadPoolTaskExecutor asyncProcessorTaskExecutor(@Value("${app.batch.async.threads:0}") int threads,
+                                                             @Value("${app.batch.async.queue-capacity:4000}") int queueCapacity) {
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        log.debug("Creating async processor executor with {} threads", poolSize);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(poolSize);
+        executor.setMaxPoolSize(poolSize);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.CallerRunsPolicy());
+        executor.setThreadNamePrefix("batch-async-");
+        return executor;
+    }
+}
@@ -1,10 +1,44 @@
 package com.assignment.customer_batch_processor.repository;
 
 import com.assignment.customer_batch_processor.Customer_Entity.Customer;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface CustomerRepository extends JpaRepository<Customer,Long> {
     Optional<Customer> findByEmail(String email);
+
+    // Batched lookups of DuplicateDetectionService, the values of the list already saved
+
+    @Query("select c.email from Customer c where c.email in :values")
+    List<String> findExistingEmails(@Param("values") Collection<String> values);
+
+    @Query("select c.phoneNumber from Customer c where c.phoneNumber in :values")
+    List<String> findExistingPhoneNumbers(@Param("values") Collection<String> values);
+
+    @Query("select c.aadhaarNumber from Customer c where c.aadhaarNumber in :values")
+    List<String> findExistingAadhaarNumbers(@Param("values") Collection<String> values);
+
+    @Query("select c.panNumber from Customer c where c.panNumber in :values")
+    List<String> findExistingPanNumbers(@Param("values") Collection<String> values);
+
+    /**
+     * Unique values of the customers after afterId, in id order, a page at a time
+     */
+    @Query("select c.id as id, c.email as email, c.phoneNumber as phoneNumber, c.aadhaarNumber as aadhaarNumber, "
+            + "c.panNumber as panNumber from Customer c where c.id > :afterId order by c.id")
+    List<UniqueValues> findUniqueValuesAfter(@Param("afterId") long afterId, Limit limit);
+
+    interface UniqueValues {
+        Long getId();
+        String getEmail();
+        String getPhoneNumber();
+        String getAadhaarNumber();
+        String getPanNumber();
+    }
 }
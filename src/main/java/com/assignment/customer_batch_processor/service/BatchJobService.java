@@ -1,15 +1,22 @@
 package com.assignment.customer_batch_processor.service;
 
+import com.assignment.customer_batch_processor.Utilities.CustomerRowChannelRegistry;
+import com.assignment.customer_batch_processor.Utilities.JobAdmissionScheduler;
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.batch.core.*;
 import org.springframework.batch.core.explore.JobExplorer;
 import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 
 import java.io.File;
 import java.time.LocalDateTime;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -18,18 +25,140 @@ public class BatchJobService {
     
     @Autowired
     private JobLauncher jobLauncher;
+
+    @Autowired
+    @Qualifier("asyncJobLauncher")
+    private JobLauncher asyncJobLauncher;
+
+    // Return as soon as the job execution is created, the job runs on a virtual thread
+    @Value("${app.batch.async-launch:true}")
+    private boolean asyncLaunch;
+
+    @Autowired
+    private JobAdmissionScheduler jobAdmissionScheduler;
+
+    // Async launch: inputs up to this size wait in the small-file lane
+    @Value("${app.batch.scheduler.small-file-max-size:10MB}")
+    private DataSize smallFileMaxSize;
     
     @Autowired
     @Qualifier("csvReadingJob")
     private Job csvReadingJob;
 
+    @Autowired
+    @Qualifier("partitionedCsvJob")
+    private Job partitionedCsvJob;
+
+    @Autowired
+    @Qualifier("rangePartitionedCsvJob")
+    private Job rangePartitionedCsvJob;
+
+    @Autowired
+    @Qualifier("singlePassCsvJob")
+    private Job singlePassCsvJob;
+
+    @Autowired
+    @Qualifier("quarantineCsvJob")
+    private Job quarantineCsvJob;
+
+    @Autowired
+    @Qualifier("partitionedQuarantineJob")
+    private Job partitionedQuarantineJob;
+
     @Autowired
     private JobExplorer jobExplorer;
+
+    @Autowired
+    private JobRepository jobRepository;
+
+    @Autowired
+    private CustomerRowChannelRegistry customerRowChannelRegistry;
+
+    // Partial loads: valid rows are saved, invalid rows and failed writes go to a reject file
+    @Value("${app.quarantine.enabled:false}")
+    private boolean quarantineEnabled;
+
+    // Validate and stage the rows in one read of the file, then load the staged rows
+    @Value("${app.batch.single-pass:true}")
+    private boolean singlePass;
+
+    // CSV files of at least this size are split into byte ranges processed in parallel
+    @Value("${app.batch.range-partitioning.enabled:true}")
+    private boolean rangePartitioningEnabled;
+
+    @Value("${app.batch.range-partitioning.min-file-size:64MB}")
+    private DataSize rangePartitioningMinFileSize;
+
+    // Off by default: on a job repository shared by several instances it would fail their live jobs
+    @Value("${app.batch.fail-abandoned-executions:false}")
+    private boolean failAbandonedExecutions;
     
     /**
-     * Process a CSV file using Spring Batch
+     * Fails the executions a previous run left STARTING or STARTED: queued and running jobs live
+     * in this process only, and no execution is restarted (every launch has unique parameters).
+     * Only when enabled, every running execution of the repository is assumed to be this node's.
+     */
+    @PostConstruct
+    void failAbandonedExecutions() {
+        if (!failAbandonedExecutions) {
+            return;
+        }
+        for (String jobName : jobExplorer.getJobNames()) {
+            for (JobExecution jobExecution : jobExplorer.findRunningJobExecutions(jobName)) {
+                log.warn("Failing execution {} of {}, left {} by a previous run",
+                        jobExecution.getId(), jobName, jobExecution.getStatus());
+                fail(jobExecution, "Abandoned by a previous run of the application");
+            }
+        }
+    }
+
+    /**
+     * Process a CSV file using Spring Batch.
+     * With async launch the returned execution is still STARTING or STARTED.
      */
     public JobExecution processCustomerFile(String filePath) throws Exception{
+        return processCustomerFile(filePath, Map.of());
+    }
+
+    /**
+     * Process a file with additional string job parameters (e.g. the pipeline channel id)
+     */
+    public JobExecution processCustomerFile(String filePath, Map<String, String> extraParameters) throws Exception{
+        if (quarantineEnabled) {
+            return launch(quarantineCsvJob, filePath, extraParameters);
+        }
+        if (useRangePartitioning(filePath, extraParameters)) {
+            log.info("Splitting {} into byte ranges", filePath);
+            return launch(rangePartitionedCsvJob, filePath, extraParameters);
+        }
+        if (singlePass && !extraParameters.containsKey("channelId")) {
+            return launch(singlePassCsvJob, filePath, extraParameters);
+        }
+        return launch(csvReadingJob, filePath, extraParameters);
+    }
+
+    /**
+     * Large converted CSVs only, pipelined runs (channelId) must read the channel in csvReadingJob
+     */
+    private boolean useRangePartitioning(String filePath, Map<String, String> extraParameters) {
+        return rangePartitioningEnabled
+                && filePath.endsWith(".csv")
+                && !extraParameters.containsKey("channelId")
+                && new File(filePath).length() >= rangePartitioningMinFileSize.toBytes();
+    }
+
+    /**
+     * Process a directory of CSV files (one per sheet) with the partitioned job,
+     * one partition per file
+     */
+    public JobExecution processCustomerFiles(String inputDir, Map<String, String> extraParameters) throws Exception{
+        if (quarantineEnabled) {
+            return launch(partitionedQuarantineJob, inputDir, extraParameters);
+        }
+        return launch(partitionedCsvJob, inputDir, extraParameters);
+    }
+
+    private JobExecution launch(Job job, String filePath, Map<String, String> extraParameters) throws Exception{
         try {
             log.info("Starting batch job for file: {}", filePath);
             
@@ -43,15 +172,35 @@ public class BatchJobService {
             log.info("Processing file of size: {} KB", fileSizeKB);
             
             // Build job parameters
-            JobParameters jobParameters = new JobParametersBuilder()
+            JobParametersBuilder parametersBuilder = new JobParametersBuilder()
                     .addString("filePath", filePath)
                     .addString("startTime", LocalDateTime.now().toString())
                     .addString("jobid" , UUID.randomUUID().toString())
-                    .addLong("timestamp", System.currentTimeMillis())
-                    .toJobParameters();
+                    .addLong("timestamp", System.currentTimeMillis());
+            extraParameters.forEach(parametersBuilder::addString);
+            JobParameters jobParameters = parametersBuilder.toJobParameters();
             
             // Launch the job
-            JobExecution jobExecution = jobLauncher.run(csvReadingJob, jobParameters);
+            if (asyncLaunch) {
+                JobAdmissionScheduler.Lane lane = inputSize(file) <= smallFileMaxSize.toBytes()
+                        ? JobAdmissionScheduler.Lane.SMALL : JobAdmissionScheduler.Lane.LARGE;
+                JobExecution jobExecution;
+                try (JobAdmissionScheduler.Ticket ticket = jobAdmissionScheduler.ticket(extraParameters.get("uploader"), lane)) {
+                    jobExecution = asyncJobLauncher.run(job, jobParameters);
+                    JobExecution queued = jobExecution;
+                    ticket.onStartFailure(e -> {
+                        fail(queued, "Job could not be started: " + e);
+                        // No listener of the job runs, the pipelined conversion must not wait for a reader
+                        String channelId = jobParameters.getString("channelId");
+                        if (channelId != null) {
+                            customerRowChannelRegistry.close(channelId);
+                        }
+                    });
+                }
+                log.info("Batch job {} queued as execution {} ({} lane)", job.getName(), jobExecution.getId(), lane);
+                return jobExecution;
+            }
+            JobExecution jobExecution = jobLauncher.run(job, jobParameters);
             
             log.info("Batch job completed with status: {}", jobExecution.getStatus());
             log.info("Job execution summary: Exit Status = {}, Start Time = {}, End Time = {}", 
@@ -65,4 +214,49 @@ public class BatchJobService {
         }
     }
 
+    /**
+     * Size of the input file, or of all files of a partitioned input directory
+     */
+    private static long inputSize(File file) {
+        File[] files = file.listFiles();
+        if (files == null) {
+            return file.length();
+        }
+        long size = 0;
+        for (File child : files) {
+            size += child.length();
+        }
+        return size;
+    }
+
+    /**
+     * Marks an execution that will never run (again) FAILED, with its unfinished steps
+     */
+    private void fail(JobExecution jobExecution, String reason) {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            for (StepExecution stepExecution : jobExecution.getStepExecutions()) {
+                if (stepExecution.getStatus().isRunning()) {
+                    stepExecution.setStatus(BatchStatus.FAILED);
+                    stepExecution.setExitStatus(ExitStatus.FAILED.addExitDescription(reason));
+                    stepExecution.setEndTime(now);
+                    jobRepository.update(stepExecution);
+                }
+            }
+            jobExecution.upgradeStatus(BatchStatus.FAILED);
+            jobExecution.setExitStatus(ExitStatus.FAILED.addExitDescription(reason));
+            jobExecution.setEndTime(now);
+            jobRepository.update(jobExecution);
+        } catch (RuntimeException e) {
+            log.error("Unable to mark execution {} FAILED: {}", jobExecution.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * Looks up a job execution in the job repository, null if it is unknown
+     */
+    public JobExecution getJobExecution(Long jobExecutionId) {
+        return jobExplorer.getJobExecution(jobExecutionId);
+    }
+
 }
\ No newline at end of file
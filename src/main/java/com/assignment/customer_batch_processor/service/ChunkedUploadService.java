@@ -0,0 +1,353 @@
+package com.assignment.customer_batch_processor.service;
+
+import com.assignment.customer_batch_processor.Customer_Dto.ChunkedUploadRequest;
+import jakarta.annotation.PostConstruct;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+/**
+ * Resumable chunked uploads: init → PUT numbered parts (in any order, in parallel) → complete.
+ *
+ * Every part is written at its own offset of one assembly file with positional
+ * FileChannel writes, so parts never need to be concatenated. A part can be
+ * sent again after a failure, only the missing parts have to be re-sent.
+ * Sessions not touched for the session TTL are dropped with their assembly file, as are
+ * assembly files left over from a previous run.
+ */
+@Service
+@Slf4j
+public class ChunkedUploadService {
+
+    private static final int BUFFER_SIZE = 1024 * 1024;
+    private static final long MAX_PARTS = 100_000;
+
+    @Value("${app.storage.chunk-dir:data/chunks}")
+    private String chunkDir;
+
+    @Value("${app.storage.upload-dir:data/uploads}")
+    private String uploadDir;
+
+    @Value("${app.upload.chunked.max-file-size:20GB}")
+    private DataSize maxFileSize;
+
+    // Sessions without a part written for this long are aborted
+    @Value("${app.upload.chunked.session-ttl:24h}")
+    private Duration sessionTtl;
+
+    @Value("${app.upload.chunked.cleanup-interval:15m}")
+    private Duration cleanupInterval;
+
+    @Autowired
+    @Qualifier("maintenanceTaskScheduler")
+    private TaskScheduler maintenanceTaskScheduler;
+
+    private final Map<String, UploadSession> sessions = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void startCleanup() {
+        maintenanceTaskScheduler.scheduleWithFixedDelay(this::expireSessions, cleanupInterval);
+    }
+
+    /**
+     * Creates the session and its assembly file
+     */
+    public UploadSession init(ChunkedUploadRequest request) throws IOException {
+        String fileName = Paths.get(request.getFileName()).getFileName().toString();
+        if (!fileName.toLowerCase().endsWith(".xlsx")) {
+            throw new IllegalArgumentException("Invalid file type. Only .xlsx files are allowed. ");
+        }
+        if (request.getTotalSize() > maxFileSize.toBytes()) {
+            throw new IllegalArgumentException("File exceeds the maximum size of " + maxFileSize);
+        }
+        if ((request.getTotalSize() + request.getPartSize() - 1) / request.getPartSize() > MAX_PARTS) {
+            throw new IllegalArgumentException("Part size too small, at most " + MAX_PARTS + " parts are allowed");
+        }
+
+        Files.createDirectories(Paths.get(chunkDir));
+        String uploadId = UUID.randomUUID().toString();
+        Path assemblyFile = Paths.get(chunkDir).resolve(uploadId + ".part");
+        Files.createFile(assemblyFile);
+
+        UploadSession session = new UploadSession(uploadId, fileName, request.getTotalSize(),
+                request.getPartSize(), request.getSha256(), assemblyFile);
+        sessions.put(uploadId, session);
+
+        log.info("Started chunked upload {} for {} ({} bytes in {} parts)",
+                uploadId, fileName, session.getTotalSize(), session.getPartCount());
+        return session;
+    }
+
+    /**
+     * Writes one part (1-based) at its offset of the assembly file
+     * @return number of bytes written
+     */
+    public long writePart(String uploadId, int partNumber, InputStream body) throws IOException {
+        UploadSession session = getSession(uploadId);
+        // Parts are written under the read lock, complete and abort wait for them with the write lock
+        session.lock.readLock().lock();
+        try {
+            if (session.closed) {
+                throw new UploadNotFoundException("Upload " + uploadId + " not found");
+            }
+            return writePart(session, partNumber, body);
+        } finally {
+            session.lock.readLock().unlock();
+        }
+    }
+
+    private long writePart(UploadSession session, int partNumber, InputStream body) throws IOException {
+        if (partNumber < 1 || partNumber > session.getPartCount()) {
+            throw new IllegalArgumentException("Part number must be between 1 and " + session.getPartCount());
+        }
+
+        long offset = (partNumber - 1) * session.getPartSize();
+        long expected = Math.min(session.getPartSize(), session.getTotalSize() - offset);
+        long written = 0;
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        try (ReadableByteChannel source = Channels.newChannel(body);
+             FileChannel target = FileChannel.open(session.getAssemblyFile(), StandardOpenOption.WRITE)) {
+            while (source.read(buffer) >= 0) {
+                buffer.flip();
+                if (written + buffer.remaining() > expected) {
+                    throw new IllegalArgumentException("Part " + partNumber + " is larger than " + expected + " bytes");
+                }
+                while (buffer.hasRemaining()) {
+                    written += target.write(buffer, offset + written);
+                }
+                buffer.clear();
+            }
+        }
+
+        if (written != expected) {
+            throw new IllegalArgumentException("Part " + partNumber + " has " + written
+                    + " bytes, expected " + expected);
+        }
+
+        session.markReceived(partNumber);
+        log.debug("Chunked upload {}: part {} written ({} bytes)", session.getUploadId(), partNumber, written);
+        return written;
+    }
+
+    /**
+     * Checks that every part arrived and the checksum matches, then moves the
+     * file to the upload directory.
+     * The session is claimed first: a second complete or a late part gets UploadNotFoundException,
+     * parts being written are waited for. A failed check gives the session back.
+     * @return the assembled XLSX file and its checksum
+     */
+    public StagedUpload complete(String uploadId) throws Exception {
+        UploadSession session = sessions.remove(uploadId);
+        if (session == null) {
+            throw new UploadNotFoundException("Upload " + uploadId + " not found");
+        }
+
+        Path target;
+        String checksum;
+        session.lock.writeLock().lock();
+        try {
+            try {
+                List<Integer> missing = session.getMissingParts();
+                if (!missing.isEmpty()) {
+                    throw new IllegalStateException("Upload " + uploadId + " is missing parts " + missing);
+                }
+
+                checksum = sha256(session.getAssemblyFile());
+                if (session.getSha256() != null && !session.getSha256().equalsIgnoreCase(checksum)) {
+                    throw new IllegalStateException("Checksum mismatch for upload " + uploadId
+                            + ": expected " + session.getSha256() + " but was " + checksum);
+                }
+
+                Files.createDirectories(Paths.get(uploadDir));
+                String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
+                target = Paths.get(uploadDir).resolve(timestamp + "_" + session.getFileName());
+                Files.move(session.getAssemblyFile(), target, StandardCopyOption.REPLACE_EXISTING);
+            } catch (Exception e) {
+                session.touch();
+                sessions.put(uploadId, session);
+                throw e;
+            }
+            session.closed = true;
+        } finally {
+            session.lock.writeLock().unlock();
+        }
+
+        log.info("Completed chunked upload {} → {} (sha256 {})", uploadId, target, checksum);
+        return new StagedUpload(target.toString(), checksum, session.getTotalSize());
+    }
+
+    /**
+     * Drops the session and its assembly file
+     */
+    public void abort(String uploadId) throws IOException {
+        UploadSession session = sessions.remove(uploadId);
+        if (session != null) {
+            close(session);
+            log.info("Aborted chunked upload {}", uploadId);
+        }
+    }
+
+    /**
+     * Aborts the sessions idle for longer than the session TTL, and deletes the assembly
+     * files of no session (from a previous run) older than the TTL
+     */
+    public void expireSessions() {
+        Instant expiry = Instant.now().minus(sessionTtl);
+        for (UploadSession session : sessions.values()) {
+            if (session.lastAccess.isBefore(expiry) && sessions.remove(session.getUploadId(), session)) {
+                try {
+                    close(session);
+                    log.info("Expired chunked upload {}, idle since {}", session.getUploadId(), session.lastAccess);
+                } catch (IOException e) {
+                    log.warn("Could not delete the assembly file of expired upload {}: {}", session.getUploadId(), e.getMessage());
+                }
+            }
+        }
+
+        Path dir = Paths.get(chunkDir);
+        if (!Files.isDirectory(dir)) {
+            return;
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            for (Path file : files.filter(f -> f.getFileName().toString().endsWith(".part")).toList()) {
+                String uploadId = file.getFileName().toString().replaceFirst("\\.part$", "");
+                FileTime modified = Files.getLastModifiedTime(file);
+                if (!sessions.containsKey(uploadId) && modified.toInstant().isBefore(expiry) && Files.deleteIfExists(file)) {
+                    log.info("Deleted orphaned chunked upload file {}", file);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not clean up {}: {}", dir, e.getMessage());
+        }
+    }
+
+    private static void close(UploadSession session) throws IOException {
+        session.lock.writeLock().lock();
+        try {
+            session.closed = true;
+            Files.deleteIfExists(session.getAssemblyFile());
+        } finally {
+            session.lock.writeLock().unlock();
+        }
+    }
+
+    public UploadSession getSession(String uploadId) {
+        UploadSession session = sessions.get(uploadId);
+        if (session == null) {
+            throw new UploadNotFoundException("Upload " + uploadId + " not found");
+        }
+        return session;
+    }
+
+    private static String sha256(Path file) throws Exception {
+        MessageDigest digest = MessageDigest.getInstance("SHA-256");
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    /**
+     * State of one chunked upload
+     */
+    @Getter
+    public static class UploadSession {
+
+        private final String uploadId;
+        private final String fileName;
+        private final long totalSize;
+        private final long partSize;
+        private final int partCount;
+        private final String sha256;
+        private final Path assemblyFile;
+        @Getter(AccessLevel.NONE)
+        private final BitSet receivedParts;
+        @Getter(AccessLevel.NONE)
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+        @Getter(AccessLevel.NONE)
+        private volatile boolean closed;
+        @Getter(AccessLevel.NONE)
+        private volatile Instant lastAccess = Instant.now();
+
+        UploadSession(String uploadId, String fileName, long totalSize, long partSize, String sha256, Path assemblyFile) {
+            this.uploadId = uploadId;
+            this.fileName = fileName;
+            this.totalSize = totalSize;
+            this.partSize = partSize;
+            this.partCount = (int) ((totalSize + partSize - 1) / partSize);
+            this.sha256 = sha256;
+            this.assemblyFile = assemblyFile;
+            this.receivedParts = new BitSet(partCount);
+        }
+
+        synchronized void markReceived(int partNumber) {
+            receivedParts.set(partNumber - 1);
+            touch();
+        }
+
+        void touch() {
+            lastAccess = Instant.now();
+        }
+
+        public synchronized int getReceivedCount() {
+            return receivedParts.cardinality();
+        }
+
+        public synchronized List<Integer> getMissingParts() {
+            List<Integer> missing = new ArrayList<>();
+            for (int i = receivedParts.nextClearBit(0); i < partCount; i = receivedParts.nextClearBit(i + 1)) {
+                missing.add(i + 1);
+            }
+            return missing;
+        }
+    }
+
+    /**
+     * Unknown or already completed upload id
+     */
+    public static class UploadNotFoundException extends RuntimeException {
+        public UploadNotFoundException(String message) {
+            super(message);
+        }
+    }
+}
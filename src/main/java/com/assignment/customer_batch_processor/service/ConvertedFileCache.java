@@ -0,0 +1,208 @@
+package com.assignment.customer_batch_processor.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+/**
+ * Content-addressed cache of converted files, keyed on the SHA-256 of the uploaded workbook
+ * plus the extension of the converted format (e.g. "<sha256>.csv").
+ *
+ * Entries are hard links where the file system allows it (a copy otherwise), so a
+ * cache hit costs no conversion and no copy. The total size on disk is bounded by
+ * app.cache.max-size, least recently used entries are evicted first.
+ */
+@Service
+@Slf4j
+public class ConvertedFileCache {
+
+    private static final String STAGING_SUFFIX = ".tmp";
+
+    @Value("${app.cache.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.cache.dir:data/cache}")
+    private String cacheDir;
+
+    @Value("${app.cache.max-size:2GB}")
+    private DataSize maxSize;
+
+    // hash → size in bytes, iteration order is least recently used first
+    private final LinkedHashMap<String, Long> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private long totalBytes;
+
+    // hash → id of the last COMPLETED job execution for that content
+    private final Map<String, Long> completedExecutions = new ConcurrentHashMap<>();
+
+    /**
+     * Rebuilds the index from the cache directory, oldest access first
+     */
+    @PostConstruct
+    public synchronized void loadIndex() throws IOException {
+        entries.clear();
+        totalBytes = 0;
+        if (!enabled) {
+            return;
+        }
+
+        Path dir = Paths.get(cacheDir);
+        Files.createDirectories(dir);
+        try (Stream<Path> files = Files.list(dir)) {
+            List<Path> cached = files
+                    .sorted(Comparator.comparing(ConvertedFileCache::lastModified))
+                    .toList();
+            for (Path file : cached) {
+                // Staging file of a store interrupted by a shutdown
+                if (file.getFileName().toString().endsWith(STAGING_SUFFIX)) {
+                    deleteQuietly(file);
+                    continue;
+                }
+                long size = Files.size(file);
+                entries.put(file.getFileName().toString(), size);
+                totalBytes += size;
+            }
+        }
+        evict();
+        log.info("Converted file cache: {} entries, {} KB in {}", entries.size(), totalBytes / 1024, cacheDir);
+    }
+
+    /**
+     * Links the cached conversion for this key to target
+     * @return true on a cache hit
+     */
+    public synchronized boolean copyTo(String key, Path target) throws IOException {
+        // get(), not containsKey(), so the hit moves the entry to the most recently used end
+        if (!enabled || key == null || entries.get(key) == null) {
+            return false;
+        }
+
+        Path cached = entryPath(key);
+        if (!Files.exists(cached)) {
+            totalBytes -= entries.remove(key);
+            return false;
+        }
+
+        Files.deleteIfExists(target);
+        linkOrCopy(cached, target);
+        Files.setLastModifiedTime(cached, FileTime.fromMillis(System.currentTimeMillis()));
+        return true;
+    }
+
+    /**
+     * Adds a converted file to the cache and evicts entries until the cache fits its size limit.
+     * A file that cannot be cached is logged and skipped, the conversion itself has succeeded.
+     */
+    public void store(String key, Path convertedFile) {
+        if (!enabled || key == null) {
+            return;
+        }
+
+        Path staging = null;
+        try {
+            long size = Files.size(convertedFile);
+            if (size > maxSize.toBytes()) {
+                log.debug("Not caching {}, larger than the cache ({} bytes)", convertedFile, size);
+                return;
+            }
+
+            // Link under a temporary name of its own first, so a reader never sees a partial entry
+            // and concurrent stores of the same content do not share a staging file
+            Path entry = entryPath(key);
+            staging = Files.createTempFile(entry.getParent(), key + ".", STAGING_SUFFIX);
+            Files.delete(staging);
+            linkOrCopy(convertedFile, staging);
+
+            synchronized (this) {
+                Files.move(staging, entry, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                // rename() does nothing when both are links to the same file (the same conversion stored again)
+                Files.deleteIfExists(staging);
+                Long previous = entries.put(key, size);
+                totalBytes += size - (previous == null ? 0 : previous);
+                evict();
+            }
+            log.debug("Cached conversion {} ({} KB)", key, size / 1024);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not cache conversion {}: {}", key, e.toString());
+            deleteQuietly(staging);
+        }
+    }
+
+    public void recordCompletedExecution(String sha256, long jobExecutionId) {
+        if (sha256 != null) {
+            completedExecutions.put(sha256, jobExecutionId);
+        }
+    }
+
+    public Optional<Long> findCompletedExecution(String sha256) {
+        return sha256 == null ? Optional.empty() : Optional.ofNullable(completedExecutions.get(sha256));
+    }
+
+    public synchronized long getTotalBytes() {
+        return totalBytes;
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    private void evict() throws IOException {
+        Iterator<Map.Entry<String, Long>> it = entries.entrySet().iterator();
+        while (totalBytes > maxSize.toBytes() && it.hasNext()) {
+            Map.Entry<String, Long> eldest = it.next();
+            Files.deleteIfExists(entryPath(eldest.getKey()));
+            totalBytes -= eldest.getValue();
+            it.remove();
+            log.debug("Evicted cached conversion {} ({} KB)", eldest.getKey(), eldest.getValue() / 1024);
+        }
+    }
+
+    private Path entryPath(String key) throws IOException {
+        Path dir = Paths.get(cacheDir);
+        Files.createDirectories(dir);
+        return dir.resolve(key);
+    }
+
+    private static void linkOrCopy(Path source, Path target) throws IOException {
+        try {
+            Files.createLink(target, source);
+        } catch (UnsupportedOperationException | IOException e) {
+            Files.copy(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    private static void deleteQuietly(Path file) {
+        if (file == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(file);
+        } catch (IOException e) {
+            log.debug("Could not delete {}: {}", file, e.getMessage());
+        }
+    }
+
+    private static FileTime lastModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (IOException e) {
+            return FileTime.fromMillis(0);
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package com.assignment.customer_batch_processor.service;
+
+import com.assignment.customer_batch_processor.Customer_Entity.Customer;
+import com.assignment.customer_batch_processor.repository.CustomerRepository;
+import com.assignment.customer_batch_processor.validator.BloomFilter;
+import com.assignment.customer_batch_processor.validator.CustomerField;
+import com.assignment.customer_batch_processor.validator.FingerprintTable;
+import com.assignment.customer_batch_processor.validator.ValidationError;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * DUPLICATE DETECTION
+ *
+ * Email, phone number, Aadhaar and PAN must be unique, within the file and against the customer table.
+ * - within the file: every job keeps a FingerprintTable of the 64-bit fingerprints of the unique values
+ *   of its valid rows, with the row that had the value first
+ * - in the table: a Bloom filter of the fingerprints of every saved customer, filled from the table
+ *   at startup and with every loaded row. Values it does not contain cost no query, the others are
+ *   confirmed for a whole block of rows (BlockValidatingItemReader) with one IN query per field
+ * Aadhaar and PAN are stored encrypted (deterministic AES): the filter holds the fingerprints of the
+ * plain values, the confirming query looks for the encrypted ones.
+ */
+@Service
+@Slf4j
+public class DuplicateDetectionService implements JobExecutionListener {
+
+    private static final List<CustomerField> UNIQUE_FIELDS = List.of(CustomerField.EMAIL,
+            CustomerField.PHONE_NUMBER, CustomerField.AADHAAR_NUMBER, CustomerField.PAN_NUMBER);
+
+    // Values per IN query, and customers per page while the filter is filled at startup
+    private static final int QUERY_BATCH = 500;
+    private static final int WARM_UP_PAGE = 10_000;
+
+    // Owner of a value in the job's table: (step execution id + 1) << ROW_BITS | row number
+    private static final int ROW_BITS = 40;
+    private static final long ROW_MASK = (1L << ROW_BITS) - 1;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private EncryptionService encryptionService;
+
+    @Value("${app.validation.duplicates.enabled:false}")
+    private boolean enabled;
+
+    // Saved customers the Bloom filter is sized for, at least twice the rows in the table at startup
+    @Value("${app.validation.duplicates.expected-customers:1000000}")
+    private long expectedCustomers;
+
+    @Value("${app.validation.duplicates.false-positive-rate:0.01}")
+    private double falsePositiveRate;
+
+    private BloomFilter savedValues;
+
+    // job execution id → values of the job's rows
+    private final Map<Long, FingerprintTable> jobValues = new ConcurrentHashMap<>();
+
+    /**
+     * Fills the Bloom filter with the customer table, page by page in id order
+     */
+    @PostConstruct
+    public void loadSavedValues() {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        long customers = customerRepository.count();
+        savedValues = new BloomFilter(UNIQUE_FIELDS.size() * Math.max(expectedCustomers, 2 * customers), falsePositiveRate);
+
+        long afterId = 0;
+        int unreadable = 0;
+        List<CustomerRepository.UniqueValues> page;
+        do {
+            page = customerRepository.findUniqueValuesAfter(afterId, Limit.of(WARM_UP_PAGE));
+            for (CustomerRepository.UniqueValues values : page) {
+                try {
+                    add(values.getEmail(), values.getPhoneNumber(),
+                            encryptionService.decrypt(values.getAadhaarNumber()), encryptionService.decrypt(values.getPanNumber()));
+                } catch (RuntimeException e) {
+                    add(values.getEmail(), values.getPhoneNumber(), null, null);
+                    unreadable++;
+                }
+                afterId = values.getId();
+            }
+        } while (page.size() == WARM_UP_PAGE);
+
+        log.info("Duplicate detection: {} saved customers in the Bloom filter ({}) in {} ms, {} without readable Aadhaar/PAN",
+                customers, savedValues, (System.nanoTime() - start) / 1_000_000, unreadable);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Sets existingFields of the customers whose unique values are already saved.
+     * Values are compared normalized (trimmed, email in lower case, PAN in upper case).
+     */
+    public void markExisting(List<? extends Customer> customers) {
+        if (!enabled) {
+            return;
+        }
+        for (CustomerField field : UNIQUE_FIELDS) {
+            List<Customer> candidates = new ArrayList<>();
+            List<String> storedValues = new ArrayList<>();
+            for (Customer customer : customers) {
+                String value = field.value(customer);
+                if (value != null && savedValues.mightContain(field.fingerprint(value))) {
+                    candidates.add(customer);
+                    storedValues.add(storedValue(field, value));
+                }
+            }
+            if (candidates.isEmpty()) {
+                continue;
+            }
+
+            Set<String> existing = existingValues(field, storedValues);
+            for (int i = 0; i < candidates.size(); i++) {
+                if (existing.contains(storedValues.get(i))) {
+                    Customer customer = candidates.get(i);
+                    customer.setExistingFields(customer.getExistingFields() | field.bit());
+                }
+            }
+            log.debug("Duplicate detection: {} of {} {} values may be saved, {} are", candidates.size(),
+                    customers.size(), field.fieldName(), existing.size());
+        }
+    }
+
+    /**
+     * Errors of the unique fields of a valid, normalized customer that are already saved (markExisting)
+     * or belong to an earlier row of the job, an empty list when there is none.
+     * The customer's other values are kept for the rows after it.
+     */
+    public List<ValidationError> duplicates(Customer customer) {
+        if (!enabled) {
+            return List.of();
+        }
+        StepContext context = StepSynchronizationManager.getContext();
+        StepExecution stepExecution = context == null ? null : context.getStepExecution();
+        long jobExecutionId = stepExecution == null || stepExecution.getJobExecutionId() == null ? 0 : stepExecution.getJobExecutionId();
+        long step = (stepExecution == null || stepExecution.getId() == null ? 0 : stepExecution.getId()) + 1;
+        long owner = step << ROW_BITS | (customer.getRowNumber() & ROW_MASK);
+        FingerprintTable values = jobValues.computeIfAbsent(jobExecutionId, id -> new FingerprintTable(1024));
+
+        List<ValidationError> errors = null;
+        for (CustomerField field : UNIQUE_FIELDS) {
+            String value = field.value(customer);
+            if (value == null) {
+                continue;
+            }
+            String detail;
+            if ((customer.getExistingFields() & field.bit()) != 0) {
+                detail = "already saved";
+            } else {
+                // A retried chunk processes its rows again, a row is not its own duplicate
+                long first = values.putIfAbsent(field.fingerprint(value), owner);
+                if (first == 0 || first == owner) {
+                    continue;
+                }
+                detail = "already in row " + (first & ROW_MASK) + (first >>> ROW_BITS == step ? "" : " of another partition");
+            }
+            if (errors == null) {
+                errors = new ArrayList<>(UNIQUE_FIELDS.size());
+            }
+            errors.add(field.duplicateError(customer, detail));
+        }
+        return errors == null ? List.of() : errors;
+    }
+
+    /**
+     * Adds the unique values of a customer being saved, Aadhaar and PAN before encryption.
+     * A failed write leaves them in the filter, which only costs a query later.
+     */
+    public void saving(Customer customer, String aadhaarNumber, String panNumber) {
+        if (enabled) {
+            add(customer.getEmail(), customer.getPhoneNumber(), aadhaarNumber, panNumber);
+        }
+    }
+
+    @Override
+    public void afterJob(JobExecution jobExecution) {
+        jobValues.remove(jobExecution.getId());
+    }
+
+    private void add(String email, String phoneNumber, String aadhaarNumber, String panNumber) {
+        String[] values = {email, phoneNumber, aadhaarNumber, panNumber};
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                savedValues.add(UNIQUE_FIELDS.get(i).fingerprint(values[i]));
+            }
+        }
+    }
+
+    /**
+     * Column value of a normalized field, Aadhaar and PAN encrypted
+     */
+    private String storedValue(CustomerField field, String value) {
+        String trimmed = value.trim();
+        return switch (field) {
+            case EMAIL -> trimmed.toLowerCase();
+            case AADHAAR_NUMBER -> encryptionService.encrypt(trimmed);
+            case PAN_NUMBER -> encryptionService.encrypt(trimmed.toUpperCase());
+            default -> trimmed;
+        };
+    }
+
+    private Set<String> existingValues(CustomerField field, List<String> storedValues) {
+        Set<String> existing = new HashSet<>();
+        for (int from = 0; from < storedValues.size(); from += QUERY_BATCH) {
+            List<String> batch = storedValues.subList(from, Math.min(from + QUERY_BATCH, storedValues.size()));
+            existing.addAll(switch (field) {
+                case EMAIL -> customerRepository.findExistingEmails(batch);
+                case PHONE_NUMBER -> customerRepository.findExistingPhoneNumbers(batch);
+                case AADHAAR_NUMBER -> customerRepository.findExistingAadhaarNumbers(batch);
+                case PAN_NUMBER -> customerRepository.findExistingPanNumbers(batch);
+                default -> throw new IllegalArgumentException(field + " is not unique");
+            });
+        }
+        return existing;
+    }
+}
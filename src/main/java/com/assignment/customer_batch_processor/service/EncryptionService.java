@@ -1,40 +1,51 @@
 package com.assignment.customer_batch_processor.service;
 
+import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.Cipher;
-import javax.crypto.KeyGenerator;
 import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.util.Base64;
 
 
+/**
+ * AES encryption of Aadhaar and PAN.
+ * The key is derived once; a Cipher is costly to create and not thread-safe, so every thread
+ * keeps one per mode, initialized with the key once and reused for each value.
+ * The transformation is deterministic (equal values give equal cipher texts), which
+ * DuplicateDetectionService relies on to look up saved values.
+ */
 @Service
 @Slf4j
 public class EncryptionService {
 
     private static final String ALGORITHM = "AES";
     private static final String TRANSFORMATION = "AES";
+    private static final int KEY_LENGTH = 16;
 
     @Value("${app.encryption.secret-key:MySecretKey12345}")  // 16 characters for AES-128
     private String secretKey;
 
+    private volatile SecretKey key;
+
+    private final ThreadLocal<Cipher> encryptCipher = ThreadLocal.withInitial(() -> newCipher(Cipher.ENCRYPT_MODE));
+    private final ThreadLocal<Cipher> decryptCipher = ThreadLocal.withInitial(() -> newCipher(Cipher.DECRYPT_MODE));
+
     /**
-     * Get AES secret key
+     * AES-128 key from the configured secret: padded with '0' or cut to 16 characters
      */
-    private SecretKey getSecretKey() {
-        // Ensure key is exactly 16 bytes for AES-128
-        String key = secretKey;
-        log.debug("Encryption key {} ", key);
-        if (key.length() < 16) {
-            key = key + "0".repeat(16 - key.length());
-        } else if (key.length() > 16) {
-            key = key.substring(0, 16);
-
-        }
-        return new SecretKeySpec(key.getBytes(), ALGORITHM);
+    @PostConstruct
+    void deriveKey() {
+        String padded = secretKey.length() < KEY_LENGTH
+                ? secretKey + "0".repeat(KEY_LENGTH - secretKey.length())
+                : secretKey.substring(0, KEY_LENGTH);
+        key = new SecretKeySpec(padded.getBytes(), ALGORITHM);
+        log.info("ENCRYPTION: AES-{} key derived", KEY_LENGTH * 8);
     }
 
     /**
@@ -44,23 +55,87 @@ public class EncryptionService {
      * @return Base64 encoded encrypted string
      */
     public String encrypt(String plainText) {
+        if (plainText == null || plainText.trim().isEmpty()) {
+            return plainText;
+        }
         try {
-            if (plainText == null || plainText.trim().isEmpty()) {
-                return plainText;
-            }
-
-            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
-            cipher.init(Cipher.ENCRYPT_MODE, getSecretKey());
-
-            byte[] encryptedBytes = cipher.doFinal(plainText.getBytes());
-            String encrypted = Base64.getEncoder().encodeToString(encryptedBytes);
+            byte[] encryptedBytes = encryptCipher.get().doFinal(plainText.getBytes());
+            return Base64.getEncoder().encodeToString(encryptedBytes);
 
-            log.debug("ENCRYPTION: Successfully encrypted data of length: {}", plainText.length());
-            return encrypted;
+        } catch (GeneralSecurityException | RuntimeException e) {
+            encryptCipher.remove();
+            log.error("ENCRYPTION: Error encrypting data: {}", e.getMessage());
+            throw new RuntimeException("Encryption failed", e);
+        }
+    }
 
-        } catch (Exception e) {
+    /**
+     * Encrypts the values of a chunk (e.g. its Aadhaar numbers) with one cipher and reused byte buffers
+     *
+     * @param plainTexts     values to encrypt, null or blank ones are copied as they are
+     * @param encryptedTexts receives encrypt(plainTexts[i]) at i, at least as long as plainTexts
+     */
+    public void encryptAll(String[] plainTexts, String[] encryptedTexts) {
+        Cipher cipher = encryptCipher.get();
+        Base64.Encoder encoder = Base64.getEncoder();
+        byte[] encrypted = new byte[0];
+        byte[] encoded = new byte[0];
+        try {
+            for (int i = 0; i < plainTexts.length; i++) {
+                String plainText = plainTexts[i];
+                if (plainText == null || plainText.trim().isEmpty()) {
+                    encryptedTexts[i] = plainText;
+                    continue;
+                }
+                byte[] input = plainText.getBytes();
+                // Aadhaar and PAN are one AES block, the buffers are only sized again for longer values
+                int size = cipher.getOutputSize(input.length);
+                if (encrypted.length != size) {
+                    encrypted = new byte[size];
+                    encoded = new byte[4 * ((size + 2) / 3)];
+                }
+                cipher.doFinal(input, 0, input.length, encrypted, 0);
+                int length = encoder.encode(encrypted, encoded);
+                encryptedTexts[i] = new String(encoded, 0, length, StandardCharsets.ISO_8859_1);
+            }
+        } catch (GeneralSecurityException | RuntimeException e) {
+            encryptCipher.remove();
             log.error("ENCRYPTION: Error encrypting data: {}", e.getMessage());
             throw new RuntimeException("Encryption failed", e);
         }
+        log.debug("ENCRYPTION: Successfully encrypted {} values", plainTexts.length);
+    }
+
+    /**
+     * Decrypts a value returned by encrypt
+     *
+     * @param encryptedText Base64 encoded encrypted string
+     * @return The plain text
+     */
+    public String decrypt(String encryptedText) {
+        if (encryptedText == null || encryptedText.trim().isEmpty()) {
+            return encryptedText;
+        }
+        try {
+            return new String(decryptCipher.get().doFinal(Base64.getDecoder().decode(encryptedText)));
+
+        } catch (GeneralSecurityException | RuntimeException e) {
+            decryptCipher.remove();
+            log.error("ENCRYPTION: Error decrypting data: {}", e.getMessage());
+            throw new RuntimeException("Decryption failed", e);
+        }
+    }
+
+    private Cipher newCipher(int mode) {
+        if (key == null) {
+            deriveKey();
+        }
+        try {
+            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(mode, key);
+            return cipher;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Unable to create the " + TRANSFORMATION + " cipher", e);
+        }
     }
-}
\ No newline at end of file
+}
@@ -1,19 +1,48 @@
 package com.assignment.customer_batch_processor.service;
 
+import com.assignment.customer_batch_processor.Utilities.BinaryCustomerFileWriter;
+import com.assignment.customer_batch_processor.Utilities.CustomerItemReader;
+import com.assignment.customer_batch_processor.Utilities.CustomerRowChannel;
+import com.assignment.customer_batch_processor.Utilities.CustomerRowChannelRegistry;
+import com.assignment.customer_batch_processor.Utilities.StreamingXlsxSheetReader;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.poi.ss.usermodel.*;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.springframework.batch.core.BatchStatus;
 import org.springframework.batch.core.JobExecution;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
@@ -22,9 +51,57 @@ public class FileConversionService {
     
     @Autowired
     private BatchJobService batchJobService;
+
+    @Autowired
+    private CustomerRowChannelRegistry customerRowChannelRegistry;
+
+    @Autowired
+    @Qualifier("conversionTaskExecutor")
+    private TaskExecutor conversionTaskExecutor;
+
+    @Autowired
+    @Qualifier("sheetConversionTaskExecutor")
+    private AsyncTaskExecutor sheetConversionTaskExecutor;
+
+    @Autowired
+    private ConvertedFileCache convertedFileCache;
     
-    private final String uploadDir = "src/main/resources/uploads/";
-    private final String csvDir = "src/main/resources/converted/";
+    // Staging directories on disk, kept outside of src/main/resources
+    @Value("${app.storage.upload-dir:data/uploads}")
+    private String uploadDir;
+
+    @Value("${app.storage.converted-dir:data/converted}")
+    private String csvDir;
+
+    // Largest upload accepted on the streaming endpoint
+    @Value("${app.upload.max-file-size:1GB}")
+    private DataSize maxUploadSize;
+
+    private static final int TRANSFER_BUFFER_SIZE = 1024 * 1024;
+
+    // true → SAX event API (flat heap), false → XSSFWorkbook DOM load
+    @Value("${app.conversion.streaming:true}")
+    private boolean streamingConversion;
+
+    // Intermediate file format: csv, or binary (compact length-prefixed rows, streaming conversion only)
+    @Value("${app.conversion.format:csv}")
+    private String intermediateFormat;
+
+    // csv → convert and read the CSV, xlsx → the job reads the uploaded sheet directly
+    @Value("${app.batch.reader:csv}")
+    private String batchReader;
+
+    // Run the job while the conversion is still producing rows
+    @Value("${app.pipeline.enabled:false}")
+    private boolean pipelineEnabled;
+
+    // Workbooks with several sheets: convert every sheet in parallel and run the partitioned job
+    @Value("${app.conversion.multi-sheet:true}")
+    private boolean multiSheetConversion;
+
+    // Re-uploads of identical content return the previous COMPLETED job instead of loading again
+    @Value("${app.cache.reuse-job-result:false}")
+    private boolean reuseJobResult;
     
     /**
      * Converts XLSX file to CSV and triggers batch processing
@@ -38,13 +115,157 @@ public class FileConversionService {
         createDirectories();
         
         // Save the uploaded XLSX file
-        String xlsxFilePath = saveUploadedFile(file);
+        String xlsxFilePath = saveUploadedFile(file).filePath();
         
         // Convert XLSX to CSV
 
         return performXlsxToCsvConversion(xlsxFilePath);
     }
     
+    /**
+     * Saves the upload and runs the customer job on it.
+     * @param uploader who uploaded the file, uploaders take turns in the job queue (null if unknown)
+     */
+    public JobExecution processUpload(MultipartFile file, String uploader) throws Exception {
+
+        createDirectories();
+        return processSavedUpload(saveUploadedFile(file), uploader);
+    }
+
+    /**
+     * Streams a raw request body to disk and runs the customer job on it.
+     * The body goes through a reused direct buffer, it is never held on the heap.
+     */
+    public JobExecution processUpload(InputStream body, String originalFileName, String uploader) throws Exception {
+
+        createDirectories();
+        return processSavedUpload(saveUploadedStream(body, originalFileName), uploader);
+    }
+
+    /**
+     * Runs the customer job on an XLSX file already saved to the upload directory.
+     * - same content completed before and reuse is on: the previous execution is returned
+     * - direct XLSX reader: the job reads the saved sheet, no CSV is written
+     * - several sheets: every sheet is converted in parallel, the partitioned job loads them
+     * - converted CSV in the cache: the job reads the cached conversion
+     * - pipelined: the job starts reading rows while the conversion is still running
+     * - default: convert to CSV first, then run the job
+     */
+    public JobExecution processSavedUpload(StagedUpload upload, String uploader) throws Exception {
+
+        createDirectories();
+        String xlsxFilePath = upload.filePath();
+        String sha256 = upload.sha256();
+
+        if (reuseJobResult) {
+            JobExecution previous = findCompletedExecution(sha256);
+            if (previous != null) {
+                log.info("Content {} already processed by job execution {}, skipping {}",
+                        sha256, previous.getId(), xlsxFilePath);
+                return previous;
+            }
+        }
+
+        Map<String, String> parameters = new HashMap<>();
+        if (sha256 != null) {
+            parameters.put("contentHash", sha256);
+        }
+        if (uploader != null) {
+            parameters.put("uploader", uploader);
+        }
+        JobExecution jobExecution;
+
+        if ("xlsx".equalsIgnoreCase(batchReader)) {
+            log.info("Skipping CSV conversion, job reads XLSX directly: {}", xlsxFilePath);
+            jobExecution = batchJobService.processCustomerFile(xlsxFilePath, parameters);
+        } else if (multiSheetConversion && StreamingXlsxSheetReader.countSheets(xlsxFilePath) > 1) {
+            String sheetDir = performParallelSheetConversion(xlsxFilePath);
+            jobExecution = batchJobService.processCustomerFiles(sheetDir, parameters);
+        } else if (convertedFileCache.copyTo(cacheKey(sha256), Paths.get(csvFilePathFor(xlsxFilePath)))) {
+            log.info("Converted file cache hit for {} ({})", xlsxFilePath, sha256);
+            jobExecution = batchJobService.processCustomerFile(csvFilePathFor(xlsxFilePath), parameters);
+        } else if (pipelineEnabled) {
+            jobExecution = processPipelined(xlsxFilePath, sha256, parameters);
+        } else {
+            String csvFilePath = performXlsxToCsvConversion(xlsxFilePath);
+            convertedFileCache.store(cacheKey(sha256), Paths.get(csvFilePath));
+            jobExecution = batchJobService.processCustomerFile(csvFilePath, parameters);
+        }
+
+        // The jobs record their COMPLETED execution for the content hash themselves, they may still be running here
+        return jobExecution;
+    }
+
+    /**
+     * Runs the customer job on a file already in the upload directory, hashing it first
+     */
+    public JobExecution processSavedUpload(String xlsxFilePath) throws Exception {
+        return processSavedUpload(new StagedUpload(xlsxFilePath, sha256(Paths.get(xlsxFilePath)),
+                Files.size(Paths.get(xlsxFilePath))), null);
+    }
+
+    /**
+     * Last COMPLETED execution for this content, null when there is none or it is gone from the job repository
+     */
+    private JobExecution findCompletedExecution(String sha256) {
+        return convertedFileCache.findCompletedExecution(sha256)
+                .map(batchJobService::getJobExecution)
+                .filter(execution -> execution.getStatus() == BatchStatus.COMPLETED)
+                .orElse(null);
+    }
+
+    /**
+     * Starts the conversion on the conversion pool and runs the job against the row channel.
+     * The validation step drains the channel, the load step reads the finished CSV.
+     */
+    private JobExecution processPipelined(String xlsxFilePath, String sha256,
+                                          Map<String, String> parameters) throws Exception {
+
+        String csvFilePath = csvFilePathFor(xlsxFilePath);
+        Files.deleteIfExists(Paths.get(csvFilePath));
+        Files.createFile(Paths.get(csvFilePath));
+
+        CustomerRowChannel channel = customerRowChannelRegistry.open();
+        try {
+            conversionTaskExecutor.execute(() -> runPipelinedConversion(xlsxFilePath, csvFilePath, sha256, channel));
+        } catch (TaskRejectedException e) {
+            customerRowChannelRegistry.close(channel.getId());
+            log.warn("Conversion pool busy, converting {} before processing", xlsxFilePath);
+            String converted = performXlsxToCsvConversion(xlsxFilePath);
+            convertedFileCache.store(cacheKey(sha256), Paths.get(converted));
+            return batchJobService.processCustomerFile(converted, parameters);
+        }
+
+        log.info("Started pipelined conversion of {} on channel {}", xlsxFilePath, channel.getId());
+        Map<String, String> pipelineParameters = new HashMap<>(parameters);
+        pipelineParameters.put("channelId", channel.getId());
+        try {
+            // csvReadingJob closes the channel when it ends
+            return batchJobService.processCustomerFile(csvFilePath, pipelineParameters);
+        } catch (Exception e) {
+            customerRowChannelRegistry.close(channel.getId());
+            throw e;
+        }
+    }
+
+    private void runPipelinedConversion(String xlsxFilePath, String csvFilePath, String sha256,
+                                        CustomerRowChannel channel) {
+        try {
+            performStreamingXlsxToCsvConversion(xlsxFilePath, csvFilePath, channel);
+            channel.complete();
+        } catch (Throwable e) {
+            // Errors too (e.g. OutOfMemoryError on a huge shared strings table), the reader must not wait forever
+            log.error("Pipelined conversion of {} failed: {}", xlsxFilePath, e.getMessage());
+            channel.fail(e);
+            if (e instanceof Error error) {
+                throw error;
+            }
+            return;
+        }
+        // After complete(): the job has all its rows, caching can no longer fail it
+        convertedFileCache.store(cacheKey(sha256), Paths.get(csvFilePath));
+    }
+    
     /**
      * Creates necessary directories for file storage
      */
@@ -66,17 +287,73 @@ public class FileConversionService {
     /**
      * Saves the uploaded XLSX file to the uploads directory
      */
-    private String saveUploadedFile(MultipartFile file) throws IOException {
+    private StagedUpload saveUploadedFile(MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return saveUploadedStream(in, file.getOriginalFilename());
+        }
+    }
+
+    /**
+     * Copies an upload stream to the uploads directory through one reused direct buffer,
+     * hashing every buffer before it is written, so the file is never held in memory
+     * and never read back to compute its SHA-256
+     */
+    private StagedUpload saveUploadedStream(InputStream in, String originalFileName) throws IOException {
         String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
-        String fileName = timestamp + "_" + file.getOriginalFilename();
-        String filePath = uploadDir + fileName;
-        
-        try (FileOutputStream fos = new FileOutputStream(filePath)) {
-            fos.write(file.getBytes());
+        String fileName = timestamp + "_" + Paths.get(originalFileName).getFileName();
+        Path filePath = Paths.get(uploadDir).resolve(fileName);
+        long maxBytes = maxUploadSize.toBytes();
+
+        MessageDigest digest = newSha256Digest();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(TRANSFER_BUFFER_SIZE);
+        long written = 0;
+        try (ReadableByteChannel source = Channels.newChannel(in);
+             FileChannel target = FileChannel.open(filePath, StandardOpenOption.CREATE,
+                     StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            while (source.read(buffer) >= 0) {
+                buffer.flip();
+                written += buffer.remaining();
+                if (written > maxBytes) {
+                    throw new IOException("Upload exceeds the maximum size of " + maxUploadSize);
+                }
+                digest.update(buffer.duplicate());
+                while (buffer.hasRemaining()) {
+                    target.write(buffer);
+                }
+                buffer.clear();
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(filePath);
+            throw e;
+        }
+
+        String sha256 = HexFormat.of().formatHex(digest.digest());
+        log.info("XLSX file saved: {} ({} KB, sha256 {})", filePath, written / 1024, sha256);
+        return new StagedUpload(filePath.toString(), sha256, written);
+    }
+
+    /**
+     * SHA-256 of a file already on disk
+     */
+    static String sha256(Path file) throws IOException {
+        MessageDigest digest = newSha256Digest();
+        ByteBuffer buffer = ByteBuffer.allocateDirect(TRANSFER_BUFFER_SIZE);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            while (channel.read(buffer) >= 0) {
+                buffer.flip();
+                digest.update(buffer);
+                buffer.clear();
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest newSha256Digest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
         }
-        
-        log.info("XLSX file saved: {}", filePath);
-        return filePath;
     }
     
     /**
@@ -85,10 +362,17 @@ public class FileConversionService {
     private String performXlsxToCsvConversion(String xlsxFilePath) throws Exception {
         
         File xlsxFile = new File(xlsxFilePath);
-        String csvFileName = xlsxFile.getName().replace(".xlsx", ".csv");
-        String csvFilePath = csvDir + csvFileName;
+        String csvFilePath = csvFilePathFor(xlsxFilePath);
         
         log.info("Starting conversion from {} to {}", xlsxFilePath, csvFilePath);
+
+        // Never write through an existing file, it may be a hard link into the converted file cache
+        Files.deleteIfExists(Paths.get(csvFilePath));
+
+        if (streamingConversion) {
+            performStreamingXlsxToCsvConversion(xlsxFilePath, csvFilePath, null);
+            return csvFilePath;
+        }
         
         try (FileInputStream fis = new FileInputStream(xlsxFile);
              XSSFWorkbook workbook = new XSSFWorkbook(fis);
@@ -111,14 +395,7 @@ public class FileConversionService {
                         csvRow.append(",");
                     }
                     
-                    String cellValue = getCellValueAsString(cell);
-                    
-                    // Escape commas and quotes in cell values
-                    if (cellValue.contains(",") || cellValue.contains("\"") || cellValue.contains("\n")) {
-                        cellValue = "\"" + cellValue.replace("\"", "\"\"") + "\"";
-                    }
-                    
-                    csvRow.append(cellValue);
+                    appendCsvValue(csvRow, getCellValueAsString(cell));
                     cellCount++;
                 }
                 
@@ -139,6 +416,200 @@ public class FileConversionService {
         
         return csvFilePath;
     }
+
+    /**
+     * Converted file name for an uploaded XLSX file (.csv, or .bin for the binary format)
+     */
+    private String csvFilePathFor(String xlsxFilePath) {
+        return Paths.get(csvDir).resolve(new File(xlsxFilePath).getName().replace(".xlsx", intermediateExtension())).toString();
+    }
+
+    private String intermediateExtension() {
+        return streamingConversion && "binary".equalsIgnoreCase(intermediateFormat)
+                ? BinaryCustomerFileWriter.EXTENSION : ".csv";
+    }
+
+    /**
+     * Cache entries are per format, a CSV is never handed out where a binary file is expected
+     */
+    private String cacheKey(String sha256) {
+        return sha256 == null ? null : sha256 + intermediateExtension();
+    }
+
+    /**
+     * Converts every sheet of the workbook to its own CSV file, one task per sheet on the
+     * sheet conversion pool. The workbook is opened once and the sheet streams are opened here,
+     * on this thread (XSSFReader is not thread-safe); shared strings and styles are read-only and
+     * shared by all tasks, each task parses its own stream. When a sheet fails the others stop
+     * at their next row, and every task has ended before the workbook is closed.
+     * @return directory holding sheet-001.csv, sheet-002.csv, ...
+     */
+    private String performParallelSheetConversion(String xlsxFilePath) throws Exception {
+
+        String baseName = new File(xlsxFilePath).getName().replace(".xlsx", "");
+        Path sheetDir = Paths.get(csvDir).resolve(baseName);
+        if (Files.exists(sheetDir)) {
+            try (Stream<Path> stale = Files.list(sheetDir)) {
+                for (Path file : stale.toList()) {
+                    Files.delete(file);
+                }
+            }
+        }
+        Files.createDirectories(sheetDir);
+
+        try (StreamingXlsxSheetReader sheetReader = new StreamingXlsxSheetReader(xlsxFilePath)) {
+            int sheetCount = sheetReader.getSheetCount();
+            log.info("Converting {} sheets of {} in parallel to {}", sheetCount, xlsxFilePath, sheetDir);
+
+            List<InputStream> sheets = sheetReader.openSheets();
+            AtomicBoolean failed = new AtomicBoolean();
+            List<Future<Integer>> conversions = new ArrayList<>(sheets.size());
+            try {
+                for (int i = 0; i < sheets.size(); i++) {
+                    int sheetIndex = i;
+                    InputStream sheet = sheets.get(i);
+                    String csvFilePath = sheetDir.resolve(String.format("sheet-%03d", i + 1) + intermediateExtension()).toString();
+                    conversions.add(sheetConversionTaskExecutor.submit(() -> {
+                        try (sheet) {
+                            return failed.get() ? 0 : writeSheet(sheetReader, sheet, sheetIndex, csvFilePath, null, failed);
+                        } catch (Exception e) {
+                            failed.set(true);
+                            throw e;
+                        }
+                    }));
+                }
+            } catch (RuntimeException e) {
+                failed.set(true);
+                awaitAll(conversions);
+                StreamingXlsxSheetReader.closeQuietly(sheets.subList(conversions.size(), sheets.size()));
+                throw e;
+            }
+
+            Throwable failure = awaitAll(conversions);
+            if (failure != null) {
+                log.error("Error converting XLSX sheets to CSV: {}", failure.getMessage());
+                throw new Exception("Failed to convert XLSX to CSV", failure);
+            }
+            int totalRows = 0;
+            for (Future<Integer> conversion : conversions) {
+                totalRows += conversion.resultNow();
+            }
+            log.info("Successfully converted {} sheets. Total rows: {}", sheetCount, totalRows);
+        }
+        return sheetDir.toString();
+    }
+
+    /**
+     * Waits for every task, also after one has failed
+     * @return the first failure, null when every task succeeded
+     */
+    private static Throwable awaitAll(List<Future<Integer>> tasks) {
+        Throwable failure = null;
+        boolean interrupted = false;
+        for (Future<Integer> task : tasks) {
+            while (true) {
+                try {
+                    task.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    // The first real failure, not a sheet that stopped because of it
+                    if (failure == null || failure instanceof CancellationException) {
+                        failure = e.getCause();
+                    }
+                    break;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return failure;
+    }
+
+    /**
+     * Converts the first sheet with the POI event API.
+     * When a channel is given every data row is also published to it (header excluded).
+     */
+    private void performStreamingXlsxToCsvConversion(String xlsxFilePath, String csvFilePath,
+                                                     CustomerRowChannel channel) throws Exception {
+
+        try (StreamingXlsxSheetReader sheetReader = new StreamingXlsxSheetReader(xlsxFilePath)) {
+            try (InputStream sheet = sheetReader.openSheet(0)) {
+                writeSheet(sheetReader, sheet, 0, csvFilePath, channel, null);
+            }
+        } catch (Exception e) {
+            log.error("Error converting XLSX to CSV: {}", e.getMessage());
+            throw new Exception("Failed to convert XLSX to CSV", e);
+        }
+    }
+
+    /**
+     * Streams one sheet to a CSV file, or to a binary spill file when the path ends in .bin
+     * (the binary file has no header row).
+     * Rows are written as they are parsed, nothing but the current row is kept in memory.
+     * The conversion stops with a CancellationException at the first row after cancelled is set.
+     * @return number of rows read, header included
+     */
+    private int writeSheet(StreamingXlsxSheetReader sheetReader, InputStream sheet, int sheetIndex, String csvFilePath,
+                           CustomerRowChannel channel, AtomicBoolean cancelled) throws Exception {
+
+        boolean binary = csvFilePath.endsWith(BinaryCustomerFileWriter.EXTENSION);
+        try (BinaryCustomerFileWriter binaryWriter = binary ? new BinaryCustomerFileWriter(csvFilePath) : null;
+             PrintWriter csvWriter = binary ? null : new PrintWriter(new BufferedWriter(new FileWriter(csvFilePath)))) {
+
+            StringBuilder csvRow = new StringBuilder();
+            boolean[] headerSeen = {false};
+
+            int totalRows = sheetReader.readSheet(sheet, (rowNum, cells) -> {
+                if (cancelled != null && cancelled.get()) {
+                    throw new CancellationException("Conversion of sheet " + (sheetIndex + 1) + " cancelled, another sheet failed");
+                }
+                boolean header = !headerSeen[0];
+                headerSeen[0] = true;
+
+                if (channel != null && !header) {
+                    channel.publish(CustomerItemReader.toCustomer(cells));
+                }
+
+                if (binary) {
+                    if (!header) {
+                        binaryWriter.writeRow(cells);
+                    }
+                    return;
+                }
+
+                csvRow.setLength(0);
+                for (int i = 0; i < cells.size(); i++) {
+                    if (i > 0) {
+                        csvRow.append(",");
+                    }
+                    appendCsvValue(csvRow, cells.get(i));
+                }
+                csvWriter.println(csvRow);
+
+                // Log progress for large files
+                if (rowNum % 10000 == 0 && rowNum > 0) {
+                    log.info("Converted {} rows of sheet {} to CSV", rowNum, sheetIndex + 1);
+                }
+            });
+
+            log.info("Successfully converted sheet {} to {} (streaming). Total rows: {}",
+                    sheetIndex + 1, binary ? "binary" : "CSV", totalRows);
+            return totalRows;
+        }
+    }
+
+    /**
+     * Appends a cell value, escaping commas, quotes and new lines
+     */
+    private static void appendCsvValue(StringBuilder csvRow, String cellValue) {
+        if (cellValue.contains(",") || cellValue.contains("\"") || cellValue.contains("\n")) {
+            cellValue = "\"" + cellValue.replace("\"", "\"\"") + "\"";
+        }
+        csvRow.append(cellValue);
+    }
     
     /**
      * Gets cell value as string regardless of cell type
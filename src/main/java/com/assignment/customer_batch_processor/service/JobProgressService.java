@@ -0,0 +1,303 @@
+package com.assignment.customer_batch_processor.service;
+
+import com.assignment.customer_batch_processor.Customer_Dto.JobProgress;
+import com.assignment.customer_batch_processor.Utilities.MappedCsvCustomerItemReader;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ChunkListener;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.launch.NoSuchJobExecutionException;
+import org.springframework.batch.core.partition.support.PartitionStep;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * JOB PROGRESS STREAM
+ *
+ * Server-Sent Events for GET /batch/jobs/{id}/progress. Registered on every job and chunk step:
+ * a committed chunk only marks its job as changed, a broadcast every app.progress.interval
+ * builds one snapshot per changed job, serializes it once and sends it to all its subscribers.
+ * However many subscribers and chunks, a job costs at most one snapshot per interval.
+ * Events: "progress" while the job runs, one "complete" when it has ended, then the stream closes.
+ */
+@Service
+@Slf4j
+public class JobProgressService implements JobExecutionListener, ChunkListener {
+
+    @Autowired
+    private JobExplorer jobExplorer;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    @Qualifier("progressTaskScheduler")
+    private TaskScheduler progressTaskScheduler;
+
+    // Shortest time between two events of a job
+    @Value("${app.progress.interval:500ms}")
+    private Duration interval;
+
+    // Streams are closed after this time even if the job is still running
+    @Value("${app.progress.timeout:30m}")
+    private Duration timeout;
+
+    // Executions updated by the job threads, read by the broadcast
+    private final Map<Long, JobExecution> runningJobs = new ConcurrentHashMap<>();
+    private final Set<Long> changedJobs = ConcurrentHashMap.newKeySet();
+    private final Map<Long, List<SseEmitter>> subscribers = new ConcurrentHashMap<>();
+
+    @PostConstruct
+    void startBroadcasts() {
+        progressTaskScheduler.scheduleAtFixedRate(this::broadcast, interval);
+    }
+
+    @Override
+    public void beforeJob(JobExecution jobExecution) {
+        runningJobs.put(jobExecution.getId(), jobExecution);
+        changedJobs.add(jobExecution.getId());
+    }
+
+    @Override
+    public void afterJob(JobExecution jobExecution) {
+        if (subscribers.containsKey(jobExecution.getId())) {
+            changedJobs.add(jobExecution.getId());
+        } else {
+            runningJobs.remove(jobExecution.getId());
+        }
+    }
+
+    @Override
+    public void afterChunk(ChunkContext context) {
+        changedJobs.add(context.getStepContext().getStepExecution().getJobExecutionId());
+    }
+
+    /**
+     * Opens a progress stream, a job that has already ended gets its final event only
+     */
+    public SseEmitter subscribe(long jobExecutionId) throws NoSuchJobExecutionException {
+        JobExecution jobExecution = runningJobs.get(jobExecutionId);
+        if (jobExecution == null) {
+            jobExecution = jobExplorer.getJobExecution(jobExecutionId);
+        }
+        if (jobExecution == null) {
+            throw new NoSuchJobExecutionException("No job execution with id " + jobExecutionId);
+        }
+
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        if (!jobExecution.getStatus().isRunning()) {
+            send(jobExecutionId, List.of(emitter), "complete", snapshot(jobExecution));
+            emitter.complete();
+            return emitter;
+        }
+
+        subscribers.compute(jobExecutionId, (id, emitters) -> {
+            List<SseEmitter> list = emitters == null ? new CopyOnWriteArrayList<>() : emitters;
+            list.add(emitter);
+            return list;
+        });
+        emitter.onCompletion(() -> unsubscribe(jobExecutionId, emitter));
+        emitter.onTimeout(() -> unsubscribe(jobExecutionId, emitter));
+        emitter.onError(e -> unsubscribe(jobExecutionId, emitter));
+        send(jobExecutionId, List.of(emitter), "progress", snapshot(jobExecution));
+        return emitter;
+    }
+
+    private void unsubscribe(long jobExecutionId, SseEmitter emitter) {
+        subscribers.computeIfPresent(jobExecutionId, (id, emitters) -> {
+            emitters.remove(emitter);
+            return emitters.isEmpty() ? null : emitters;
+        });
+    }
+
+    /**
+     * Sends the changed and ended jobs to their subscribers
+     */
+    void broadcast() {
+        try {
+            for (Map.Entry<Long, List<SseEmitter>> entry : subscribers.entrySet()) {
+                long jobExecutionId = entry.getKey();
+                JobExecution jobExecution = runningJobs.get(jobExecutionId);
+                if (jobExecution == null) {
+                    // Still waiting for a slot, or ended before the stream was registered
+                    jobExecution = jobExplorer.getJobExecution(jobExecutionId);
+                    if (jobExecution == null || jobExecution.getStatus().isRunning()) {
+                        continue;
+                    }
+                }
+
+                if (!jobExecution.getStatus().isRunning()) {
+                    List<SseEmitter> emitters = subscribers.remove(jobExecutionId);
+                    runningJobs.remove(jobExecutionId);
+                    changedJobs.remove(jobExecutionId);
+                    if (emitters != null) {
+                        send(jobExecutionId, emitters, "complete", snapshot(jobExecution));
+                        emitters.forEach(SseEmitter::complete);
+                    }
+                } else if (changedJobs.remove(jobExecutionId)) {
+                    send(jobExecutionId, entry.getValue(), "progress", snapshot(jobExecution));
+                }
+            }
+            // Nobody listens to the rest, a new subscriber gets a snapshot right away. Ended jobs
+            // whose subscribers all left before their final event are dropped here.
+            runningJobs.values().removeIf(jobExecution -> !jobExecution.getStatus().isRunning()
+                    && !subscribers.containsKey(jobExecution.getId()));
+            changedJobs.removeIf(jobExecutionId -> !subscribers.containsKey(jobExecutionId));
+        } catch (RuntimeException e) {
+            log.warn("Job progress broadcast failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Serializes the event once for all its subscribers, a subscriber that cannot be written to is dropped
+     */
+    private void send(long jobExecutionId, List<SseEmitter> emitters, String eventName, JobProgress progress) {
+        String json;
+        try {
+            json = objectMapper.writeValueAsString(progress);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unable to serialize job progress", e);
+        }
+        for (SseEmitter emitter : emitters) {
+            try {
+                emitter.send(SseEmitter.event().name(eventName).data(json, MediaType.APPLICATION_JSON));
+            } catch (IOException | IllegalStateException e) {
+                log.debug("Dropping progress subscriber of job {}: {}", jobExecutionId, e.getMessage());
+                unsubscribe(jobExecutionId, emitter);
+            }
+        }
+    }
+
+    /**
+     * Progress of a job from its step executions. The rate and the ETA are those of the current step:
+     * the row total is known once an earlier step (validation) has read the whole input, before that
+     * it is estimated from the CSV byte offset the mapped reader saves after every chunk.
+     */
+    public static JobProgress snapshot(JobExecution jobExecution) {
+        LocalDateTime now = LocalDateTime.now();
+        long readCount = 0;
+        long writeCount = 0;
+        long skipCount = 0;
+
+        // Partition workers (step:partitionN) belong to their step, managers only repeat their counts
+        Map<String, List<StepExecution>> steps = new LinkedHashMap<>();
+        for (StepExecution stepExecution : jobExecution.getStepExecutions()) {
+            if (PartitionStep.class.getName().equals(stepExecution.getExecutionContext().get(Step.STEP_TYPE_KEY))) {
+                continue;
+            }
+            readCount += stepExecution.getReadCount();
+            writeCount += stepExecution.getWriteCount();
+            skipCount += stepExecution.getSkipCount();
+            String stepName = stepExecution.getStepName();
+            int separator = stepName.indexOf(':');
+            steps.computeIfAbsent(separator < 0 ? stepName : stepName.substring(0, separator), name -> new ArrayList<>())
+                    .add(stepExecution);
+        }
+
+        String currentStep = null;
+        LocalDateTime currentStart = null;
+        long totalRows = 0;
+        for (Map.Entry<String, List<StepExecution>> step : steps.entrySet()) {
+            LocalDateTime start = startTime(step.getValue());
+            if (step.getValue().stream().anyMatch(execution -> execution.getStatus().isRunning())) {
+                if (start != null && (currentStart == null || start.isAfter(currentStart))) {
+                    currentStep = step.getKey();
+                    currentStart = start;
+                }
+            } else if (step.getValue().stream().allMatch(execution -> execution.getStatus() == BatchStatus.COMPLETED)) {
+                totalRows = Math.max(totalRows, step.getValue().stream().mapToLong(StepExecution::getReadCount).sum());
+            }
+        }
+
+        long rowsPerSecond = 0;
+        Long etaSeconds = null;
+        if (currentStep != null) {
+            List<StepExecution> current = steps.get(currentStep);
+            long stepRows = current.stream().mapToLong(StepExecution::getReadCount).sum();
+            long stepMillis = Duration.between(currentStart, now).toMillis();
+            rowsPerSecond = stepMillis <= 0 ? 0 : stepRows * 1000 / stepMillis;
+
+            double done = totalRows > 0 ? (double) stepRows / totalRows : consumedFraction(current, jobExecution);
+            if (done > 0 && done <= 1) {
+                etaSeconds = Math.round(stepMillis * (1 - done) / done / 1000);
+            }
+        }
+
+        LocalDateTime jobStart = jobExecution.getStartTime();
+        LocalDateTime jobEnd = jobExecution.getEndTime() == null ? now : jobExecution.getEndTime();
+        return JobProgress.builder()
+                .jobExecutionId(jobExecution.getId())
+                .status(jobExecution.getStatus().toString())
+                .step(currentStep)
+                .readCount(readCount)
+                .writeCount(writeCount)
+                .skipCount(skipCount)
+                .rowsPerSecond(rowsPerSecond)
+                .etaSeconds(etaSeconds)
+                .elapsedMs(jobStart == null ? 0 : Duration.between(jobStart, jobEnd).toMillis())
+                .build();
+    }
+
+    private static LocalDateTime startTime(List<StepExecution> stepExecutions) {
+        LocalDateTime start = null;
+        for (StepExecution stepExecution : stepExecutions) {
+            if (stepExecution.getStartTime() != null
+                    && (start == null || stepExecution.getStartTime().isBefore(start))) {
+                start = stepExecution.getStartTime();
+            }
+        }
+        return start;
+    }
+
+    /**
+     * Share of the input bytes read by the step (all its partitions), 0 when the reader saves no offset
+     */
+    private static double consumedFraction(List<StepExecution> stepExecutions, JobExecution jobExecution) {
+        long consumed = 0;
+        long total = 0;
+        boolean offsetSeen = false;
+        for (StepExecution stepExecution : stepExecutions) {
+            ExecutionContext context = stepExecution.getExecutionContext();
+            String filePath = context.containsKey("filePath")
+                    ? context.getString("filePath") : jobExecution.getJobParameters().getString("filePath");
+            long fileSize = filePath == null ? 0 : new File(filePath).length();
+            long start = context.getLong("startOffset", 0L);
+            long end = Math.min(context.getLong("endOffset", Long.MAX_VALUE), fileSize);
+            total += Math.max(end - start, 0);
+
+            if (context.containsKey(MappedCsvCustomerItemReader.OFFSET_CONTEXT_KEY)) {
+                offsetSeen = true;
+                consumed += Math.max(Math.min(context.getLong(MappedCsvCustomerItemReader.OFFSET_CONTEXT_KEY), end) - start, 0);
+            } else if (stepExecution.getStatus() == BatchStatus.COMPLETED) {
+                consumed += Math.max(end - start, 0);
+            }
+        }
+        return offsetSeen && total > 0 ? (double) consumed / total : 0;
+    }
+}
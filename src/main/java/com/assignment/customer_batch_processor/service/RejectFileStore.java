@@ -0,0 +1,118 @@
+package com.assignment.customer_batch_processor.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * REJECT FILES
+ *
+ * Quarantine jobs append the rows they skip to one CSV per job, named after the jobid
+ * returned by the upload endpoints. Partitions and step threads of the same job share
+ * one buffered writer, flushed after every chunk and closed when the job ends.
+ */
+@Service
+@Slf4j
+public class RejectFileStore {
+
+    public static final String HEADER = "row,source,stage,reason,name,email,phoneNumber,aadhaarNumber,panNumber,state,city";
+
+    @Value("${app.quarantine.dir:data/rejects}")
+    private String rejectDir;
+
+    private final Map<String, BufferedWriter> writers = new ConcurrentHashMap<>();
+
+    /**
+     * Reject file of a job, the id must be a jobid (UUID) so it can never point outside the directory
+     */
+    public Path pathFor(String jobId) {
+        return Paths.get(rejectDir).resolve(UUID.fromString(jobId) + ".csv");
+    }
+
+    public void append(String jobId, List<String> cells) {
+        BufferedWriter writer = writers.computeIfAbsent(jobId, this::openWriter);
+        synchronized (writer) {
+            try {
+                writer.write(toCsvLine(cells));
+                writer.newLine();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to write reject file for job " + jobId, e);
+            }
+        }
+    }
+
+    public void flush(String jobId) {
+        BufferedWriter writer = writers.get(jobId);
+        if (writer == null) {
+            return;
+        }
+        synchronized (writer) {
+            try {
+                writer.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException("Unable to flush reject file for job " + jobId, e);
+            }
+        }
+    }
+
+    public void close(String jobId) {
+        BufferedWriter writer = writers.remove(jobId);
+        if (writer == null) {
+            return;
+        }
+        synchronized (writer) {
+            try {
+                writer.close();
+            } catch (IOException e) {
+                log.warn("Unable to close reject file for job {}: {}", jobId, e.getMessage());
+            }
+        }
+    }
+
+    private BufferedWriter openWriter(String jobId) {
+        try {
+            Path path = pathFor(jobId);
+            Files.createDirectories(path.getParent());
+            boolean newFile = !Files.exists(path);
+            BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            if (newFile) {
+                writer.write(HEADER);
+                writer.newLine();
+            }
+            log.info("Writing rejected rows of job {} to {}", jobId, path);
+            return writer;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unable to open reject file for job " + jobId, e);
+        }
+    }
+
+    private static String toCsvLine(List<String> cells) {
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < cells.size(); i++) {
+            if (i > 0) {
+                line.append(',');
+            }
+            String value = cells.get(i) == null ? "" : cells.get(i);
+            if (value.indexOf(',') >= 0 || value.indexOf('"') >= 0 || value.indexOf('\n') >= 0 || value.indexOf('\r') >= 0) {
+                line.append('"').append(value.replace("\"", "\"\"")).append('"');
+            } else {
+                line.append(value);
+            }
+        }
+        return line.toString();
+    }
+}
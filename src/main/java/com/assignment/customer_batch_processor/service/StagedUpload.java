@@ -0,0 +1,8 @@
+package com.assignment.customer_batch_processor.service;
+
+/**
+ * An upload saved to the upload directory, with the SHA-256 of its content
+ * computed while it was written
+ */
+public record StagedUpload(String filePath, String sha256, long size) {
+}
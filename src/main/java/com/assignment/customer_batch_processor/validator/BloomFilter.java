@@ -0,0 +1,56 @@
+package com.assignment.customer_batch_processor.validator;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter of 64-bit fingerprints: mightContain is false only for a fingerprint never added.
+ * Sized for the expected fingerprints and false positive rate, each fingerprint sets k bits
+ * at h1 + i * h2 (double hashing of its two halves). Adds and lookups are lock free.
+ */
+public final class BloomFilter {
+
+    private final AtomicLongArray words;
+    private final long bits;
+    private final int hashes;
+
+    public BloomFilter(long expectedFingerprints, double falsePositiveRate) {
+        long expected = Math.max(expectedFingerprints, 1);
+        double rate = Math.min(Math.max(falsePositiveRate, 1e-9), 0.5);
+        double ln2 = Math.log(2);
+        long optimalBits = (long) Math.ceil(-expected * Math.log(rate) / (ln2 * ln2));
+        int wordCount = (int) Math.min((optimalBits + 63) >>> 6, Integer.MAX_VALUE - 8);
+        this.words = new AtomicLongArray(wordCount);
+        this.bits = (long) wordCount << 6;
+        this.hashes = (int) Math.max(1, Math.round((double) bits / expected * ln2));
+    }
+
+    public void add(long fingerprint) {
+        long h2 = (fingerprint >>> 32) | 1;
+        long h = fingerprint;
+        for (int i = 0; i < hashes; i++, h += h2) {
+            long bit = Math.floorMod(h, bits);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            if ((words.get(word) & mask) == 0) {
+                words.getAndAccumulate(word, mask, (current, set) -> current | set);
+            }
+        }
+    }
+
+    public boolean mightContain(long fingerprint) {
+        long h2 = (fingerprint >>> 32) | 1;
+        long h = fingerprint;
+        for (int i = 0; i < hashes; i++, h += h2) {
+            long bit = Math.floorMod(h, bits);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return bits / 8 / 1024 + " KB, " + hashes + " hashes";
+    }
+}
@@ -0,0 +1,245 @@
+package com.assignment.customer_batch_processor.validator;
+
+import com.assignment.customer_batch_processor.Customer_Entity.Customer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.batch.item.Chunk;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.function.BiPredicate;
+import java.util.function.Function;
+
+/**
+ * COLUMNAR VALIDATION
+ *
+ * Validates a whole chunk of customers at once. Each character-class field is laid out as one
+ * char column, the trimmed values of the chunk one after the other, and the column is scanned
+ * in SIMD lanes with the Vector API (jdk.incubator.vector), or scalar code when the JVM runs
+ * without --add-modules jdk.incubator.vector:
+ * - phone number and Aadhaar: digits, fixed length
+ * - name, state and city: letters and whitespace
+ * A column is scanned in one loop for all rows, rows are only looked up for the rare invalid byte.
+ * Email and PAN are checked per row with CustomerValidator, on the rows still valid, as are the
+ * columns whose field has a configured rule (app.validation.validator=rules, e.g. an Aadhaar
+ * checksum): the scans only implement the default rules.
+ *
+ * A row set in the bitmap passes every check of the injected CustomerValidator (null fields are
+ * not checked, like normalizeAndValidate), so it only needs normalizing.
+ */
+@Slf4j
+@Component
+public class ColumnarCustomerValidator {
+
+    private static final String VECTOR_MODULE = "jdk.incubator.vector";
+
+    private final CustomerValidator customerValidator;
+    private final ColumnScanner scanner;
+
+    @Autowired
+    public ColumnarCustomerValidator(CustomerValidator customerValidator,
+                                     @Value("${app.validation.columnar.vector-api:true}") boolean vectorApi) {
+        this.customerValidator = customerValidator;
+        this.scanner = vectorApi ? vectorScannerOrScalar() : ColumnScanner.SCALAR;
+    }
+
+    public boolean usesVectorApi() {
+        return scanner != ColumnScanner.SCALAR;
+    }
+
+    /**
+     * @return validity bitmap of the chunk: row i is valid when bit (i % 64) of word (i / 64) is set
+     */
+    public long[] validate(Chunk<? extends Customer> chunk) {
+        List<? extends Customer> rows = chunk.getItems();
+        long[] valid = new long[(rows.size() + 63) >>> 6];
+        for (int row = 0; row < rows.size(); row++) {
+            valid[row >>> 6] |= 1L << row;
+        }
+
+        for (Column column : Column.values()) {
+            if (customerValidator.hasDefaultRule(column.field)) {
+                check(rows, column, valid);
+            } else {
+                checkRows(rows, column, valid);
+            }
+        }
+        for (int row = 0; row < rows.size(); row++) {
+            if (isSet(valid, row) && !isValidEmailAndPan(rows.get(row))) {
+                valid[row >>> 6] &= ~(1L << row);
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * Marks the customers of valid rows prevalidated
+     */
+    public void markPrevalidated(List<? extends Customer> customers) {
+        long[] valid = validate(new Chunk<>(customers));
+        for (int row = 0; row < customers.size(); row++) {
+            customers.get(row).setPrevalidated(isSet(valid, row));
+        }
+    }
+
+    public static boolean isSet(long[] bitmap, int row) {
+        return (bitmap[row >>> 6] & (1L << row)) != 0;
+    }
+
+    private boolean isValidEmailAndPan(Customer customer) {
+        return (customer.getEmail() == null || customerValidator.isValidEmail(customer.getEmail()))
+                && (customer.getPanNumber() == null || customerValidator.isValidPAN(customer.getPanNumber()));
+    }
+
+    /**
+     * Builds the column of one field, checks the lengths per row and the characters in one scan
+     */
+    private void check(List<? extends Customer> rows, Column column, long[] valid) {
+        int size = rows.size();
+        // Row i is chars[starts[i], starts[i + 1]), the trimmed value of values[i]
+        String[] values = new String[size];
+        int[] starts = new int[size + 1];
+        int[] trimmedStarts = new int[size];
+        int length = 0;
+        for (int row = 0; row < size; row++) {
+            String value = column.getter.apply(rows.get(row));
+            values[row] = value;
+            starts[row] = length;
+            if (value != null) {
+                int start = CustomerValidator.trimStart(value);
+                trimmedStarts[row] = start;
+                length += CustomerValidator.trimEnd(value, start) - start;
+            }
+        }
+        starts[size] = length;
+
+        char[] chars = new char[length];
+        for (int row = 0; row < size; row++) {
+            String value = values[row];
+            if (value == null) {
+                continue;
+            }
+            int rowLength = starts[row + 1] - starts[row];
+            boolean lengthOk = column.length == 0 ? rowLength > 0 : rowLength == column.length;
+            if (!lengthOk) {
+                valid[row >>> 6] &= ~(1L << row);
+            }
+            value.getChars(trimmedStarts[row], trimmedStarts[row] + rowLength, chars, starts[row]);
+            if (column == Column.PHONE_NUMBER && lengthOk && chars[starts[row]] < '6') {
+                valid[row >>> 6] &= ~(1L << row);
+            }
+        }
+
+        int position = 0;
+        while ((position = scanner.mismatch(chars, position, length, column.charClass)) < length) {
+            int row = rowAt(starts, size, position);
+            valid[row >>> 6] &= ~(1L << row);
+            position = starts[row + 1];
+        }
+    }
+
+    /**
+     * Checks the field of the rows still valid with the validator's own rule
+     */
+    private void checkRows(List<? extends Customer> rows, Column column, long[] valid) {
+        for (int row = 0; row < rows.size(); row++) {
+            String value = column.getter.apply(rows.get(row));
+            if (value != null && isSet(valid, row) && !column.rule.test(customerValidator, value)) {
+                valid[row >>> 6] &= ~(1L << row);
+            }
+        }
+    }
+
+    /**
+     * Row whose characters contain position: the first row ending after it
+     */
+    private static int rowAt(int[] starts, int size, int position) {
+        int low = 0;
+        int high = size;
+        while (low < high) {
+            int middle = (low + high) >>> 1;
+            if (starts[middle + 1] <= position) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private static ColumnScanner vectorScannerOrScalar() {
+        if (ModuleLayer.boot().findModule(VECTOR_MODULE).isEmpty()) {
+            log.info("Columnar validation uses scalar code, start the JVM with --add-modules {} for SIMD", VECTOR_MODULE);
+            return ColumnScanner.SCALAR;
+        }
+        try {
+            ColumnScanner vectorScanner = new VectorColumnScanner();
+            log.info("Columnar validation uses the Vector API, {}", vectorScanner);
+            return vectorScanner;
+        } catch (LinkageError e) {
+            log.warn("Vector API not usable, columnar validation uses scalar code: {}", e.getMessage());
+            return ColumnScanner.SCALAR;
+        }
+    }
+
+    /**
+     * Checked columns: character class, and the exact length (0 = at least one character).
+     * The rule is the validator method used instead when the field has a configured rule.
+     */
+    private enum Column {
+        NAME(CustomerField.NAME, Customer::getName, CustomerValidator::isValidName, CharClass.LETTERS_AND_SPACES, 0),
+        PHONE_NUMBER(CustomerField.PHONE_NUMBER, Customer::getPhoneNumber, CustomerValidator::isValidMobile, CharClass.DIGITS, 10),
+        AADHAAR_NUMBER(CustomerField.AADHAAR_NUMBER, Customer::getAadhaarNumber, CustomerValidator::isValidAadhaar, CharClass.DIGITS, 12),
+        STATE(CustomerField.STATE, Customer::getState, CustomerValidator::isValidState, CharClass.LETTERS_AND_SPACES, 0),
+        CITY(CustomerField.CITY, Customer::getCity, CustomerValidator::isValidCity, CharClass.LETTERS_AND_SPACES, 0);
+
+        private final CustomerField field;
+        private final Function<Customer, String> getter;
+        private final BiPredicate<CustomerValidator, String> rule;
+        private final CharClass charClass;
+        private final int length;
+
+        Column(CustomerField field, Function<Customer, String> getter, BiPredicate<CustomerValidator, String> rule,
+               CharClass charClass, int length) {
+            this.field = field;
+            this.getter = getter;
+            this.rule = rule;
+            this.charClass = charClass;
+            this.length = length;
+        }
+    }
+
+    /**
+     * Character classes of the regex rules: \d is [0-9], \s is [ \t\n\x0B\f\r] (tab to carriage return)
+     */
+    enum CharClass {
+        DIGITS,
+        LETTERS_AND_SPACES;
+
+        boolean contains(char c) {
+            if (this == DIGITS) {
+                return c >= '0' && c <= '9';
+            }
+            int lower = c | 0x20;
+            return (lower >= 'a' && lower <= 'z') || c == ' ' || (c >= '\t' && c <= '\r');
+        }
+    }
+
+    interface ColumnScanner {
+
+        ColumnScanner SCALAR = (chars, from, to, charClass) -> {
+            for (int i = from; i < to; i++) {
+                if (!charClass.contains(chars[i])) {
+                    return i;
+                }
+            }
+            return to;
+        };
+
+        /**
+         * @return index of the first character in [from, to) outside the class, to when there is none
+         */
+        int mismatch(char[] chars, int from, int to, CharClass charClass);
+    }
+}
@@ -0,0 +1,95 @@
+package com.assignment.customer_batch_processor.validator;
+
+import com.assignment.customer_batch_processor.Customer_Entity.Customer;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Validated customer fields. CustomerValidator.normalizeAndValidate reports the invalid
+ * fields of a row as a bit set of bit() values, the errors are only built for invalid rows.
+ */
+public enum CustomerField {
+
+    NAME("name", null, Customer::getName),
+    EMAIL("email", "email", Customer::getEmail),
+    PHONE_NUMBER("phoneNumber", "phone number", Customer::getPhoneNumber),
+    AADHAAR_NUMBER("aadhaarNumber", "Aadhaar", Customer::getAadhaarNumber),
+    PAN_NUMBER("panNumber", "PAN", Customer::getPanNumber),
+    STATE("state", "state", Customer::getState),
+    CITY("city", "city", Customer::getCity);
+
+    private static final CustomerField[] FIELDS = values();
+
+    private final String fieldName;
+    private final String label;
+    private final Function<Customer, String> getter;
+
+    CustomerField(String fieldName, String label, Function<Customer, String> getter) {
+        this.fieldName = fieldName;
+        this.label = label;
+        this.getter = getter;
+    }
+
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    public String fieldName() {
+        return fieldName;
+    }
+
+    public String value(Customer customer) {
+        return getter.apply(customer);
+    }
+
+    /**
+     * 64-bit fingerprint of the value as it is stored: without the blanks trim() removes and with
+     * ASCII letters in one case, so a value and its normalized form have the same fingerprint.
+     * FNV-1a seeded with the field, then the MurmurHash3 finalizer to mix the low bits.
+     */
+    public long fingerprint(String value) {
+        int start = CustomerValidator.trimStart(value);
+        int end = CustomerValidator.trimEnd(value, start);
+        long hash = 0xcbf29ce484222325L ^ ordinal();
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            hash = (hash ^ (c >= 'A' && c <= 'Z' ? c | 0x20 : c)) * 0x100000001b3L;
+        }
+        hash = (hash ^ (hash >>> 33)) * 0xff51afd7ed558ccdL;
+        hash = (hash ^ (hash >>> 33)) * 0xc4ceb53a185ec4ebL;
+        return hash ^ (hash >>> 33);
+    }
+
+    /**
+     * Report entry of this field, the row keeps the value that failed
+     */
+    public ValidationError error(Customer customer) {
+        String reason = label == null
+                ? "Invalid " + fieldName + " " + getter.apply(customer)
+                : "Invalid " + label + " for name " + customer.getName();
+        return new ValidationError(customer.getRowNumber(), fieldName, reason);
+    }
+
+    /**
+     * Report entry of a value another row already has, detail says which row
+     */
+    public ValidationError duplicateError(Customer customer, String detail) {
+        return new ValidationError(customer.getRowNumber(), fieldName,
+                "Duplicate " + label + " for name " + customer.getName() + ", " + detail);
+    }
+
+    /**
+     * Errors of the fields set in invalidFields, in field order
+     */
+    public static List<ValidationError> errors(Customer customer, int invalidFields) {
+        List<ValidationError> errors = new ArrayList<>(Integer.bitCount(invalidFields));
+        for (CustomerField field : FIELDS) {
+            if ((invalidFields & field.bit()) != 0) {
+                errors.add(field.error(customer));
+            }
+        }
+        return errors;
+    }
+}
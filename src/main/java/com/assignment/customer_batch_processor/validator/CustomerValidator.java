@@ -98,6 +98,101 @@ public class CustomerValidator {
         return isValid;
     }
     
+    /**
+     * Validates every non-null field of the row and normalizes the valid ones in place:
+     * trimmed, email lower case, PAN, state and city upper case, digits only for phone and Aadhaar.
+     * Invalid fields keep their value.
+     * @return bit set of the invalid fields (CustomerField.bit()), 0 when the row is valid
+     */
+    public int normalizeAndValidate(Customer customer) {
+        int invalidFields = 0;
+
+        if (customer.getName() != null) {
+            if (isValidName(customer.getName())) {
+                customer.setName(customer.getName().trim());
+            } else {
+                invalidFields |= CustomerField.NAME.bit();
+            }
+        }
+
+        if (customer.getEmail() != null) {
+            if (isValidEmail(customer.getEmail())) {
+                customer.setEmail(customer.getEmail().trim().toLowerCase());
+            } else {
+                invalidFields |= CustomerField.EMAIL.bit();
+            }
+        }
+
+        if (customer.getPhoneNumber() != null) {
+            if (isValidMobile(customer.getPhoneNumber())) {
+                customer.setPhoneNumber(customer.getPhoneNumber().trim().replaceAll("[^0-9]", ""));
+            } else {
+                invalidFields |= CustomerField.PHONE_NUMBER.bit();
+            }
+        }
+
+        if (customer.getAadhaarNumber() != null) {
+            if (isValidAadhaar(customer.getAadhaarNumber())) {
+                customer.setAadhaarNumber(customer.getAadhaarNumber().trim().replaceAll("[^0-9]", ""));
+            } else {
+                invalidFields |= CustomerField.AADHAAR_NUMBER.bit();
+            }
+        }
+
+        if (customer.getPanNumber() != null) {
+            if (isValidPAN(customer.getPanNumber())) {
+                customer.setPanNumber(customer.getPanNumber().trim().toUpperCase());
+            } else {
+                invalidFields |= CustomerField.PAN_NUMBER.bit();
+            }
+        }
+
+        if (customer.getState() != null) {
+            if (isValidState(customer.getState())) {
+                customer.setState(customer.getState().trim().toUpperCase());
+            } else {
+                invalidFields |= CustomerField.STATE.bit();
+            }
+        }
+
+        if (customer.getCity() != null) {
+            if (isValidCity(customer.getCity())) {
+                customer.setCity(customer.getCity().trim().toUpperCase());
+            } else {
+                invalidFields |= CustomerField.CITY.bit();
+            }
+        }
+
+        return invalidFields;
+    }
+
+    /**
+     * Normalizes the non-null fields of a row already known to be valid, like normalizeAndValidate
+     */
+    public void normalize(Customer customer) {
+        if (customer.getName() != null) {
+            customer.setName(customer.getName().trim());
+        }
+        if (customer.getEmail() != null) {
+            customer.setEmail(customer.getEmail().trim().toLowerCase());
+        }
+        if (customer.getPhoneNumber() != null) {
+            customer.setPhoneNumber(customer.getPhoneNumber().trim().replaceAll("[^0-9]", ""));
+        }
+        if (customer.getAadhaarNumber() != null) {
+            customer.setAadhaarNumber(customer.getAadhaarNumber().trim().replaceAll("[^0-9]", ""));
+        }
+        if (customer.getPanNumber() != null) {
+            customer.setPanNumber(customer.getPanNumber().trim().toUpperCase());
+        }
+        if (customer.getState() != null) {
+            customer.setState(customer.getState().trim().toUpperCase());
+        }
+        if (customer.getCity() != null) {
+            customer.setCity(customer.getCity().trim().toUpperCase());
+        }
+    }
+
     /**
      * Validates name field - only alphabets and spaces allowed
      */
@@ -167,4 +262,29 @@ public class CustomerValidator {
         }
         return CITY_PATTERN.matcher(city.trim()).matches();
     }
-}
\ No newline at end of file
+
+    /**
+     * True when the field is checked by the rule of this class, so the column scans of
+     * ColumnarCustomerValidator, which implement the same rules, may check it
+     */
+    public boolean hasDefaultRule(CustomerField field) {
+        return true;
+    }
+
+    // Bounds of value.trim() without the copy: String.trim() removes every character up to U+0020 from both ends
+    static int trimStart(String value) {
+        int start = 0;
+        while (start < value.length() && value.charAt(start) <= ' ') {
+            start++;
+        }
+        return start;
+    }
+
+    static int trimEnd(String value, int start) {
+        int end = value.length();
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end;
+    }
+}
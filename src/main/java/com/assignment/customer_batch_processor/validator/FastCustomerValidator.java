@@ -0,0 +1,327 @@
+package com.assignment.customer_batch_processor.validator;
+
+import com.assignment.customer_batch_processor.Customer_Entity.Customer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+/**
+ * Customer Data Validator without regex
+ *
+ * Same rules as CustomerValidator, checked by scanning the characters of the field once:
+ * no trimmed copy (the blanks String.trim() would remove are skipped by moving the bounds),
+ * no Matcher. Selected with app.validation.validator=fast, CustomerValidatorDifferentialTest
+ * checks that every method answers exactly like the regex version.
+ */
+@Component
+@Primary
+@ConditionalOnProperty(name = "app.validation.validator", havingValue = "fast")
+public class FastCustomerValidator extends CustomerValidator {
+
+    private static final int NO_CASE = 0;
+    private static final int UPPER_CASE = 1;
+    private static final int LOWER_CASE = 2;
+
+    /**
+     * One pass per field: the trimmed bounds are found once, the same bounds are checked,
+     * and a new String is only created when normalizing changes the value (trim, case).
+     * Valid phone and Aadhaar numbers are digits only and a valid PAN is upper case already,
+     * so their normalization is the trim. The case mapping is ASCII, valid values are ASCII.
+     */
+    @Override
+    public int normalizeAndValidate(Customer customer) {
+        int invalidFields = 0;
+        String value;
+
+        if ((value = customer.getName()) != null) {
+            int start = trimStart(value);
+            int end = trimEnd(value, start);
+            if (isLettersAndSpaces(value, start, end)) {
+                customer.setName(normalized(value, start, end, NO_CASE));
+            } else {
+                invalidFields |= CustomerField.NAME.bit();
+            }
+        }
+
+        if ((value = customer.getEmail()) != null) {
+            int start = trimStart(value);
+            int end = trimEnd(value, start);
+            if (isEmail(value, start, end)) {
+                customer.setEmail(normalized(value, start, end, LOWER_CASE));
+            } else {
+                invalidFields |= CustomerField.EMAIL.bit();
+            }
+        }
+
+        if ((value = customer.getPhoneNumber()) != null) {
+            int start = trimStart(value);
+            int end = trimEnd(value, start);
+            if (isMobile(value, start, end)) {
+                customer.setPhoneNumber(normalized(value, start, end, NO_CASE));
+            } else {
+                invalidFields |= CustomerField.PHONE_NUMBER.bit();
+            }
+        }
+
+        if ((value = customer.getAadhaarNumber()) != null) {
+            int start = trimStart(value);
+            int end = trimEnd(value, start);
+            if (isAadhaar(value, start, end)) {
+                customer.setAadhaarNumber(normalized(value, start, end, NO_CASE));
+            } else {
+                invalidFields |= CustomerField.AADHAAR_NUMBER.bit();
+            }
+        }
+
+        if ((value = customer.getPanNumber()) != null) {
+            int start = trimStart(value);
+            int end = trimEnd(value, start);
+            if (isPan(value, start, end)) {
+                customer.setPanNumber(normalized(value, start, end, NO_CASE));
+            } else {
+                invalidFields |= CustomerField.PAN_NUMBER.bit();
+            }
+        }
+
+        if ((value = customer.getState()) != null) {
+            int start = trimStart(value);
+            int end = trimEnd(value, start);
+            if (isLettersAndSpaces(value, start, end)) {
+                customer.setState(normalized(value, start, end, UPPER_CASE));
+            } else {
+                invalidFields |= CustomerField.STATE.bit();
+            }
+        }
+
+        if ((value = customer.getCity()) != null) {
+            int start = trimStart(value);
+            int end = trimEnd(value, start);
+            if (isLettersAndSpaces(value, start, end)) {
+                customer.setCity(normalized(value, start, end, UPPER_CASE));
+            } else {
+                invalidFields |= CustomerField.CITY.bit();
+            }
+        }
+
+        return invalidFields;
+    }
+
+    @Override
+    public void normalize(Customer customer) {
+        customer.setName(normalized(customer.getName(), NO_CASE));
+        customer.setEmail(normalized(customer.getEmail(), LOWER_CASE));
+        customer.setPhoneNumber(normalized(customer.getPhoneNumber(), NO_CASE));
+        customer.setAadhaarNumber(normalized(customer.getAadhaarNumber(), NO_CASE));
+        customer.setPanNumber(normalized(customer.getPanNumber(), NO_CASE));
+        customer.setState(normalized(customer.getState(), UPPER_CASE));
+        customer.setCity(normalized(customer.getCity(), UPPER_CASE));
+    }
+
+    /**
+     * Alphabets and whitespace (\s), at least one character after trimming
+     */
+    @Override
+    public boolean isValidName(String name) {
+        if (name == null) {
+            return false;
+        }
+        int start = trimStart(name);
+        return isLettersAndSpaces(name, start, trimEnd(name, start));
+    }
+
+    /**
+     * 10 digits starting with 6, 7, 8 or 9
+     */
+    @Override
+    public boolean isValidMobile(String mobile) {
+        if (mobile == null) {
+            return false;
+        }
+        int start = trimStart(mobile);
+        return isMobile(mobile, start, trimEnd(mobile, start));
+    }
+
+    /**
+     * local@domain.tld: local part of [a-zA-Z0-9._%+-], domain of [a-zA-Z0-9.-] with at least one
+     * character before its last dot, and at least two letters after it
+     */
+    @Override
+    public boolean isValidEmail(String email) {
+        if (email == null) {
+            return false;
+        }
+        int start = trimStart(email);
+        return isEmail(email, start, trimEnd(email, start));
+    }
+
+    /**
+     * Exactly 12 digits
+     */
+    @Override
+    public boolean isValidAadhaar(String aadhaar) {
+        if (aadhaar == null) {
+            return false;
+        }
+        int start = trimStart(aadhaar);
+        return isAadhaar(aadhaar, start, trimEnd(aadhaar, start));
+    }
+
+    /**
+     * 5 upper case letters, 4 digits, 1 upper case letter
+     */
+    @Override
+    public boolean isValidPAN(String pan) {
+        if (pan == null) {
+            return false;
+        }
+        int start = trimStart(pan);
+        return isPan(pan, start, trimEnd(pan, start));
+    }
+
+    @Override
+    public boolean isValidState(String state) {
+        if (state == null) {
+            return false;
+        }
+        int start = trimStart(state);
+        return isLettersAndSpaces(state, start, trimEnd(state, start));
+    }
+
+    @Override
+    public boolean isValidCity(String city) {
+        if (city == null) {
+            return false;
+        }
+        int start = trimStart(city);
+        return isLettersAndSpaces(city, start, trimEnd(city, start));
+    }
+
+    private static boolean isMobile(String mobile, int start, int end) {
+        if (end - start != 10) {
+            return false;
+        }
+        char first = mobile.charAt(start);
+        return first >= '6' && first <= '9' && isDigits(mobile, start + 1, end);
+    }
+
+    private static boolean isEmail(String email, int start, int end) {
+        int i = start;
+        while (i < end && isLocalPartChar(email.charAt(i))) {
+            i++;
+        }
+        if (i == start || i == end || email.charAt(i) != '@') {
+            return false;
+        }
+
+        int domainStart = i + 1;
+        int lastDot = -1;
+        for (int j = domainStart; j < end; j++) {
+            char c = email.charAt(j);
+            if (c == '.') {
+                lastDot = j;
+            } else if (!isAsciiLetter(c) && !isAsciiDigit(c) && c != '-') {
+                return false;
+            }
+        }
+        if (lastDot <= domainStart || end - lastDot - 1 < 2) {
+            return false;
+        }
+        for (int j = lastDot + 1; j < end; j++) {
+            if (!isAsciiLetter(email.charAt(j))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAadhaar(String aadhaar, int start, int end) {
+        return end - start == 12 && isDigits(aadhaar, start, end);
+    }
+
+    private static boolean isPan(String pan, int start, int end) {
+        if (end - start != 10) {
+            return false;
+        }
+        for (int i = 0; i < 10; i++) {
+            char c = pan.charAt(start + i);
+            boolean valid = i >= 5 && i < 9 ? isAsciiDigit(c) : c >= 'A' && c <= 'Z';
+            if (!valid) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isLettersAndSpaces(String value, int start, int end) {
+        if (start == end) {
+            return false;
+        }
+        for (int i = start; i < end; i++) {
+            char c = value.charAt(i);
+            if (!isAsciiLetter(c) && !isRegexWhitespace(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static String normalized(String value, int toCase) {
+        if (value == null) {
+            return null;
+        }
+        int start = trimStart(value);
+        return normalized(value, start, trimEnd(value, start), toCase);
+    }
+
+    /**
+     * value[start, end) with ASCII letters mapped to the case, the same instance when nothing changes
+     */
+    private static String normalized(String value, int start, int end, int toCase) {
+        int first = start;
+        while (first < end && !changesCase(value.charAt(first), toCase)) {
+            first++;
+        }
+        if (first == end) {
+            return start == 0 && end == value.length() ? value : value.substring(start, end);
+        }
+        char[] chars = new char[end - start];
+        value.getChars(start, end, chars, 0);
+        for (int i = first - start; i < chars.length; i++) {
+            if (changesCase(chars[i], toCase)) {
+                chars[i] ^= 0x20;
+            }
+        }
+        return new String(chars);
+    }
+
+    private static boolean changesCase(char c, int toCase) {
+        return toCase == UPPER_CASE ? c >= 'a' && c <= 'z' : toCase == LOWER_CASE && c >= 'A' && c <= 'Z';
+    }
+
+    private static boolean isDigits(String value, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!isAsciiDigit(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    // \d without UNICODE_CHARACTER_CLASS
+    private static boolean isAsciiDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    // \s without UNICODE_CHARACTER_CLASS: [ \t\n\x0B\f\r]
+    private static boolean isRegexWhitespace(char c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+    }
+
+    private static boolean isLocalPartChar(char c) {
+        return isAsciiLetter(c) || isAsciiDigit(c) || c == '.' || c == '_' || c == '%' || c == '+' || c == '-';
+    }
+}
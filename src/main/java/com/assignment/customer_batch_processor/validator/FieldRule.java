@@ -0,0 +1,390 @@
+package com.assignment.customer_batch_processor.validator;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Compiled validation rule of one field, from a declarative spec of ';' separated settings:
+ * - length=10, length=1..100 or length=1..   trimmed length, exact or a range (default 1..)
+ * - chars=letters,whitespace                 allowed characters: digits, upper, lower, letters, alnum,
+ *                                            whitespace (the regex \s) or a set like [._%+-] or [6-9]
+ * - first=[6-9]                              allowed characters of the first position
+ * - format=AAAAA9999A                        one class per position, A = upper, a = lower, L = letter,
+ *                                            9 = digit, sets the length (instead of chars and length)
+ * - shape=email                              local@domain.tld of the EMAIL regex of CustomerValidator
+ * - checksum=verhoeff or checksum=luhn       check digit over the digits of the value
+ * - normalize=trim,lower                     trim, then lower, upper or digits (drops non-digits); none keeps the value
+ *
+ * Values are checked trimmed, like CustomerValidator. Character sets are ASCII lookup tables, the checks
+ * and the normalization work on the bounds of the value: nothing is allocated unless the normalized
+ * value differs. A wrong spec fails at startup with IllegalArgumentException.
+ */
+public final class FieldRule {
+
+    private static final CharSet DIGITS = CharSet.range('0', '9');
+    private static final CharSet UPPER = CharSet.range('A', 'Z');
+    private static final CharSet LOWER = CharSet.range('a', 'z');
+    private static final CharSet LETTERS = UPPER.or(LOWER);
+    private static final CharSet WHITESPACE = CharSet.of(" \t\n\u000B\f\r");
+
+    // EMAIL regex of CustomerValidator: [a-zA-Z0-9._%+-]+@[a-zA-Z0-9.-]+\.[a-zA-Z]{2,}
+    private static final CharSet EMAIL_LOCAL = LETTERS.or(DIGITS).or(CharSet.of("._%+-"));
+    private static final CharSet EMAIL_DOMAIN = LETTERS.or(DIGITS).or(CharSet.of(".-"));
+
+    // Verhoeff tables (Aadhaar check digit): multiplication and permutation
+    private static final int[][] VERHOEFF_D = {
+            {0, 1, 2, 3, 4, 5, 6, 7, 8, 9}, {1, 2, 3, 4, 0, 6, 7, 8, 9, 5}, {2, 3, 4, 0, 1, 7, 8, 9, 5, 6},
+            {3, 4, 0, 1, 2, 8, 9, 5, 6, 7}, {4, 0, 1, 2, 3, 9, 5, 6, 7, 8}, {5, 9, 8, 7, 6, 0, 4, 3, 2, 1},
+            {6, 5, 9, 8, 7, 1, 0, 4, 3, 2}, {7, 6, 5, 9, 8, 2, 1, 0, 4, 3}, {8, 7, 6, 5, 9, 3, 2, 1, 0, 4},
+            {9, 8, 7, 6, 5, 4, 3, 2, 1, 0}};
+    private static final int[][] VERHOEFF_P = {
+            {0, 1, 2, 3, 4, 5, 6, 7, 8, 9}, {1, 5, 7, 6, 2, 8, 3, 0, 9, 4}, {5, 8, 0, 3, 7, 9, 6, 1, 4, 2},
+            {8, 9, 1, 6, 0, 4, 3, 5, 2, 7}, {9, 4, 5, 3, 1, 2, 6, 8, 7, 0}, {4, 2, 8, 6, 5, 7, 3, 9, 0, 1},
+            {2, 7, 9, 3, 8, 0, 6, 4, 1, 5}, {7, 0, 4, 6, 9, 1, 3, 2, 5, 8}};
+
+    public enum Shape { ANY, EMAIL }
+
+    public enum Checksum { NONE, VERHOEFF, LUHN }
+
+    private enum Case { KEEP, LOWER, UPPER }
+
+    private final String spec;
+    private int minLength = 1;
+    private int maxLength = Integer.MAX_VALUE;
+    private CharSet chars;
+    private CharSet first;
+    private CharSet[] format;
+    private Shape shape = Shape.ANY;
+    private Checksum checksum = Checksum.NONE;
+    private boolean trim = true;
+    private boolean digitsOnly;
+    private Case toCase = Case.KEEP;
+
+    private FieldRule(String spec) {
+        this.spec = spec;
+    }
+
+    public static FieldRule compile(String spec) {
+        FieldRule rule = new FieldRule(spec);
+        boolean normalizeSet = false;
+        for (String setting : spec.split(";")) {
+            if (setting.isBlank()) {
+                continue;
+            }
+            int equals = setting.indexOf('=');
+            if (equals < 0) {
+                throw new IllegalArgumentException("Rule setting without '=': " + setting + " in " + spec);
+            }
+            String key = setting.substring(0, equals).trim().toLowerCase(Locale.ROOT);
+            String value = setting.substring(equals + 1).trim();
+            switch (key) {
+                case "length" -> rule.length(value);
+                case "chars" -> rule.chars = rule.charSet(value);
+                case "first" -> rule.first = rule.charSet(value);
+                case "format" -> rule.format(value);
+                case "shape" -> rule.shape = Shape.valueOf(value.toUpperCase(Locale.ROOT));
+                case "checksum" -> rule.checksum = Checksum.valueOf(value.toUpperCase(Locale.ROOT));
+                case "normalize" -> {
+                    rule.normalization(value);
+                    normalizeSet = true;
+                }
+                default -> throw new IllegalArgumentException("Unknown rule setting '" + key + "' in " + spec);
+            }
+        }
+        if (!normalizeSet) {
+            rule.normalization("trim");
+        }
+        if (rule.format != null && rule.chars != null) {
+            throw new IllegalArgumentException("format and chars exclude each other in " + spec);
+        }
+        return rule;
+    }
+
+    /**
+     * Rule check of the trimmed value, null is invalid
+     */
+    public boolean test(String value) {
+        if (value == null) {
+            return false;
+        }
+        int start = CustomerValidator.trimStart(value);
+        return test(value, start, CustomerValidator.trimEnd(value, start));
+    }
+
+    /**
+     * Rule check of value[start, end), the trimmed bounds
+     */
+    boolean test(String value, int start, int end) {
+        int length = end - start;
+        if (length < minLength || length > maxLength) {
+            return false;
+        }
+        // Each check is its own small method, compiled with the profile of its own loop
+        return (format != null ? matchesFormat(value, start, length) : chars == null || allIn(chars, value, start, end))
+                && (first == null || (length > 0 && first.contains(value.charAt(start))))
+                && (shape != Shape.EMAIL || isEmail(value, start, end))
+                && (checksum == Checksum.NONE || isChecksumValid(value, start, end));
+    }
+
+    private static boolean allIn(CharSet set, String value, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if (!set.contains(value.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private boolean matchesFormat(String value, int start, int length) {
+        for (int i = 0; i < length; i++) {
+            if (!format[i].contains(value.charAt(start + i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Normalized value, the same instance when nothing changes
+     */
+    public String normalize(String value) {
+        if (value == null) {
+            return null;
+        }
+        int start = trim ? CustomerValidator.trimStart(value) : 0;
+        int end = trim ? CustomerValidator.trimEnd(value, start) : value.length();
+
+        int firstChange = start;
+        while (firstChange < end && normalized(value.charAt(firstChange)) == value.charAt(firstChange)) {
+            firstChange++;
+        }
+        if (firstChange == end) {
+            return start == 0 && end == value.length() ? value : value.substring(start, end);
+        }
+
+        StringBuilder normalized = new StringBuilder(end - start).append(value, start, firstChange);
+        for (int i = firstChange; i < end; i++) {
+            char c = value.charAt(i);
+            char mapped = normalized(c);
+            if (mapped != 0) {
+                normalized.append(mapped);
+            }
+        }
+        return normalized.toString();
+    }
+
+    // Character after normalization, 0 when it is dropped
+    private char normalized(char c) {
+        if (digitsOnly && (c < '0' || c > '9')) {
+            return 0;
+        }
+        if (toCase == Case.LOWER && c >= 'A' && c <= 'Z') {
+            return (char) (c + ('a' - 'A'));
+        }
+        if (toCase == Case.UPPER && c >= 'a' && c <= 'z') {
+            return (char) (c - ('a' - 'A'));
+        }
+        return c;
+    }
+
+    private static boolean isEmail(String email, int start, int end) {
+        int i = start;
+        while (i < end && EMAIL_LOCAL.contains(email.charAt(i))) {
+            i++;
+        }
+        if (i == start || i == end || email.charAt(i) != '@') {
+            return false;
+        }
+        int domainStart = i + 1;
+        int lastDot = -1;
+        for (int j = domainStart; j < end; j++) {
+            char c = email.charAt(j);
+            if (c == '.') {
+                lastDot = j;
+            } else if (!EMAIL_DOMAIN.contains(c)) {
+                return false;
+            }
+        }
+        if (lastDot <= domainStart || end - lastDot - 1 < 2) {
+            return false;
+        }
+        for (int j = lastDot + 1; j < end; j++) {
+            if (!LETTERS.contains(email.charAt(j))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // The check digit is the last digit, other characters are not counted
+    private boolean isChecksumValid(String value, int start, int end) {
+        int check = 0;
+        int position = 0;
+        for (int i = end - 1; i >= start; i--) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                continue;
+            }
+            int digit = c - '0';
+            if (checksum == Checksum.VERHOEFF) {
+                check = VERHOEFF_D[check][VERHOEFF_P[position % 8][digit]];
+            } else {
+                int doubled = position % 2 == 1 ? digit * 2 : digit;
+                check += doubled > 9 ? doubled - 9 : doubled;
+            }
+            position++;
+        }
+        return position > 0 && (checksum == Checksum.VERHOEFF ? check == 0 : check % 10 == 0);
+    }
+
+    private void length(String value) {
+        int range = value.indexOf("..");
+        try {
+            if (range < 0) {
+                minLength = maxLength = Integer.parseInt(value);
+            } else {
+                minLength = Integer.parseInt(value.substring(0, range).trim());
+                String max = value.substring(range + 2).trim();
+                maxLength = max.isEmpty() ? Integer.MAX_VALUE : Integer.parseInt(max);
+            }
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid length '" + value + "' in " + spec, e);
+        }
+        if (minLength < 0 || maxLength < minLength) {
+            throw new IllegalArgumentException("Invalid length '" + value + "' in " + spec);
+        }
+    }
+
+    private void format(String value) {
+        format = new CharSet[value.length()];
+        for (int i = 0; i < value.length(); i++) {
+            format[i] = switch (value.charAt(i)) {
+                case 'A' -> UPPER;
+                case 'a' -> LOWER;
+                case 'L' -> LETTERS;
+                case '9' -> DIGITS;
+                default -> throw new IllegalArgumentException(
+                        "Unknown format class '" + value.charAt(i) + "' in " + spec + " (A, a, L or 9)");
+            };
+        }
+        minLength = maxLength = value.length();
+    }
+
+    private void normalization(String value) {
+        trim = false;
+        for (String step : value.split(",")) {
+            switch (step.trim().toLowerCase(Locale.ROOT)) {
+                case "none" -> { }
+                case "trim" -> trim = true;
+                case "lower" -> toCase = Case.LOWER;
+                case "upper" -> toCase = Case.UPPER;
+                case "digits" -> digitsOnly = true;
+                default -> throw new IllegalArgumentException("Unknown normalization '" + step + "' in " + spec);
+            }
+        }
+    }
+
+    private CharSet charSet(String value) {
+        CharSet set = CharSet.NONE;
+        List<String> tokens = new ArrayList<>();
+        int i = 0;
+        while (i < value.length()) {
+            int end = value.charAt(i) == '[' ? value.indexOf(']', i + 1) + 1 : value.indexOf(',', i);
+            if (value.charAt(i) == '[' && end == 0) {
+                throw new IllegalArgumentException("Unclosed character set in " + spec);
+            }
+            end = end <= 0 ? value.length() : end;
+            tokens.add(value.substring(i, end).trim());
+            i = end < value.length() && value.charAt(end) == ',' ? end + 1 : end;
+        }
+        for (String token : tokens) {
+            set = set.or(switch (token.toLowerCase(Locale.ROOT)) {
+                case "digits" -> DIGITS;
+                case "upper" -> UPPER;
+                case "lower" -> LOWER;
+                case "letters" -> LETTERS;
+                case "alnum" -> LETTERS.or(DIGITS);
+                case "whitespace" -> WHITESPACE;
+                default -> {
+                    if (!token.startsWith("[") || !token.endsWith("]") || token.length() < 3) {
+                        throw new IllegalArgumentException("Unknown character class '" + token + "' in " + spec);
+                    }
+                    yield CharSet.parse(token.substring(1, token.length() - 1));
+                }
+            });
+        }
+        return set;
+    }
+
+    @Override
+    public String toString() {
+        return spec;
+    }
+
+    /**
+     * Set of ASCII characters, a lookup table indexed by the character
+     */
+    private static final class CharSet {
+
+        static final CharSet NONE = new CharSet(new boolean[128]);
+
+        private final boolean[] members;
+
+        private CharSet(boolean[] members) {
+            this.members = members;
+        }
+
+        static CharSet range(char from, char to) {
+            CharSet set = NONE;
+            for (char c = from; c <= to; c++) {
+                set = set.with(c);
+            }
+            return set;
+        }
+
+        static CharSet of(String chars) {
+            CharSet set = NONE;
+            for (int i = 0; i < chars.length(); i++) {
+                set = set.with(chars.charAt(i));
+            }
+            return set;
+        }
+
+        // Characters and a-b ranges, a '-' first or last is the character itself
+        static CharSet parse(String members) {
+            CharSet set = NONE;
+            for (int i = 0; i < members.length(); i++) {
+                char c = members.charAt(i);
+                if (i + 2 < members.length() && members.charAt(i + 1) == '-') {
+                    set = set.or(range(c, members.charAt(i + 2)));
+                    i += 2;
+                } else {
+                    set = set.with(c);
+                }
+            }
+            return set;
+        }
+
+        CharSet with(char c) {
+            if (c >= members.length) {
+                throw new IllegalArgumentException("Only ASCII characters can be allowed: " + c);
+            }
+            boolean[] copy = members.clone();
+            copy[c] = true;
+            return new CharSet(copy);
+        }
+
+        CharSet or(CharSet other) {
+            boolean[] copy = members.clone();
+            for (int i = 0; i < copy.length; i++) {
+                copy[i] |= other.members[i];
+            }
+            return new CharSet(copy);
+        }
+
+        boolean contains(char c) {
+            return c < members.length && members[c];
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.assignment.customer_batch_processor.validator;
+
+/**
+ * Open-addressing hash set of 64-bit fingerprints, each stored with the non-zero owner that added
+ * it first. Primitive arrays (16 bytes per slot, no boxing), linear probing, at most half full.
+ * Fingerprint 0 marks an empty slot, so a 0 fingerprint is stored as 1. Thread-safe.
+ */
+public final class FingerprintTable {
+
+    private static final int MIN_CAPACITY = 16;
+
+    private long[] fingerprints;
+    private long[] owners;
+    private int size;
+
+    public FingerprintTable(int expectedFingerprints) {
+        int capacity = MIN_CAPACITY;
+        while (capacity < 2L * expectedFingerprints && capacity < 1 << 30) {
+            capacity <<= 1;
+        }
+        fingerprints = new long[capacity];
+        owners = new long[capacity];
+    }
+
+    /**
+     * Adds the fingerprint with its owner unless it is present
+     * @return owner of the fingerprint already in the table, 0 when it was added
+     */
+    public synchronized long putIfAbsent(long fingerprint, long owner) {
+        long key = fingerprint == 0 ? 1 : fingerprint;
+        int mask = fingerprints.length - 1;
+        int slot = slot(key, mask);
+        while (fingerprints[slot] != 0) {
+            if (fingerprints[slot] == key) {
+                return owners[slot];
+            }
+            slot = (slot + 1) & mask;
+        }
+        fingerprints[slot] = key;
+        owners[slot] = owner;
+        if (++size > fingerprints.length >>> 1) {
+            grow();
+        }
+        return 0;
+    }
+
+    public synchronized int size() {
+        return size;
+    }
+
+    private void grow() {
+        long[] oldFingerprints = fingerprints;
+        long[] oldOwners = owners;
+        fingerprints = new long[oldFingerprints.length << 1];
+        owners = new long[oldFingerprints.length << 1];
+        int mask = fingerprints.length - 1;
+        for (int i = 0; i < oldFingerprints.length; i++) {
+            if (oldFingerprints[i] != 0) {
+                int slot = slot(oldFingerprints[i], mask);
+                while (fingerprints[slot] != 0) {
+                    slot = (slot + 1) & mask;
+                }
+                fingerprints[slot] = oldFingerprints[i];
+                owners[slot] = oldOwners[i];
+            }
+        }
+    }
+
+    // Fingerprints are already mixed, folding the two halves is enough
+    private static int slot(long key, int mask) {
+        return (int) (key >>> 32 ^ key) & mask;
+    }
+}
@@ -0,0 +1,215 @@
+package com.assignment.customer_batch_processor.validator;
+
+import com.assignment.customer_batch_processor.Customer_Entity.Customer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Customer Data Validator from declarative rules
+ *
+ * One FieldRule per field, compiled at startup from app.validation.rules.<field> (see FieldRule
+ * for the settings); a field without a configured rule keeps the rule of CustomerValidator.
+ * A client needing another length, character set or a checksum changes the property, not the code.
+ * Selected with app.validation.validator=rules.
+ */
+@Slf4j
+@Component
+@Primary
+@ConditionalOnProperty(name = "app.validation.validator", havingValue = "rules")
+public class RuleBasedCustomerValidator extends CustomerValidator {
+
+    // The rules of the regex patterns of CustomerValidator
+    public static final Map<CustomerField, String> DEFAULT_RULES = Map.of(
+            CustomerField.NAME, "chars=letters,whitespace; normalize=trim",
+            CustomerField.EMAIL, "shape=email; normalize=trim,lower",
+            CustomerField.PHONE_NUMBER, "length=10; chars=digits; first=[6-9]; normalize=trim,digits",
+            CustomerField.AADHAAR_NUMBER, "length=12; chars=digits; normalize=trim,digits",
+            CustomerField.PAN_NUMBER, "format=AAAAA9999A; normalize=trim,upper",
+            CustomerField.STATE, "chars=letters,whitespace; normalize=trim,upper",
+            CustomerField.CITY, "chars=letters,whitespace; normalize=trim,upper");
+
+    private final FieldRule name;
+    private final FieldRule email;
+    private final FieldRule phoneNumber;
+    private final FieldRule aadhaarNumber;
+    private final FieldRule panNumber;
+    private final FieldRule state;
+    private final FieldRule city;
+    // Fields whose rule is not the default one
+    private final Set<CustomerField> configuredFields = EnumSet.noneOf(CustomerField.class);
+
+    @Autowired
+    public RuleBasedCustomerValidator(@Value("${app.validation.rules.name:}") String nameRule,
+                                      @Value("${app.validation.rules.email:}") String emailRule,
+                                      @Value("${app.validation.rules.phone-number:}") String phoneNumberRule,
+                                      @Value("${app.validation.rules.aadhaar-number:}") String aadhaarNumberRule,
+                                      @Value("${app.validation.rules.pan-number:}") String panNumberRule,
+                                      @Value("${app.validation.rules.state:}") String stateRule,
+                                      @Value("${app.validation.rules.city:}") String cityRule) {
+        this(rules(nameRule, emailRule, phoneNumberRule, aadhaarNumberRule, panNumberRule, stateRule, cityRule));
+    }
+
+    /**
+     * Rules per field, fields missing from the map keep their DEFAULT_RULES rule
+     */
+    public RuleBasedCustomerValidator(Map<CustomerField, String> rules) {
+        name = compile(CustomerField.NAME, rules);
+        email = compile(CustomerField.EMAIL, rules);
+        phoneNumber = compile(CustomerField.PHONE_NUMBER, rules);
+        aadhaarNumber = compile(CustomerField.AADHAAR_NUMBER, rules);
+        panNumber = compile(CustomerField.PAN_NUMBER, rules);
+        state = compile(CustomerField.STATE, rules);
+        city = compile(CustomerField.CITY, rules);
+        rules.forEach((field, spec) -> {
+            if (!spec.equals(DEFAULT_RULES.get(field))) {
+                configuredFields.add(field);
+            }
+        });
+    }
+
+    @Override
+    public int normalizeAndValidate(Customer customer) {
+        int invalidFields = 0;
+        String value;
+
+        if ((value = customer.getName()) != null) {
+            if (name.test(value)) {
+                customer.setName(name.normalize(value));
+            } else {
+                invalidFields |= CustomerField.NAME.bit();
+            }
+        }
+
+        if ((value = customer.getEmail()) != null) {
+            if (email.test(value)) {
+                customer.setEmail(email.normalize(value));
+            } else {
+                invalidFields |= CustomerField.EMAIL.bit();
+            }
+        }
+
+        if ((value = customer.getPhoneNumber()) != null) {
+            if (phoneNumber.test(value)) {
+                customer.setPhoneNumber(phoneNumber.normalize(value));
+            } else {
+                invalidFields |= CustomerField.PHONE_NUMBER.bit();
+            }
+        }
+
+        if ((value = customer.getAadhaarNumber()) != null) {
+            if (aadhaarNumber.test(value)) {
+                customer.setAadhaarNumber(aadhaarNumber.normalize(value));
+            } else {
+                invalidFields |= CustomerField.AADHAAR_NUMBER.bit();
+            }
+        }
+
+        if ((value = customer.getPanNumber()) != null) {
+            if (panNumber.test(value)) {
+                customer.setPanNumber(panNumber.normalize(value));
+            } else {
+                invalidFields |= CustomerField.PAN_NUMBER.bit();
+            }
+        }
+
+        if ((value = customer.getState()) != null) {
+            if (state.test(value)) {
+                customer.setState(state.normalize(value));
+            } else {
+                invalidFields |= CustomerField.STATE.bit();
+            }
+        }
+
+        if ((value = customer.getCity()) != null) {
+            if (city.test(value)) {
+                customer.setCity(city.normalize(value));
+            } else {
+                invalidFields |= CustomerField.CITY.bit();
+            }
+        }
+
+        return invalidFields;
+    }
+
+    @Override
+    public void normalize(Customer customer) {
+        customer.setName(name.normalize(customer.getName()));
+        customer.setEmail(email.normalize(customer.getEmail()));
+        customer.setPhoneNumber(phoneNumber.normalize(customer.getPhoneNumber()));
+        customer.setAadhaarNumber(aadhaarNumber.normalize(customer.getAadhaarNumber()));
+        customer.setPanNumber(panNumber.normalize(customer.getPanNumber()));
+        customer.setState(state.normalize(customer.getState()));
+        customer.setCity(city.normalize(customer.getCity()));
+    }
+
+    @Override
+    public boolean isValidName(String value) {
+        return name.test(value);
+    }
+
+    @Override
+    public boolean isValidMobile(String value) {
+        return phoneNumber.test(value);
+    }
+
+    @Override
+    public boolean isValidEmail(String value) {
+        return email.test(value);
+    }
+
+    @Override
+    public boolean isValidAadhaar(String value) {
+        return aadhaarNumber.test(value);
+    }
+
+    @Override
+    public boolean isValidPAN(String value) {
+        return panNumber.test(value);
+    }
+
+    @Override
+    public boolean isValidState(String value) {
+        return state.test(value);
+    }
+
+    @Override
+    public boolean isValidCity(String value) {
+        return city.test(value);
+    }
+
+    @Override
+    public boolean hasDefaultRule(CustomerField field) {
+        return !configuredFields.contains(field);
+    }
+
+    private static FieldRule compile(CustomerField field, Map<CustomerField, String> rules) {
+        String spec = rules.getOrDefault(field, DEFAULT_RULES.get(field));
+        try {
+            FieldRule rule = FieldRule.compile(spec);
+            log.info("Validation rule of {}: {}", field.fieldName(), rule);
+            return rule;
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid validation rule of " + field.fieldName() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private static Map<CustomerField, String> rules(String... specs) {
+        Map<CustomerField, String> rules = new EnumMap<>(CustomerField.class);
+        CustomerField[] fields = CustomerField.values();
+        for (int i = 0; i < fields.length; i++) {
+            if (!specs[i].isBlank()) {
+                rules.put(fields[i], specs[i]);
+            }
+        }
+        return rules;
+    }
+}
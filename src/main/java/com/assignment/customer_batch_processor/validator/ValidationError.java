@@ -0,0 +1,22 @@
+package com.assignment.customer_batch_processor.validator;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.io.Serializable;
+
+/**
+ * One invalid field of one row, kept in the step execution context for the validation report.
+ * row is the data row number (header excluded) within source, source is only set
+ * for partitioned jobs: the sheet file, or file@startOffset for a byte range.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ValidationError(String source, long row, String field, String reason) implements Serializable {
+
+    public ValidationError(long row, String field, String reason) {
+        this(null, row, field, reason);
+    }
+
+    public ValidationError withSource(String source) {
+        return new ValidationError(source, row, field, reason);
+    }
+}
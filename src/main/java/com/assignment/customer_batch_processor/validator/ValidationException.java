@@ -1,8 +1,35 @@
 package com.assignment.customer_batch_processor.validator;
 
+import com.assignment.customer_batch_processor.Customer_Entity.Customer;
+
+import java.util.List;
+
 public class ValidationException extends RuntimeException{
 
+    private final transient List<ValidationError> errors;
+
     public ValidationException(String message) {
         super(message);
+        this.errors = List.of();
+    }
+
+    /**
+     * Every invalid field of one row, the message is the first reason.
+     * Invalid rows are data, not bugs: no stack trace is captured.
+     */
+    public ValidationException(List<ValidationError> errors) {
+        super(errors.getFirst().reason(), null, false, false);
+        this.errors = List.copyOf(errors);
+    }
+
+    /**
+     * Exception for a row whose normalizeAndValidate result is not 0
+     */
+    public static ValidationException of(Customer customer, int invalidFields) {
+        return new ValidationException(CustomerField.errors(customer, invalidFields));
+    }
+
+    public List<ValidationError> getErrors() {
+        return errors;
     }
 }
@@ -0,0 +1,53 @@
+package com.assignment.customer_batch_processor.validator;
+
+import jdk.incubator.vector.ShortVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Column scan in SIMD lanes of the preferred vector size (8 to 32 chars per step, by CPU).
+ * Chars are loaded as signed shorts: everything from U+0080 up is either negative or above
+ * the ASCII ranges of the classes, so no character outside ASCII can pass.
+ * Only loaded when the jdk.incubator.vector module is present, the tail shorter than
+ * one vector is scanned by the scalar code.
+ */
+final class VectorColumnScanner implements ColumnarCustomerValidator.ColumnScanner {
+
+    private static final VectorSpecies<Short> SPECIES = ShortVector.SPECIES_PREFERRED;
+
+    @Override
+    public int mismatch(char[] chars, int from, int to, ColumnarCustomerValidator.CharClass charClass) {
+        int i = from;
+        for (int bound = from + SPECIES.loopBound(to - from); i < bound; i += SPECIES.length()) {
+            ShortVector vector = ShortVector.fromCharArray(SPECIES, chars, i);
+            VectorMask<Short> outside = charClass == ColumnarCustomerValidator.CharClass.DIGITS
+                    ? outsideDigits(vector)
+                    : outsideLettersAndSpaces(vector);
+            if (outside.anyTrue()) {
+                return i + outside.firstTrue();
+            }
+        }
+        return ColumnarCustomerValidator.ColumnScanner.SCALAR.mismatch(chars, i, to, charClass);
+    }
+
+    private static VectorMask<Short> outsideDigits(ShortVector vector) {
+        return vector.compare(VectorOperators.LT, (short) '0')
+                .or(vector.compare(VectorOperators.GT, (short) '9'));
+    }
+
+    // Setting bit 0x20 maps A-Z onto a-z and no other character into a-z
+    private static VectorMask<Short> outsideLettersAndSpaces(ShortVector vector) {
+        ShortVector lower = vector.or((short) 0x20);
+        VectorMask<Short> letter = lower.compare(VectorOperators.GE, (short) 'a')
+                .and(lower.compare(VectorOperators.LE, (short) 'z'));
+        VectorMask<Short> space = vector.compare(VectorOperators.EQ, (short) ' ')
+                .or(vector.compare(VectorOperators.GE, (short) '\t').and(vector.compare(VectorOperators.LE, (short) '\r')));
+        return letter.or(space).not();
+    }
+
+    @Override
+    public String toString() {
+        return SPECIES.length() + " chars per vector";
+    }
+}
@@ -0,0 +1,131 @@
+package com.assignment.customer_batch_processor.benchmark;
+
+import com.assignment.customer_batch_processor.Customer_Entity.Customer;
+import com.assignment.customer_batch_processor.validator.ColumnarCustomerValidator;
+import com.assignment.customer_batch_processor.validator.CustomerValidator;
+import com.assignment.customer_batch_processor.validator.FastCustomerValidator;
+import com.assignment.customer_batch_processor.validator.RuleBasedCustomerValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.batch.item.Chunk;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation of one chunk: per-row regex checks, per-row scanning checks (hand-written and
+ * compiled from the default rules of RuleBasedCustomerValidator), and the columnar
+ * validator with the Vector API and with its scalar fallback. Every benchmark answers the same
+ * question, how many rows of the chunk are valid; one row in invalidEvery has an invalid field.
+ *
+ * Not a unit test, run it after mvn test-compile:
+ * java --add-modules jdk.incubator.vector -cp target/test-classes:target/classes:$(cat classpath.txt)
+ *      org.openjdk.jmh.Main CustomerValidationBenchmark
+ * with classpath.txt from mvn dependency:build-classpath -Dmdep.outputFile=classpath.txt
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "--add-modules=jdk.incubator.vector")
+public class CustomerValidationBenchmark {
+
+    @Param({"1024"})
+    int chunkSize;
+
+    @Param({"20"})
+    int invalidEvery;
+
+    private Chunk<Customer> chunk;
+    private final CustomerValidator regex = new CustomerValidator();
+    private final CustomerValidator fast = new FastCustomerValidator();
+    private final CustomerValidator rules = new RuleBasedCustomerValidator(Map.of());
+    private ColumnarCustomerValidator columnarVector;
+    private ColumnarCustomerValidator columnarScalar;
+
+    @Setup
+    public void setup() {
+        columnarVector = new ColumnarCustomerValidator(fast, true);
+        columnarScalar = new ColumnarCustomerValidator(fast, false);
+
+        Random random = new Random(1L);
+        List<Customer> customers = new ArrayList<>(chunkSize);
+        for (int i = 0; i < chunkSize; i++) {
+            Customer customer = new Customer();
+            customer.setName("Customer Name " + (char) ('A' + random.nextInt(26)));
+            customer.setEmail("customer" + i + "@example.com");
+            customer.setPhoneNumber(String.valueOf(9_000_000_000L + random.nextInt(999_999_999)));
+            customer.setAadhaarNumber(String.valueOf(100_000_000_000L + random.nextInt(999_999_999)));
+            customer.setPanNumber("ABCDE" + (1000 + random.nextInt(9000)) + "F");
+            customer.setState("Karnataka");
+            customer.setCity("Bangalore");
+            if (i % invalidEvery == 0) {
+                customer.setPhoneNumber("98765x3210");
+            }
+            customers.add(customer);
+        }
+        chunk = new Chunk<>(customers);
+    }
+
+    @Benchmark
+    public int regexPerRow() {
+        return validRows(regex);
+    }
+
+    @Benchmark
+    public int scanningPerRow() {
+        return validRows(fast);
+    }
+
+    @Benchmark
+    public int rulesPerRow() {
+        return validRows(rules);
+    }
+
+    @Benchmark
+    public int columnarVectorApi() {
+        return count(columnarVector.validate(chunk));
+    }
+
+    @Benchmark
+    public int columnarScalar() {
+        return count(columnarScalar.validate(chunk));
+    }
+
+    private int validRows(CustomerValidator validator) {
+        int valid = 0;
+        for (Customer customer : chunk) {
+            if (validator.isValidName(customer.getName())
+                    && validator.isValidEmail(customer.getEmail())
+                    && validator.isValidMobile(customer.getPhoneNumber())
+                    && validator.isValidAadhaar(customer.getAadhaarNumber())
+                    && validator.isValidPAN(customer.getPanNumber())
+                    && validator.isValidState(customer.getState())
+                    && validator.isValidCity(customer.getCity())) {
+                valid++;
+            }
+        }
+        return valid;
+    }
+
+    private static int count(long[] bitmap) {
+        int valid = 0;
+        for (long word : bitmap) {
+            valid += Long.bitCount(word);
+        }
+        return valid;
+    }
+}
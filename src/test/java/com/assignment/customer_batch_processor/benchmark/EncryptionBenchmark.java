@@ -0,0 +1,93 @@
+package com.assignment.customer_batch_processor.benchmark;
+
+import com.assignment.customer_batch_processor.service.EncryptionService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Aadhaar and PAN encryption of one chunk: a new Cipher and key per value (EncryptionService before
+ * the cached key and cipher), encrypt per value, and encryptAll per column.
+ *
+ * Not a unit test, run it after mvn test-compile:
+ * java -cp target/test-classes:target/classes:$(cat classpath.txt) org.openjdk.jmh.Main EncryptionBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class EncryptionBenchmark {
+
+    private static final String KEY = "MySecretKey12345";
+
+    @Param({"1024"})
+    int chunkSize;
+
+    private String[] aadhaarNumbers;
+    private String[] panNumbers;
+    private final EncryptionService encryptionService = new EncryptionService();
+
+    @Setup
+    public void setup() {
+        ReflectionTestUtils.setField(encryptionService, "secretKey", KEY);
+        Random random = new Random(1L);
+        aadhaarNumbers = new String[chunkSize];
+        panNumbers = new String[chunkSize];
+        for (int i = 0; i < chunkSize; i++) {
+            aadhaarNumbers[i] = String.valueOf(100_000_000_000L + random.nextInt(999_999_999));
+            panNumbers[i] = "ABCDE" + (1000 + random.nextInt(9000)) + "F";
+        }
+    }
+
+    @Benchmark
+    public String[] newCipherPerValue() throws Exception {
+        String[] encrypted = new String[2 * chunkSize];
+        for (int i = 0; i < chunkSize; i++) {
+            encrypted[2 * i] = encryptWithNewCipher(aadhaarNumbers[i]);
+            encrypted[2 * i + 1] = encryptWithNewCipher(panNumbers[i]);
+        }
+        return encrypted;
+    }
+
+    @Benchmark
+    public String[] encryptPerValue() {
+        String[] encrypted = new String[2 * chunkSize];
+        for (int i = 0; i < chunkSize; i++) {
+            encrypted[2 * i] = encryptionService.encrypt(aadhaarNumbers[i]);
+            encrypted[2 * i + 1] = encryptionService.encrypt(panNumbers[i]);
+        }
+        return encrypted;
+    }
+
+    @Benchmark
+    public String[] encryptAll() {
+        String[] encrypted = new String[chunkSize];
+        String[] encryptedPan = new String[chunkSize];
+        encryptionService.encryptAll(aadhaarNumbers, encrypted);
+        encryptionService.encryptAll(panNumbers, encryptedPan);
+        return encryptedPan;
+    }
+
+    private static String encryptWithNewCipher(String plainText) throws Exception {
+        Cipher cipher = Cipher.getInstance("AES");
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec(KEY.getBytes(), "AES"));
+        return Base64.getEncoder().encodeToString(cipher.doFinal(plainText.getBytes()));
+    }
+}
@@ -0,0 +1,99 @@
+package com.assignment.customer_batch_processor.testpackage;
+
+import com.assignment.customer_batch_processor.Utilities.AdaptiveChunkCompletionPolicy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.scope.context.ChunkContext;
+import org.springframework.batch.core.scope.context.StepContext;
+import org.springframework.batch.repeat.RepeatContext;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveChunkCompletionPolicyTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AdaptiveChunkCompletionPolicy policy;
+    private String stepName;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        policy = new AdaptiveChunkCompletionPolicy(1000, 100, 5000, Duration.ofMillis(500), 0.8, meterRegistry);
+        // Sizes are remembered per step name, every test gets its own step
+        stepName = "step-" + UUID.randomUUID();
+        policy.beforeChunk(new ChunkContext(new StepContext(MetaDataInstanceFactory.createStepExecution(stepName, 1L))));
+    }
+
+    @Test
+    void testAdjust_FastChunks_GrowAtMostTwiceUpToMax() {
+        // 1000 items in 50ms: 10000 would take 500ms, the size doubles at most
+        assertEquals(2000, policy.adjust(1000, millis(50), 0.1));
+        assertEquals(4000, policy.adjust(2000, millis(100), 0.1));
+        assertEquals(5000, policy.adjust(4000, millis(200), 0.1));
+    }
+
+    @Test
+    void testAdjust_SlowChunk_MovesHalfwayDown() {
+        // 1000 items in 1s: 500 would take 500ms, halfway from 1000 is 750
+        assertEquals(750, policy.adjust(1000, millis(1000), 0.1));
+    }
+
+    @Test
+    void testAdjust_HeapPressure_HalvesDownToMin() {
+        assertEquals(500, policy.adjust(1000, millis(10), 0.9));
+        assertEquals(250, policy.adjust(500, millis(10), 0.9));
+        assertEquals(125, policy.adjust(250, millis(10), 0.9));
+        assertEquals(100, policy.adjust(125, millis(10), 0.9));
+    }
+
+    @Test
+    void testIsComplete_UsesSizeAtChunkStart() {
+        policy.adjust(1000, millis(2000), 0.1);
+        int size = policy.currentSize();
+
+        RepeatContext context = policy.start(null);
+        for (int i = 0; i < size - 1; i++) {
+            policy.update(context);
+        }
+        assertFalse(policy.isComplete(context));
+        policy.update(context);
+        assertTrue(policy.isComplete(context));
+    }
+
+    @Test
+    void testAdjust_SizeExposedAsGauge() {
+        policy.adjust(1000, millis(50), 0.1);
+
+        assertEquals(2000, meterRegistry.get("customer.batch.chunk.size").tag("step", stepName).gauge().value());
+        assertEquals(100, meterRegistry.get("customer.batch.chunk.size.min").gauge().value());
+        assertEquals(5000, meterRegistry.get("customer.batch.chunk.size.max").gauge().value());
+    }
+
+    @Test
+    void testAdjust_ConcurrentExecutionsOfStep_SizesKeptApart() {
+        AdaptiveChunkCompletionPolicy other = new AdaptiveChunkCompletionPolicy(1000, 100, 5000, Duration.ofMillis(500), 0.8, meterRegistry);
+        other.beforeChunk(new ChunkContext(new StepContext(MetaDataInstanceFactory.createStepExecution(stepName, 2L))));
+
+        assertEquals(2000, policy.adjust(1000, millis(50), 0.1));
+        assertEquals(500, other.adjust(1000, millis(10), 0.9));
+        assertEquals(4000, policy.adjust(2000, millis(100), 0.1));
+
+        assertEquals(4000, policy.currentSize());
+        assertEquals(500, other.currentSize());
+
+        // The next execution starts from the last size chosen for the step
+        AdaptiveChunkCompletionPolicy next = new AdaptiveChunkCompletionPolicy(1000, 100, 5000, Duration.ofMillis(500), 0.8, meterRegistry);
+        next.beforeChunk(new ChunkContext(new StepContext(MetaDataInstanceFactory.createStepExecution(stepName, 3L))));
+        assertEquals(4000, next.currentSize());
+    }
+
+    private static long millis(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
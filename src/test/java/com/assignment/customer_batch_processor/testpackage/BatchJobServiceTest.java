@@ -1,15 +1,26 @@
 package com.assignment.customer_batch_processor.testpackage;
 
 
+import com.assignment.customer_batch_processor.Utilities.CustomerRowChannelRegistry;
+import com.assignment.customer_batch_processor.Utilities.JobAdmissionScheduler;
 import com.assignment.customer_batch_processor.service.BatchJobService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.batch.core.explore.JobExplorer;
 import org.mockito.*;
 import org.springframework.batch.core.*;
 import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
 
 import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -22,12 +33,34 @@ class BatchJobServiceTest {
     @Mock
     private JobLauncher jobLauncher;
 
+    @Mock
+    private JobLauncher asyncJobLauncher;
+
     @Mock
     private Job csvReadingJob;
 
     @Mock
     private JobExplorer jobExplorer;
 
+    @Mock
+    private JobRepository jobRepository;
+
+    @Mock
+    private CustomerRowChannelRegistry customerRowChannelRegistry;
+
+    // Jobs admitted by the scheduler, the test decides whether the job executor takes them
+    private final List<Runnable> admitted = new ArrayList<>();
+    private boolean executorRefuses;
+    private long executionIds;
+
+    @Spy
+    private JobAdmissionScheduler jobAdmissionScheduler = new JobAdmissionScheduler(task -> {
+        if (executorRefuses) {
+            throw new TaskRejectedException("executor shut down");
+        }
+        admitted.add(task);
+    }, 1, 10, 2, new SimpleMeterRegistry());
+
     @BeforeEach
     void setup() {
         MockitoAnnotations.openMocks(this);
@@ -80,4 +113,97 @@ class BatchJobServiceTest {
 
         assertTrue(exception.getMessage().contains("Batch job execution failed"));
     }
+
+    @Test
+    void testProcessCustomerFile_AsyncLaunch_ReturnsStartedExecution() throws Exception {
+        File tempFile = File.createTempFile("test", ".csv");
+        tempFile.deleteOnExit();
+        ReflectionTestUtils.setField(batchJobService, "asyncLaunch", true);
+        ReflectionTestUtils.setField(batchJobService, "smallFileMaxSize", DataSize.ofMegabytes(10));
+
+        JobExecution started = new JobExecution(1L);
+        started.setStatus(BatchStatus.STARTING);
+        when(asyncJobLauncher.run(eq(csvReadingJob), any(JobParameters.class))).thenReturn(started);
+
+        JobExecution jobExecution = batchJobService.processCustomerFile(tempFile.getAbsolutePath());
+
+        assertTrue(jobExecution.getStatus().isRunning());
+        verify(asyncJobLauncher, times(1)).run(eq(csvReadingJob), any(JobParameters.class));
+        verify(jobAdmissionScheduler).ticket(null, JobAdmissionScheduler.Lane.SMALL);
+        verifyNoInteractions(jobLauncher);
+    }
+
+    @Test
+    void testProcessCustomerFile_ExecutorRefusesQueuedJob_ExecutionFailed() throws Exception {
+        File tempFile = File.createTempFile("test", ".csv");
+        tempFile.deleteOnExit();
+        ReflectionTestUtils.setField(batchJobService, "asyncLaunch", true);
+        ReflectionTestUtils.setField(batchJobService, "smallFileMaxSize", DataSize.ofMegabytes(10));
+        when(asyncJobLauncher.run(eq(csvReadingJob), any(JobParameters.class))).thenAnswer(call -> {
+            jobAdmissionScheduler.execute(() -> { });
+            JobExecution queued = new JobExecution(++executionIds);
+            queued.setStatus(BatchStatus.STARTING);
+            return queued;
+        });
+
+        batchJobService.processCustomerFile(tempFile.getAbsolutePath());
+        JobExecution queued = batchJobService.processCustomerFile(tempFile.getAbsolutePath(), Map.of("channelId", "channel-2"));
+        assertEquals(BatchStatus.STARTING, queued.getStatus());
+
+        executorRefuses = true;
+        admitted.removeFirst().run();
+
+        assertEquals(BatchStatus.FAILED, queued.getStatus());
+        assertEquals(ExitStatus.FAILED.getExitCode(), queued.getExitStatus().getExitCode());
+        assertNotNull(queued.getEndTime());
+        verify(jobRepository).update(queued);
+        verify(customerRowChannelRegistry).close("channel-2");
+    }
+
+    @Test
+    void testFailAbandonedExecutions_RunningExecutionsOfPreviousRun_Failed() {
+        JobExecution starting = new JobExecution(1L);
+        starting.setStatus(BatchStatus.STARTING);
+        JobExecution started = new JobExecution(2L);
+        started.setStatus(BatchStatus.STARTED);
+        StepExecution step = started.createStepExecution("csvReadingStep");
+        step.setStatus(BatchStatus.STARTED);
+        when(jobExplorer.getJobNames()).thenReturn(List.of("csvReadingJob"));
+        when(jobExplorer.findRunningJobExecutions("csvReadingJob")).thenReturn(Set.of(starting, started));
+        ReflectionTestUtils.setField(batchJobService, "failAbandonedExecutions", true);
+
+        ReflectionTestUtils.invokeMethod(batchJobService, "failAbandonedExecutions");
+
+        for (JobExecution execution : List.of(starting, started)) {
+            assertEquals(BatchStatus.FAILED, execution.getStatus());
+            assertNotNull(execution.getEndTime());
+            verify(jobRepository).update(execution);
+        }
+        assertEquals(BatchStatus.FAILED, step.getStatus());
+        verify(jobRepository).update(step);
+    }
+
+    @Test
+    void testFailAbandonedExecutions_Disabled_RepositoryNotTouched() {
+        ReflectionTestUtils.setField(batchJobService, "failAbandonedExecutions", false);
+
+        ReflectionTestUtils.invokeMethod(batchJobService, "failAbandonedExecutions");
+
+        verifyNoInteractions(jobExplorer, jobRepository);
+    }
+
+    @Test
+    void testProcessCustomerFile_JobQueueFull_Rejected() throws Exception {
+        File tempFile = File.createTempFile("test", ".csv");
+        tempFile.deleteOnExit();
+        ReflectionTestUtils.setField(batchJobService, "asyncLaunch", true);
+        ReflectionTestUtils.setField(batchJobService, "smallFileMaxSize", DataSize.ofMegabytes(10));
+        doThrow(new TaskRejectedException("Job queue is full")).when(jobAdmissionScheduler).ticket(any(), any());
+
+        RuntimeException exception = assertThrows(RuntimeException.class,
+                () -> batchJobService.processCustomerFile(tempFile.getAbsolutePath()));
+
+        assertInstanceOf(TaskRejectedException.class, exception.getCause());
+        verifyNoInteractions(asyncJobLauncher);
+    }
 }
@@ -0,0 +1,96 @@
+package com.assignment.customer_batch_processor.testpackage;
+
+import com.assignment.customer_batch_processor.Customer_Entity.Customer;
+import com.assignment.customer_batch_processor.Utilities.BinaryCustomerFileWriter;
+import com.assignment.customer_batch_processor.Utilities.BinaryCustomerItemReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BinaryCustomerItemReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testRead_RoundTripsEveryField() throws Exception {
+        String file = tempDir.resolve("customers.bin").toString();
+        try (BinaryCustomerFileWriter writer = new BinaryCustomerFileWriter(file)) {
+            writer.writeRow(List.of("Ravi Kumar", "ravi@example.com", "9876543210", "012345678901",
+                    "ABCDE1234F", "Karnataka", "Bengaluru"));
+            writer.writeRow(List.of("Zoë, \"Jr\"", "", "98-765", "00"));
+        }
+
+        BinaryCustomerItemReader reader = new BinaryCustomerItemReader(file);
+        reader.open(new ExecutionContext());
+
+        Customer first = reader.read();
+        assertEquals("Ravi Kumar", first.getName());
+        assertEquals("ravi@example.com", first.getEmail());
+        assertEquals("9876543210", first.getPhoneNumber());
+        assertEquals("012345678901", first.getAadhaarNumber());
+        assertEquals("ABCDE1234F", first.getPanNumber());
+        assertEquals("Karnataka", first.getState());
+        assertEquals("Bengaluru", first.getCity());
+
+        Customer second = reader.read();
+        assertEquals("Zoë, \"Jr\"", second.getName());
+        assertEquals("", second.getEmail());
+        assertEquals("98-765", second.getPhoneNumber());
+        assertEquals("00", second.getAadhaarNumber());
+        assertEquals("", second.getCity());
+
+        assertNull(reader.read());
+        reader.close();
+    }
+
+    @Test
+    void testOpen_Restart_SkipsReadRows() throws Exception {
+        String file = tempDir.resolve("customers.bin").toString();
+        try (BinaryCustomerFileWriter writer = new BinaryCustomerFileWriter(file)) {
+            for (int i = 0; i < 5; i++) {
+                writer.writeRow(List.of("Customer " + i, "c" + i + "@example.com"));
+            }
+        }
+
+        ExecutionContext context = new ExecutionContext();
+        BinaryCustomerItemReader reader = new BinaryCustomerItemReader(file);
+        reader.open(context);
+        reader.read();
+        reader.read();
+        reader.update(context);
+        reader.close();
+
+        BinaryCustomerItemReader restarted = new BinaryCustomerItemReader(file);
+        restarted.open(context);
+        assertEquals("Customer 2", restarted.read().getName());
+        restarted.close();
+    }
+
+    @Test
+    void testWriteRow_SmallerThanCsv() throws Exception {
+        String file = tempDir.resolve("customers.bin").toString();
+        String csvRow = "Ravi Kumar,ravi@example.com,9876543210,123456789012,ABCDE1234F,Karnataka,Bengaluru\n";
+        try (BinaryCustomerFileWriter writer = new BinaryCustomerFileWriter(file)) {
+            for (int i = 0; i < 100; i++) {
+                writer.writeRow(List.of(csvRow.trim().split(",")));
+            }
+        }
+
+        assertTrue(Files.size(Path.of(file)) < 100L * csvRow.length());
+    }
+
+    @Test
+    void testOpen_NotASpillFile_ThrowsException() throws Exception {
+        Path file = Files.writeString(tempDir.resolve("customers.bin"), "name,email\n");
+
+        BinaryCustomerItemReader reader = new BinaryCustomerItemReader(file.toString());
+        assertThrows(Exception.class, () -> reader.open(new ExecutionContext()));
+    }
+}
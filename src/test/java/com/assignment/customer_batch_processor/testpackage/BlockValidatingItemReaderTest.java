@@ -0,0 +1,129 @@
+package com.assignment.customer_batch_processor.testpackage;
+
+import com.assignment.customer_batch_processor.Customer_Entity.Customer;
+import com.assignment.customer_batch_processor.Utilities.BlockValidatingItemReader;
+import com.assignment.customer_batch_processor.validator.ColumnarCustomerValidator;
+import com.assignment.customer_batch_processor.validator.FastCustomerValidator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BlockValidatingItemReaderTest {
+
+    private final ColumnarCustomerValidator columnarValidator = new ColumnarCustomerValidator(new FastCustomerValidator(), false);
+    private final List<Consumer<List<Customer>>> checks = List.of(columnarValidator::markPrevalidated);
+
+    @BeforeEach
+    void setup() {
+        StepSynchronizationManager.register(MetaDataInstanceFactory.createStepExecution());
+    }
+
+    @AfterEach
+    void cleanup() {
+        StepSynchronizationManager.close();
+    }
+
+    @Test
+    void testRead_MarksValidRowsPrevalidated() throws Exception {
+        BlockValidatingItemReader reader = new BlockValidatingItemReader(
+                new CustomerListReader(List.of("Ravi", "Ravi1", "Asha", "Asha1", "Kiran")), checks, 2);
+        reader.open(new ExecutionContext());
+
+        List<Customer> customers = readAll(reader);
+
+        assertEquals(List.of("Ravi", "Ravi1", "Asha", "Asha1", "Kiran"), customers.stream().map(Customer::getName).toList());
+        assertEquals(List.of(true, false, true, false, true), customers.stream().map(Customer::isPrevalidated).toList());
+    }
+
+    @Test
+    void testRead_ReadError_ThrownAfterEarlierRows() throws Exception {
+        BlockValidatingItemReader reader = new BlockValidatingItemReader(
+                new CustomerListReader(List.of("Ravi", "FAIL", "Asha")), checks, 10);
+        reader.open(new ExecutionContext());
+
+        assertEquals("Ravi", reader.read().getName());
+        assertThrows(IllegalStateException.class, reader::read);
+        assertEquals("Asha", reader.read().getName());
+        assertNull(reader.read());
+    }
+
+    @Test
+    void testUpdate_MiddleOfBlock_RestartResumesAtNextRow() throws Exception {
+        List<String> names = List.of("Ravi", "Asha", "Kiran", "Meena", "Arun");
+        BlockValidatingItemReader reader = new BlockValidatingItemReader(new CustomerListReader(names), checks, 4);
+        ExecutionContext context = new ExecutionContext();
+        reader.open(context);
+        reader.read();
+        reader.read();
+        reader.update(context);
+        reader.close();
+
+        assertEquals(2, context.getInt(BlockValidatingItemReader.CONSUMED_KEY));
+
+        BlockValidatingItemReader restarted = new BlockValidatingItemReader(new CustomerListReader(names), checks, 4);
+        restarted.open(context);
+        assertEquals(List.of("Kiran", "Meena", "Arun"), readAll(restarted).stream().map(Customer::getName).toList());
+    }
+
+    private static List<Customer> readAll(ItemStreamReader<Customer> reader) throws Exception {
+        List<Customer> customers = new ArrayList<>();
+        Customer customer;
+        while ((customer = reader.read()) != null) {
+            customers.add(customer);
+        }
+        return customers;
+    }
+
+    /**
+     * Restartable reader of customers with the given names, "FAIL" throws
+     */
+    private static class CustomerListReader extends AbstractItemCountingItemStreamItemReader<Customer> {
+
+        private final List<String> names;
+        private int next;
+
+        CustomerListReader(List<String> names) {
+            this.names = names;
+            setName("customerListReader");
+        }
+
+        @Override
+        protected Customer doRead() {
+            if (next == names.size()) {
+                return null;
+            }
+            String name = names.get(next++);
+            if (name.equals("FAIL")) {
+                throw new IllegalStateException("unreadable row");
+            }
+            Customer customer = new Customer();
+            customer.setName(name);
+            return customer;
+        }
+
+        @Override
+        protected void doOpen() {
+            next = 0;
+        }
+
+        @Override
+        protected void doClose() {
+        }
+
+        @Override
+        protected void jumpToItem(int itemIndex) {
+            next = itemIndex;
+        }
+    }
+}
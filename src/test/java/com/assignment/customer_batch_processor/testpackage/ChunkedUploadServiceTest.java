@@ -0,0 +1,143 @@
+package com.assignment.customer_batch_processor.testpackage;
+
+import com.assignment.customer_batch_processor.Customer_Dto.ChunkedUploadRequest;
+import com.assignment.customer_batch_processor.service.ChunkedUploadService;
+import com.assignment.customer_batch_processor.service.ChunkedUploadService.UploadNotFoundException;
+import com.assignment.customer_batch_processor.service.ChunkedUploadService.UploadSession;
+import com.assignment.customer_batch_processor.service.StagedUpload;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.io.ByteArrayInputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.HexFormat;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChunkedUploadServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ChunkedUploadService service;
+    private byte[] content;
+
+    @BeforeEach
+    void setup() {
+        service = new ChunkedUploadService();
+        ReflectionTestUtils.setField(service, "chunkDir", tempDir.resolve("chunks").toString());
+        ReflectionTestUtils.setField(service, "uploadDir", tempDir.resolve("uploads").toString());
+        ReflectionTestUtils.setField(service, "maxFileSize", DataSize.ofMegabytes(1));
+        ReflectionTestUtils.setField(service, "sessionTtl", Duration.ofHours(1));
+
+        content = new byte[2500];
+        for (int i = 0; i < content.length; i++) {
+            content[i] = (byte) (i * 31);
+        }
+    }
+
+    @Test
+    void testComplete_PartsOutOfOrder_AssemblesFile() throws Exception {
+        UploadSession session = service.init(new ChunkedUploadRequest("customers.xlsx", content.length, 1000, sha256(content)));
+        assertEquals(3, session.getPartCount());
+
+        service.writePart(session.getUploadId(), 3, part(2000, 2500));
+        service.writePart(session.getUploadId(), 1, part(0, 1000));
+        assertEquals(List.of(2), session.getMissingParts());
+
+        service.writePart(session.getUploadId(), 2, part(1000, 2000));
+
+        StagedUpload upload = service.complete(session.getUploadId());
+        assertArrayEquals(content, Files.readAllBytes(Path.of(upload.filePath())));
+        assertTrue(upload.filePath().endsWith("_customers.xlsx"));
+        assertEquals(sha256(content), upload.sha256());
+    }
+
+    @Test
+    void testComplete_MissingPart_ThrowsException() throws Exception {
+        UploadSession session = service.init(new ChunkedUploadRequest("customers.xlsx", content.length, 1000, null));
+        service.writePart(session.getUploadId(), 1, part(0, 1000));
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> service.complete(session.getUploadId()));
+        assertTrue(exception.getMessage().contains("missing parts [2, 3]"));
+    }
+
+    @Test
+    void testComplete_ChecksumMismatch_ThrowsException() throws Exception {
+        UploadSession session = service.init(new ChunkedUploadRequest("customers.xlsx", content.length, 2500, "00"));
+        service.writePart(session.getUploadId(), 1, part(0, 2500));
+
+        IllegalStateException exception = assertThrows(IllegalStateException.class,
+                () -> service.complete(session.getUploadId()));
+        assertTrue(exception.getMessage().contains("Checksum mismatch"));
+    }
+
+    @Test
+    void testWritePart_WrongSize_ThrowsException() throws Exception {
+        UploadSession session = service.init(new ChunkedUploadRequest("customers.xlsx", content.length, 1000, null));
+
+        assertThrows(IllegalArgumentException.class, () -> service.writePart(session.getUploadId(), 1, part(0, 999)));
+        assertThrows(IllegalArgumentException.class, () -> service.writePart(session.getUploadId(), 4, part(0, 500)));
+    }
+
+    @Test
+    void testComplete_CalledTwice_SecondCallAndLatePartsAreRejected() throws Exception {
+        UploadSession session = service.init(new ChunkedUploadRequest("customers.xlsx", content.length, 2500, null));
+        service.writePart(session.getUploadId(), 1, part(0, 2500));
+
+        service.complete(session.getUploadId());
+
+        assertThrows(UploadNotFoundException.class, () -> service.complete(session.getUploadId()));
+        assertThrows(UploadNotFoundException.class, () -> service.writePart(session.getUploadId(), 1, part(0, 2500)));
+    }
+
+    @Test
+    void testComplete_FailedCheck_KeepsTheSession() throws Exception {
+        UploadSession session = service.init(new ChunkedUploadRequest("customers.xlsx", content.length, 1000, null));
+        service.writePart(session.getUploadId(), 1, part(0, 1000));
+        assertThrows(IllegalStateException.class, () -> service.complete(session.getUploadId()));
+
+        service.writePart(session.getUploadId(), 2, part(1000, 2000));
+        service.writePart(session.getUploadId(), 3, part(2000, 2500));
+
+        StagedUpload upload = service.complete(session.getUploadId());
+        assertArrayEquals(content, Files.readAllBytes(Path.of(upload.filePath())));
+    }
+
+    @Test
+    void testExpireSessions_IdleSessionAndOrphanedFile_AreDeleted() throws Exception {
+        UploadSession idle = service.init(new ChunkedUploadRequest("customers.xlsx", content.length, 1000, null));
+        UploadSession active = service.init(new ChunkedUploadRequest("customers.xlsx", content.length, 1000, null));
+        Path orphan = tempDir.resolve("chunks").resolve("previous-run.part");
+        Files.createFile(orphan);
+        Files.setLastModifiedTime(orphan, FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+        ReflectionTestUtils.setField(idle, "lastAccess", Instant.now().minus(Duration.ofHours(2)));
+
+        service.expireSessions();
+
+        assertThrows(UploadNotFoundException.class, () -> service.getSession(idle.getUploadId()));
+        assertFalse(Files.exists(idle.getAssemblyFile()));
+        assertFalse(Files.exists(orphan));
+        assertSame(active, service.getSession(active.getUploadId()));
+        assertTrue(Files.exists(active.getAssemblyFile()));
+    }
+
+    private ByteArrayInputStream part(int from, int to) {
+        return new ByteArrayInputStream(Arrays.copyOfRange(content, from, to));
+    }
+
+    private static String sha256(byte[] bytes) throws Exception {
+        return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(bytes));
+    }
+}
@@ -0,0 +1,117 @@
+package com.assignment.customer_batch_processor.testpackage;
+
+import com.assignment.customer_batch_processor.service.ConvertedFileCache;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConvertedFileCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private ConvertedFileCache cache;
+
+    @BeforeEach
+    void setup() throws Exception {
+        cache = new ConvertedFileCache();
+        ReflectionTestUtils.setField(cache, "enabled", true);
+        ReflectionTestUtils.setField(cache, "cacheDir", tempDir.resolve("cache").toString());
+        ReflectionTestUtils.setField(cache, "maxSize", DataSize.ofBytes(250));
+        cache.loadIndex();
+    }
+
+    @Test
+    void testCopyTo_StoredHash_ReturnsCachedContent() throws Exception {
+        cache.store("aaa.csv", csv("first.csv", 100));
+
+        Path target = tempDir.resolve("copy.csv");
+        assertTrue(cache.copyTo("aaa.csv", target));
+        assertEquals(100, Files.size(target));
+        assertFalse(cache.copyTo("bbb.csv", tempDir.resolve("missing.csv")));
+    }
+
+    @Test
+    void testStore_OverMaxSize_EvictsLeastRecentlyUsed() throws Exception {
+        cache.store("aaa.csv", csv("a.csv", 100));
+        cache.store("bbb.csv", csv("b.csv", 100));
+
+        // Touch aaa so bbb becomes the eldest entry
+        assertTrue(cache.copyTo("aaa.csv", tempDir.resolve("a-copy.csv")));
+        cache.store("ccc.csv", csv("c.csv", 100));
+
+        assertEquals(2, cache.size());
+        assertEquals(200, cache.getTotalBytes());
+        assertTrue(cache.copyTo("aaa.csv", tempDir.resolve("a-again.csv")));
+        assertFalse(cache.copyTo("bbb.csv", tempDir.resolve("b-copy.csv")));
+        assertFalse(Files.exists(tempDir.resolve("cache").resolve("bbb.csv")));
+    }
+
+    @Test
+    void testLoadIndex_ExistingEntries_AreRestored() throws Exception {
+        cache.store("aaa.csv", csv("a.csv", 100));
+
+        ConvertedFileCache restarted = new ConvertedFileCache();
+        ReflectionTestUtils.setField(restarted, "enabled", true);
+        ReflectionTestUtils.setField(restarted, "cacheDir", tempDir.resolve("cache").toString());
+        ReflectionTestUtils.setField(restarted, "maxSize", DataSize.ofBytes(250));
+        restarted.loadIndex();
+
+        assertEquals(1, restarted.size());
+        assertTrue(restarted.copyTo("aaa.csv", tempDir.resolve("restored.csv")));
+    }
+
+    @Test
+    void testStore_SameContentConcurrently_CachesItOnce() throws Exception {
+        Path converted = csv("a.csv", 100);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> stores = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                stores.add(executor.submit(() -> {
+                    start.await();
+                    cache.store("aaa.csv", converted);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> store : stores) {
+                store.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(1, cache.size());
+        assertEquals(100, cache.getTotalBytes());
+        try (var files = Files.list(tempDir.resolve("cache"))) {
+            assertEquals(List.of("aaa.csv"), files.map(f -> f.getFileName().toString()).toList());
+        }
+    }
+
+    @Test
+    void testStore_MissingFile_IsNotCachedAndDoesNotThrow() throws Exception {
+        assertDoesNotThrow(() -> cache.store("aaa.csv", tempDir.resolve("gone.csv")));
+
+        assertEquals(0, cache.size());
+        assertFalse(cache.copyTo("aaa.csv", tempDir.resolve("copy.csv")));
+    }
+
+    private Path csv(String name, int size) throws Exception {
+        return Files.write(tempDir.resolve(name), new byte[size]);
+    }
+}
@@ -0,0 +1,65 @@
+package com.assignment.customer_batch_processor.testpackage;
+
+import com.assignment.customer_batch_processor.Customer_Entity.Customer;
+import com.assignment.customer_batch_processor.Utilities.CsvByteRangePartitioner;
+import com.assignment.customer_batch_processor.Utilities.MappedCsvCustomerItemReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvByteRangePartitionerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testPartition_RangesCoverEveryRecordOnce() throws Exception {
+        StringBuilder content = new StringBuilder("name,email\n");
+        for (int i = 0; i < 500; i++) {
+            // Every 7th name has a quoted line break that must not become a range boundary
+            String name = i % 7 == 0 ? "\"Customer\n" + i + "\"" : "Customer " + i;
+            content.append(name).append(",c").append(i).append("@example.com\n");
+        }
+        Path csv = Files.writeString(tempDir.resolve("customers.csv"), content);
+
+        Map<String, ExecutionContext> partitions = new TreeMap<>(new CsvByteRangePartitioner(csv.toString()).partition(4));
+        assertEquals(4, partitions.size());
+
+        List<String> names = new ArrayList<>();
+        for (ExecutionContext context : partitions.values()) {
+            MappedCsvCustomerItemReader reader = new MappedCsvCustomerItemReader(csv.toString(),
+                    context.getLong("startOffset"), context.getLong("endOffset"));
+            reader.open(new ExecutionContext());
+            Customer customer;
+            while ((customer = reader.read()) != null) {
+                names.add(customer.getName());
+            }
+            reader.close();
+        }
+
+        assertEquals(500, names.size());
+        for (int i = 0; i < 500; i++) {
+            assertEquals(i % 7 == 0 ? "Customer\n" + i : "Customer " + i, names.get(i));
+        }
+    }
+
+    @Test
+    void testPartition_HeaderOnly_SingleEmptyRange() throws Exception {
+        Path csv = Files.writeString(tempDir.resolve("customers.csv"), "name,email\n");
+
+        Map<String, ExecutionContext> partitions = new CsvByteRangePartitioner(csv.toString()).partition(4);
+
+        assertEquals(1, partitions.size());
+        ExecutionContext range = partitions.values().iterator().next();
+        assertEquals(range.getLong("startOffset"), range.getLong("endOffset"));
+    }
+}
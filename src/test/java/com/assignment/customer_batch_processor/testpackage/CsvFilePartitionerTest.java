@@ -0,0 +1,31 @@
+package com.assignment.customer_batch_processor.testpackage;
+
+import com.assignment.customer_batch_processor.Utilities.CsvFilePartitioner;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CsvFilePartitionerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testPartition_OnePartitionPerCsvFile() throws Exception {
+        Files.writeString(tempDir.resolve("sheet-002.csv"), "name\n");
+        Files.writeString(tempDir.resolve("sheet-001.csv"), "name\n");
+        Files.writeString(tempDir.resolve("notes.txt"), "ignored");
+
+        Map<String, ExecutionContext> partitions = new CsvFilePartitioner(tempDir.toString()).partition(1);
+
+        assertEquals(2, partitions.size());
+        assertEquals(tempDir.resolve("sheet-001.csv").toString(), partitions.get("partition0").getString("filePath"));
+        assertEquals(tempDir.resolve("sheet-002.csv").toString(), partitions.get("partition1").getString("filePath"));
+    }
+}
@@ -0,0 +1,43 @@
+package com.assignment.customer_batch_processor.testpackage;
+
+import com.assignment.customer_batch_processor.Customer_Entity.Customer;
+import com.assignment.customer_batch_processor.Utilities.CustomerEncryptionProcessor;
+import com.assignment.customer_batch_processor.service.DuplicateDetectionService;
+import com.assignment.customer_batch_processor.service.EncryptionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CustomerEncryptionProcessorTest {
+
+    private CustomerEncryptionProcessor processor;
+    private EncryptionService encryptionServiceMock;
+
+    @BeforeEach
+    void setup() {
+        encryptionServiceMock = mock(EncryptionService.class);
+        processor = new CustomerEncryptionProcessor();
+        processor.encryptionService = encryptionServiceMock;
+        processor.duplicateDetectionService = mock(DuplicateDetectionService.class);
+    }
+
+    @Test
+    void testProcess_EncryptsOnce() throws Exception {
+        Customer customer = new Customer();
+        customer.setAadhaarNumber("123456789012");
+        customer.setPanNumber("ABCDE1234F");
+        when(encryptionServiceMock.encrypt("123456789012")).thenReturn("ENC_AADHAAR");
+        when(encryptionServiceMock.encrypt("ABCDE1234F")).thenReturn("ENC_PAN");
+
+        processor.process(customer);
+        // A retried chunk hands the same customer to the processor again
+        Customer result = processor.process(customer);
+
+        assertEquals("ENC_AADHAAR", result.getAadhaarNumber());
+        assertEquals("ENC_PAN", result.getPanNumber());
+        assertTrue(result.isEncrypted());
+        verify(encryptionServiceMock, times(2)).encrypt(anyString());
+    }
+}
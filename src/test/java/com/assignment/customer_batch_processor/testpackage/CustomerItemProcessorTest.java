@@ -2,6 +2,7 @@ package com.assignment.customer_batch_processor.testpackage;
 
 import com.assignment.customer_batch_processor.Customer_Entity.Customer;
 import com.assignment.customer_batch_processor.Utilities.CustomerItemProcessor;
+import com.assignment.customer_batch_processor.service.DuplicateDetectionService;
 import com.assignment.customer_batch_processor.service.EncryptionService;
 import com.assignment.customer_batch_processor.validator.CustomerValidator;
 import com.assignment.customer_batch_processor.validator.ValidationException;
@@ -19,12 +20,14 @@ class CustomerItemProcessorTest {
 
     @BeforeEach
     void setup() {
-        validatorMock = mock(CustomerValidator.class);
+        // Real normalizeAndValidate, driven by the stubbed field checks
+        validatorMock = spy(new CustomerValidator());
         encryptionServiceMock = mock(EncryptionService.class);
 
         processor = new CustomerItemProcessor();
         processor.customerValidator = validatorMock;
         processor.encryptionService = encryptionServiceMock;
+        processor.duplicateDetectionService = mock(DuplicateDetectionService.class);
     }
 
     @Test
@@ -73,4 +76,45 @@ class CustomerItemProcessorTest {
 
         assertTrue(exception.getMessage().contains("Invalid name"));
     }
+
+    @Test
+    void testProcess_SeveralInvalidFields_ReportsEveryField() {
+        Customer customer = new Customer();
+        customer.setName("John123");
+        customer.setEmail("not-an-email");
+        customer.setState("Karnataka");
+        customer.setItemCount(7);
+
+        when(validatorMock.isValidName("John123")).thenReturn(false);
+        when(validatorMock.isValidEmail("not-an-email")).thenReturn(false);
+        when(validatorMock.isValidState("Karnataka")).thenReturn(true);
+
+        ValidationException exception = assertThrows(
+                ValidationException.class,
+                () -> processor.process(customer)
+        );
+
+        assertEquals("Invalid name John123", exception.getMessage());
+        assertEquals(2, exception.getErrors().size());
+        assertEquals(7, exception.getErrors().get(0).row());
+        assertEquals("name", exception.getErrors().get(0).field());
+        assertEquals("email", exception.getErrors().get(1).field());
+    }
+
+    @Test
+    void testProcess_PrevalidatedRow_OnlyNormalized() {
+        Customer customer = new Customer();
+        customer.setName(" John Doe ");
+        customer.setEmail("John.Doe@Example.com");
+        customer.setState("Karnataka");
+        customer.setPrevalidated(true);
+
+        Customer result = processor.process(customer);
+
+        assertEquals("John Doe", result.getName());
+        assertEquals("john.doe@example.com", result.getEmail());
+        assertEquals("KARNATAKA", result.getState());
+        verify(validatorMock, never()).isValidName(anyString());
+        verify(validatorMock, never()).normalizeAndValidate(any());
+    }
 }
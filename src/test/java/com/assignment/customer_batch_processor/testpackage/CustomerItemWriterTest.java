@@ -2,6 +2,7 @@ package com.assignment.customer_batch_processor.testpackage;
 
 import com.assignment.customer_batch_processor.Customer_Entity.Customer;
 import com.assignment.customer_batch_processor.Utilities.CustomerItemWriter;
+import com.assignment.customer_batch_processor.service.DuplicateDetectionService;
 import com.assignment.customer_batch_processor.service.EncryptionService;
 import com.assignment.customer_batch_processor.validator.RetryException;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,6 +14,8 @@ import org.springframework.batch.item.Chunk;
 
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -31,6 +34,7 @@ class CustomerItemWriterTest {
         writer = new CustomerItemWriter();
         writer.entityManager = entityManagerMock;
         writer.encryptionService = encryptionServiceMock;
+        writer.duplicateDetectionService = mock(DuplicateDetectionService.class);
     }
 
     @Test
@@ -50,19 +54,16 @@ class CustomerItemWriterTest {
         Chunk<Customer> chunk = new Chunk<>(customers);
 
         // Mock encryption
-        when(encryptionServiceMock.encrypt("123456789012")).thenReturn("ENC_AADHAAR_1");
-        when(encryptionServiceMock.encrypt("ABCDE1234F")).thenReturn("ENC_PAN_1");
-        when(encryptionServiceMock.encrypt("987654321098")).thenReturn("ENC_AADHAAR_2");
-        when(encryptionServiceMock.encrypt("XYZAB5678C")).thenReturn("ENC_PAN_2");
+        encryptAllWith(Map.of("123456789012", "ENC_AADHAAR_1", "ABCDE1234F", "ENC_PAN_1",
+                "987654321098", "ENC_AADHAAR_2", "XYZAB5678C", "ENC_PAN_2")::get);
 
         // Execute
         writer.write(chunk);
 
-        // Verify encryption called
-        verify(encryptionServiceMock).encrypt("123456789012");
-        verify(encryptionServiceMock).encrypt("ABCDE1234F");
-        verify(encryptionServiceMock).encrypt("987654321098");
-        verify(encryptionServiceMock).encrypt("XYZAB5678C");
+        // Verify the chunk is encrypted at once, Aadhaar numbers then PANs
+        verify(encryptionServiceMock).encryptAll(eq(new String[]{"123456789012", "987654321098"}), any());
+        verify(encryptionServiceMock).encryptAll(eq(new String[]{"ABCDE1234F", "XYZAB5678C"}), any());
+        verify(encryptionServiceMock, never()).encrypt(anyString());
 
         // Verify persist called
         verify(entityManagerMock, times(2)).persist(any(Customer.class));
@@ -90,7 +91,9 @@ class CustomerItemWriterTest {
 
         Chunk<Customer> chunk = new Chunk<>(List.of(customer));
 
-        when(encryptionServiceMock.encrypt("123456789012")).thenThrow(new RuntimeException("Encryption error"));
+        encryptAllWith(plainText -> {
+            throw new RuntimeException("Encryption error");
+        });
 
         RetryException exception = assertThrows(
                 RetryException.class,
@@ -116,4 +119,60 @@ class CustomerItemWriterTest {
 
         assertTrue(exception.getMessage().contains("Exception in write data"));
     }
+
+    @Test
+    void testWrite_PersistFails_RestoresPlainValues() throws Exception {
+        Customer saved = new Customer();
+        saved.setName("John Doe");
+        saved.setAadhaarNumber("123456789012");
+        saved.setPanNumber("ABCDE1234F");
+
+        Customer failing = new Customer();
+        failing.setName("Alice Smith");
+        failing.setAadhaarNumber("987654321098");
+
+        encryptAllWith(plainText -> "ENC_" + plainText);
+        doAnswer(invocation -> {
+            ((Customer) invocation.getArgument(0)).setId(42L);
+            return null;
+        }).when(entityManagerMock).persist(saved);
+        doThrow(new RuntimeException("DB error")).when(entityManagerMock).persist(failing);
+
+        assertThrows(RetryException.class, () -> writer.write(new Chunk<>(List.of(saved, failing))));
+
+        // The rolled back chunk can be written again: plain values, no generated id
+        assertEquals("123456789012", saved.getAadhaarNumber());
+        assertEquals("ABCDE1234F", saved.getPanNumber());
+        assertNull(saved.getId());
+        assertEquals("987654321098", failing.getAadhaarNumber());
+    }
+
+    @Test
+    void testWrite_AlreadyEncrypted_NotEncryptedAgain() throws Exception {
+        Customer customer = new Customer();
+        customer.setName("John Doe");
+        customer.setAadhaarNumber("ENC_AADHAAR");
+        customer.setPanNumber("ENC_PAN");
+        customer.setEncrypted(true);
+
+        writer.write(new Chunk<>(List.of(customer)));
+
+        verifyNoInteractions(encryptionServiceMock);
+        verify(entityManagerMock).persist(customer);
+        assertEquals("ENC_AADHAAR", customer.getAadhaarNumber());
+    }
+
+    /**
+     * encryptAll of the mock fills the output array with encryption of each non-null value
+     */
+    private void encryptAllWith(Function<String, String> encryption) {
+        doAnswer(invocation -> {
+            String[] plainTexts = invocation.getArgument(0);
+            String[] encryptedTexts = invocation.getArgument(1);
+            for (int i = 0; i < plainTexts.length; i++) {
+                encryptedTexts[i] = plainTexts[i] == null ? null : encryption.apply(plainTexts[i]);
+            }
+            return null;
+        }).when(encryptionServiceMock).encryptAll(any(), any());
+    }
 }
@@ -0,0 +1,77 @@
+package com.assignment.customer_batch_processor.testpackage;
+
+import com.assignment.customer_batch_processor.Customer_Entity.Customer;
+import com.assignment.customer_batch_processor.Utilities.CustomerRowChannel;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerRowChannelTest {
+
+    @Test
+    void testTake_ReturnsPublishedRowsThenNull() throws Exception {
+        CustomerRowChannel channel = new CustomerRowChannel("test", 2);
+
+        CompletableFuture<Void> producer = CompletableFuture.runAsync(() -> {
+            try {
+                for (int i = 0; i < 10; i++) {
+                    Customer customer = new Customer();
+                    customer.setName("Customer " + i);
+                    channel.publish(customer);
+                }
+                channel.complete();
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        for (int i = 0; i < 10; i++) {
+            assertEquals("Customer " + i, channel.take().getName());
+        }
+        assertNull(channel.take());
+        producer.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void testTake_ProducerFailure_ThrowsException() {
+        CustomerRowChannel channel = new CustomerRowChannel("test", 2);
+        channel.fail(new RuntimeException("broken sheet"));
+
+        Exception exception = assertThrows(IllegalStateException.class, channel::take);
+        assertTrue(exception.getMessage().contains("broken sheet"));
+    }
+
+    @Test
+    void testTake_ProducerSilent_FailsAfterIdleTimeout() {
+        CustomerRowChannel channel = new CustomerRowChannel("test", 2, Duration.ofMillis(50));
+
+        Exception exception = assertThrows(IllegalStateException.class, channel::take);
+        assertTrue(exception.getMessage().contains("No row"));
+    }
+
+    @Test
+    void testPublish_ConsumerCancelled_StopsProducer() throws Exception {
+        CustomerRowChannel channel = new CustomerRowChannel("test", 1);
+        channel.publish(new Customer());
+
+        CompletableFuture<Void> producer = CompletableFuture.runAsync(() -> {
+            try {
+                channel.publish(new Customer());
+                channel.publish(new Customer());
+            } catch (InterruptedException e) {
+                throw new RuntimeException(e);
+            }
+        });
+
+        channel.cancel();
+
+        ExecutionException exception = assertThrows(ExecutionException.class, () -> producer.get(5, TimeUnit.SECONDS));
+        assertInstanceOf(CancellationException.class, exception.getCause());
+    }
+}
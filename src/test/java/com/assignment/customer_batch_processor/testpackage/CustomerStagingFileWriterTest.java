@@ -0,0 +1,82 @@
+package com.assignment.customer_batch_processor.testpackage;
+
+import com.assignment.customer_batch_processor.Customer_Entity.Customer;
+import com.assignment.customer_batch_processor.Utilities.BinaryCustomerItemReader;
+import com.assignment.customer_batch_processor.Utilities.CustomerStagingFileWriter;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CustomerStagingFileWriterTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testWrite_StagedRowsReadBackByBinaryReader() throws Exception {
+        String staged = CustomerStagingFileWriter.stagedFilePathFor(tempDir.resolve("customers.csv").toString());
+        CustomerStagingFileWriter writer = new CustomerStagingFileWriter(staged);
+        ExecutionContext context = new ExecutionContext();
+        writer.open(context);
+        Customer customer = customer("RAVI KUMAR");
+        customer.setEmail("ravi@example.com");
+        customer.setAadhaarNumber("012345678901");
+        customer.setCity(null);
+        writer.write(new Chunk<>(customer));
+        writer.update(context);
+        writer.close();
+
+        List<Customer> customers = readAll(staged);
+        assertEquals(1, customers.size());
+        assertEquals("RAVI KUMAR", customers.getFirst().getName());
+        assertEquals("ravi@example.com", customers.getFirst().getEmail());
+        assertEquals("012345678901", customers.getFirst().getAadhaarNumber());
+        assertEquals("", customers.getFirst().getCity());
+    }
+
+    @Test
+    void testOpen_FileLeftByEarlierRun_StartsOver() throws Exception {
+        String staged = tempDir.resolve("customers.csv" + CustomerStagingFileWriter.SUFFIX).toString();
+        ExecutionContext context = new ExecutionContext();
+
+        CustomerStagingFileWriter writer = new CustomerStagingFileWriter(staged);
+        writer.open(context);
+        writer.write(new Chunk<>(customer("Stale 0"), customer("Stale 1")));
+        writer.update(context);
+        writer.close();
+
+        CustomerStagingFileWriter again = new CustomerStagingFileWriter(staged);
+        again.open(context);
+        again.write(new Chunk<>(customer("Customer 0")));
+        again.update(context);
+        again.close();
+
+        List<String> names = readAll(staged).stream().map(Customer::getName).toList();
+        assertEquals(List.of("Customer 0"), names);
+    }
+
+    private static Customer customer(String name) {
+        Customer customer = new Customer();
+        customer.setName(name);
+        return customer;
+    }
+
+    private static List<Customer> readAll(String file) throws Exception {
+        List<Customer> customers = new ArrayList<>();
+        BinaryCustomerItemReader reader = new BinaryCustomerItemReader(file);
+        reader.open(new ExecutionContext());
+        Customer customer;
+        while ((customer = reader.read()) != null) {
+            customers.add(customer);
+        }
+        reader.close();
+        return customers;
+    }
+}
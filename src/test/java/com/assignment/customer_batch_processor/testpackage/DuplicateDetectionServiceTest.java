@@ -0,0 +1,180 @@
+package com.assignment.customer_batch_processor.testpackage;
+
+import com.assignment.customer_batch_processor.Customer_Entity.Customer;
+import com.assignment.customer_batch_processor.Utilities.NormalizingItemProcessor;
+import com.assignment.customer_batch_processor.repository.CustomerRepository;
+import com.assignment.customer_batch_processor.service.DuplicateDetectionService;
+import com.assignment.customer_batch_processor.service.EncryptionService;
+import com.assignment.customer_batch_processor.validator.CustomerField;
+import com.assignment.customer_batch_processor.validator.CustomerValidator;
+import com.assignment.customer_batch_processor.validator.FingerprintTable;
+import com.assignment.customer_batch_processor.validator.ValidationError;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class DuplicateDetectionServiceTest {
+
+    private DuplicateDetectionService service;
+    private CustomerRepository repositoryMock;
+    private StepExecution stepExecution;
+
+    @BeforeEach
+    void setup() {
+        repositoryMock = mock(CustomerRepository.class);
+        EncryptionService encryptionServiceMock = mock(EncryptionService.class);
+        when(encryptionServiceMock.encrypt(anyString())).thenAnswer(call -> "ENC:" + call.getArgument(0));
+        when(encryptionServiceMock.decrypt(anyString())).thenAnswer(call -> call.<String>getArgument(0).substring(4));
+
+        service = new DuplicateDetectionService();
+        ReflectionTestUtils.setField(service, "customerRepository", repositoryMock);
+        ReflectionTestUtils.setField(service, "encryptionService", encryptionServiceMock);
+        ReflectionTestUtils.setField(service, "enabled", true);
+        ReflectionTestUtils.setField(service, "expectedCustomers", 1000L);
+        ReflectionTestUtils.setField(service, "falsePositiveRate", 0.01);
+
+        stepExecution = MetaDataInstanceFactory.createStepExecution();
+        StepSynchronizationManager.register(stepExecution);
+    }
+
+    @AfterEach
+    void cleanup() {
+        StepSynchronizationManager.close();
+    }
+
+    @Test
+    void testDuplicates_RepeatedValueInFile_ReportsFirstRow() {
+        service.loadSavedValues();
+
+        assertTrue(service.duplicates(customer(1, "ravi@example.com", "9876543210")).isEmpty());
+        List<ValidationError> errors = service.duplicates(customer(2, "ravi@example.com", "9876543211"));
+
+        assertEquals(1, errors.size());
+        assertEquals(2, errors.getFirst().row());
+        assertEquals("email", errors.getFirst().field());
+        assertEquals("Duplicate email for name Ravi, already in row 1", errors.getFirst().reason());
+    }
+
+    @Test
+    void testDuplicates_RowProcessedAgain_IsNotItsOwnDuplicate() {
+        service.loadSavedValues();
+
+        assertTrue(service.duplicates(customer(7, "ravi@example.com", "9876543210")).isEmpty());
+        assertTrue(service.duplicates(customer(7, "ravi@example.com", "9876543210")).isEmpty());
+    }
+
+    @Test
+    void testDuplicates_AfterJob_ForgetsTheJobsValues() {
+        service.loadSavedValues();
+        service.duplicates(customer(1, "ravi@example.com", "9876543210"));
+
+        service.afterJob(stepExecution.getJobExecution());
+
+        assertTrue(service.duplicates(customer(2, "ravi@example.com", "9876543210")).isEmpty());
+    }
+
+    @Test
+    void testMarkExisting_QueriesOnlyFilterHits_OncePerBlock() {
+        CustomerRepository.UniqueValues saved = mock(CustomerRepository.UniqueValues.class);
+        when(saved.getId()).thenReturn(1L);
+        when(saved.getEmail()).thenReturn("ravi@example.com");
+        when(saved.getPhoneNumber()).thenReturn("9876543210");
+        when(saved.getAadhaarNumber()).thenReturn("ENC:123456789012");
+        when(saved.getPanNumber()).thenReturn("ENC:ABCDE1234F");
+        when(repositoryMock.findUniqueValuesAfter(anyLong(), any())).thenReturn(List.of(saved));
+        when(repositoryMock.findExistingEmails(anyCollection())).thenReturn(List.of("ravi@example.com"));
+        when(repositoryMock.findExistingPanNumbers(anyCollection())).thenReturn(List.of("ENC:ABCDE1234F"));
+        service.loadSavedValues();
+
+        Customer known = customer(1, " Ravi@Example.com ", "9000000001");
+        known.setPanNumber("abcde1234f");
+        Customer fresh = customer(2, "asha@example.com", "9000000002");
+        service.markExisting(List.of(known, fresh));
+
+        assertEquals(CustomerField.EMAIL.bit() | CustomerField.PAN_NUMBER.bit(), known.getExistingFields());
+        assertEquals(0, fresh.getExistingFields());
+        verify(repositoryMock).findExistingEmails(List.of("ravi@example.com"));
+        verify(repositoryMock).findExistingPanNumbers(List.of("ENC:ABCDE1234F"));
+        verify(repositoryMock, never()).findExistingPhoneNumbers(anyCollection());
+
+        List<ValidationError> errors = service.duplicates(known);
+        assertEquals(List.of("email", "panNumber"), errors.stream().map(ValidationError::field).toList());
+        assertEquals("Duplicate email for name Ravi, already saved", errors.getFirst().reason());
+    }
+
+    @Test
+    void testSaving_LaterBlockFindsTheValueInTheFilter() {
+        service.loadSavedValues();
+        Customer first = customer(1, "ravi@example.com", "9876543210");
+        service.saving(first, "123456789012", "ABCDE1234F");
+
+        when(repositoryMock.findExistingAadhaarNumbers(anyCollection())).thenReturn(List.of("ENC:123456789012"));
+        Customer second = customer(2, "asha@example.com", "9000000002");
+        second.setAadhaarNumber("123456789012");
+        service.markExisting(List.of(second));
+
+        assertEquals(CustomerField.AADHAAR_NUMBER.bit(), second.getExistingFields());
+    }
+
+    @Test
+    void testMarkExisting_RowSavedByTwoPassLoadStep_FoundWhenUploadedAgain() {
+        // The IN query compares exactly, as the database does
+        List<String> savedEmails = new ArrayList<>();
+        List<String> savedPans = new ArrayList<>();
+        when(repositoryMock.findExistingEmails(anyCollection()))
+                .thenAnswer(call -> savedEmails.stream().filter(call.<Collection<?>>getArgument(0)::contains).toList());
+        when(repositoryMock.findExistingPanNumbers(anyCollection()))
+                .thenAnswer(call -> savedPans.stream().filter(call.<Collection<?>>getArgument(0)::contains).toList());
+        service.loadSavedValues();
+
+        // Load step of a two-pass job: the raw row was validated by the first step
+        NormalizingItemProcessor loadProcessor = new NormalizingItemProcessor();
+        ReflectionTestUtils.setField(loadProcessor, "customerValidator", new CustomerValidator());
+        Customer loaded = loadProcessor.process(customer(1, " Ravi@Example.COM ", "9876543210"));
+        loaded.setPanNumber(" ABCDE1234F ");
+        loadProcessor.process(loaded);
+        savedEmails.add(loaded.getEmail());
+        savedPans.add("ENC:" + loaded.getPanNumber());
+        service.saving(loaded, loaded.getAadhaarNumber(), loaded.getPanNumber());
+
+        Customer uploadedAgain = customer(1, " Ravi@Example.COM ", "9000000001");
+        uploadedAgain.setPanNumber(" ABCDE1234F ");
+        service.markExisting(List.of(uploadedAgain));
+
+        assertEquals(CustomerField.EMAIL.bit() | CustomerField.PAN_NUMBER.bit(), uploadedAgain.getExistingFields());
+    }
+
+    @Test
+    void testFingerprintTable_GrowsAndKeepsFirstOwners() {
+        FingerprintTable table = new FingerprintTable(4);
+        for (long i = 1; i <= 1000; i++) {
+            assertEquals(0, table.putIfAbsent(i * 0x9E3779B97F4A7C15L, i));
+        }
+
+        assertEquals(1000, table.size());
+        assertEquals(500, table.putIfAbsent(500 * 0x9E3779B97F4A7C15L, 9999));
+        assertEquals(0, table.putIfAbsent(0, 1));
+        assertEquals(1, table.putIfAbsent(0, 2));
+    }
+
+    private static Customer customer(long row, String email, String phoneNumber) {
+        Customer customer = new Customer();
+        customer.setRowNumber(row);
+        customer.setName("Ravi");
+        customer.setEmail(email);
+        customer.setPhoneNumber(phoneNumber);
+        return customer;
+    }
+}
@@ -0,0 +1,58 @@
+package com.assignment.customer_batch_processor.testpackage;
+
+import com.assignment.customer_batch_processor.service.EncryptionService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EncryptionServiceTest {
+
+    private EncryptionService service;
+
+    @BeforeEach
+    void setup() {
+        service = new EncryptionService();
+        ReflectionTestUtils.setField(service, "secretKey", "MySecretKey");
+        ReflectionTestUtils.invokeMethod(service, "deriveKey");
+    }
+
+    @Test
+    void testEncrypt_SameCipherTextAsAFreshCipher() throws Exception {
+        // The key is padded with '0' to 16 characters
+        Cipher cipher = Cipher.getInstance("AES");
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec("MySecretKey00000".getBytes(), "AES"));
+        String expected = Base64.getEncoder().encodeToString(cipher.doFinal("123456789012".getBytes()));
+
+        assertEquals(expected, service.encrypt("123456789012"));
+        // The thread's cipher is reused
+        assertEquals(expected, service.encrypt("123456789012"));
+        assertEquals("123456789012", service.decrypt(expected));
+    }
+
+    @Test
+    void testEncryptAll_MatchesEncryptPerValue() {
+        String[] plainTexts = {"123456789012", null, "ABCDE1234F", " ", "a value longer than one AES block"};
+        String[] encryptedTexts = new String[plainTexts.length];
+
+        service.encryptAll(plainTexts, encryptedTexts);
+
+        for (int i = 0; i < plainTexts.length; i++) {
+            assertEquals(service.encrypt(plainTexts[i]), encryptedTexts[i]);
+        }
+        assertNull(encryptedTexts[1]);
+        assertEquals(" ", encryptedTexts[3]);
+    }
+
+    @Test
+    void testDecrypt_InvalidCipherText_FailsAndNextCallStillWorks() {
+        assertThrows(RuntimeException.class, () -> service.decrypt("bm90IGVuY3J5cHRlZA=="));
+
+        assertEquals("ABCDE1234F", service.decrypt(service.encrypt("ABCDE1234F")));
+    }
+}
@@ -0,0 +1,163 @@
+package com.assignment.customer_batch_processor.testpackage;
+
+import com.assignment.customer_batch_processor.Utilities.JobAdmissionScheduler;
+import com.assignment.customer_batch_processor.Utilities.JobAdmissionScheduler.Lane;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.TaskRejectedException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JobAdmissionSchedulerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    // Jobs handed to the job executor, run by the test to finish them
+    private List<Runnable> started;
+    private List<String> order;
+    private JobAdmissionScheduler scheduler;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        started = new ArrayList<>();
+        order = new ArrayList<>();
+        scheduler = new JobAdmissionScheduler(started::add, 1, 10, 2, meterRegistry);
+    }
+
+    @Test
+    void testExecute_AtMostMaxConcurrentJobsRun() {
+        submit("a", Lane.LARGE, "a1");
+        submit("a", Lane.LARGE, "a2");
+
+        assertEquals(1, started.size());
+        assertEquals(1, scheduler.runningJobs());
+        assertEquals(1, scheduler.queuedJobs(Lane.LARGE));
+
+        finishNext();
+        assertEquals(List.of("a1"), order);
+        assertEquals(1, scheduler.runningJobs());
+        assertEquals(0, scheduler.queuedJobs(Lane.LARGE));
+    }
+
+    @Test
+    void testExecute_UploadersTakeTurns() {
+        submit("a", Lane.LARGE, "running");
+        submit("a", Lane.LARGE, "a1");
+        submit("a", Lane.LARGE, "a2");
+        submit("a", Lane.LARGE, "a3");
+        submit("b", Lane.LARGE, "b1");
+        submit("c", Lane.LARGE, "c1");
+
+        finishAll();
+        assertEquals(List.of("running", "a1", "b1", "c1", "a2", "a3"), order);
+    }
+
+    @Test
+    void testExecute_SmallFilesFirstWithoutStarvingLargeOnes() {
+        submit("a", Lane.LARGE, "running");
+        submit("a", Lane.LARGE, "large1");
+        submit("b", Lane.SMALL, "small1");
+        submit("b", Lane.SMALL, "small2");
+        submit("b", Lane.SMALL, "small3");
+
+        finishAll();
+        assertEquals(List.of("running", "small1", "small2", "large1", "small3"), order);
+    }
+
+    @Test
+    void testExecute_FullQueue_Rejected() {
+        meterRegistry = new SimpleMeterRegistry();
+        scheduler = new JobAdmissionScheduler(started::add, 1, 1, 2, meterRegistry);
+        submit("a", Lane.LARGE, "running");
+        submit("a", Lane.LARGE, "queued");
+
+        assertThrows(TaskRejectedException.class, () -> scheduler.ticket("b", Lane.SMALL));
+        assertEquals(1, meterRegistry.get("customer.batch.jobs.rejected").counter().count());
+        assertEquals(1, meterRegistry.get("customer.batch.jobs.queued").tag("lane", "large").gauge().value());
+    }
+
+    @Test
+    void testTicket_UnusedTicketGivesItsPlaceBack() {
+        scheduler = new JobAdmissionScheduler(started::add, 1, 1, 2, new SimpleMeterRegistry());
+        submit("a", Lane.LARGE, "running");
+
+        scheduler.ticket("a", Lane.LARGE).close();
+        submit("b", Lane.SMALL, "queued");
+
+        assertEquals(1, scheduler.queuedJobs(Lane.SMALL));
+    }
+
+    @Test
+    void testTicket_ClearedOnClose() {
+        try (JobAdmissionScheduler.Ticket ticket = scheduler.ticket("a", Lane.SMALL)) {
+            scheduler.execute(() -> order.add("with ticket"));
+        }
+        // Filling the slot: a job without ticket waits in the large lane
+        scheduler.execute(() -> order.add("without ticket"));
+
+        assertEquals(1, scheduler.queuedJobs(Lane.LARGE));
+        assertEquals(0, scheduler.queuedJobs(Lane.SMALL));
+    }
+
+    @Test
+    void testDispatch_ExecutorRefusesQueuedJob_ReportsToItsTicket() {
+        List<Runnable> accepted = new ArrayList<>();
+        scheduler = new JobAdmissionScheduler(task -> {
+            if (!accepted.isEmpty()) {
+                throw new TaskRejectedException("executor shut down");
+            }
+            accepted.add(task);
+        }, 1, 10, 2, new SimpleMeterRegistry());
+        submit("a", Lane.LARGE, "running");
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        try (JobAdmissionScheduler.Ticket ticket = scheduler.ticket("b", Lane.LARGE)) {
+            scheduler.execute(() -> order.add("refused"));
+            ticket.onStartFailure(failure::set);
+        }
+        assertNull(failure.get());
+
+        accepted.getFirst().run();
+
+        assertInstanceOf(TaskRejectedException.class, failure.get());
+        assertEquals(List.of("running"), order);
+        assertEquals(0, scheduler.runningJobs());
+    }
+
+    @Test
+    void testDispatch_ExecutorRefusesJobAtOnce_HandlerCalledWhenRegistered() {
+        scheduler = new JobAdmissionScheduler(task -> {
+            throw new TaskRejectedException("executor shut down");
+        }, 1, 10, 2, new SimpleMeterRegistry());
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        try (JobAdmissionScheduler.Ticket ticket = scheduler.ticket("a", Lane.SMALL)) {
+            scheduler.execute(() -> order.add("refused"));
+            ticket.onStartFailure(failure::set);
+        }
+
+        assertInstanceOf(TaskRejectedException.class, failure.get());
+        assertEquals(0, scheduler.runningJobs());
+    }
+
+    private void submit(String uploader, Lane lane, String name) {
+        try (JobAdmissionScheduler.Ticket ticket = scheduler.ticket(uploader, lane)) {
+            scheduler.execute(() -> order.add(name));
+        }
+    }
+
+    private void finishNext() {
+        started.removeFirst().run();
+    }
+
+    private void finishAll() {
+        while (!started.isEmpty()) {
+            finishNext();
+        }
+    }
+}
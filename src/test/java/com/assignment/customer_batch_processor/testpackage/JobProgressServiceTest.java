@@ -0,0 +1,127 @@
+package com.assignment.customer_batch_processor.testpackage;
+
+import com.assignment.customer_batch_processor.Customer_Dto.JobProgress;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.assignment.customer_batch_processor.Utilities.MappedCsvCustomerItemReader;
+import com.assignment.customer_batch_processor.service.JobProgressService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class JobProgressServiceTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testBroadcast_SubscriberLeftBeforeTheEnd_EndedJobIsDropped() throws Exception {
+        JobProgressService service = new JobProgressService();
+        ReflectionTestUtils.setField(service, "objectMapper", new ObjectMapper().findAndRegisterModules());
+        ReflectionTestUtils.setField(service, "jobExplorer", mock(JobExplorer.class));
+        ReflectionTestUtils.setField(service, "timeout", Duration.ofMinutes(1));
+        JobExecution jobExecution = MetaDataInstanceFactory.createJobExecution();
+        jobExecution.setStatus(BatchStatus.STARTED);
+        service.beforeJob(jobExecution);
+
+        SseEmitter emitter = service.subscribe(jobExecution.getId());
+        jobExecution.setStatus(BatchStatus.COMPLETED);
+        service.afterJob(jobExecution);
+        // The client disconnects before the next broadcast
+        ReflectionTestUtils.invokeMethod(service, "unsubscribe", jobExecution.getId(), emitter);
+        ReflectionTestUtils.invokeMethod(service, "broadcast");
+
+        assertTrue(((Map<?, ?>) ReflectionTestUtils.getField(service, "runningJobs")).isEmpty());
+        assertTrue(((Set<?>) ReflectionTestUtils.getField(service, "changedJobs")).isEmpty());
+    }
+
+    @Test
+    void testSnapshot_TotalFromCompletedStep_GivesEta() {
+        JobExecution jobExecution = MetaDataInstanceFactory.createJobExecution();
+        jobExecution.setStatus(BatchStatus.STARTED);
+        jobExecution.setStartTime(LocalDateTime.now().minusSeconds(30));
+        StepExecution stage = step(jobExecution, "stageStep", 1L, BatchStatus.COMPLETED, 10000, 20);
+        StepExecution promote = step(jobExecution, "promoteStep", 2L, BatchStatus.STARTED, 2500, 10);
+        stage.setWriteCount(10000);
+        promote.setWriteCount(2500);
+
+        JobProgress progress = JobProgressService.snapshot(jobExecution);
+
+        assertEquals("promoteStep", progress.getStep());
+        assertEquals(12500, progress.getReadCount());
+        assertEquals(12500, progress.getWriteCount());
+        // a quarter of the rows in 10s, 30s left
+        assertEquals(250, progress.getRowsPerSecond(), 5);
+        assertEquals(30, progress.getEtaSeconds(), 1);
+    }
+
+    @Test
+    void testSnapshot_FirstStepEtaFromReaderOffset() throws Exception {
+        Path csv = tempDir.resolve("customers.csv");
+        Files.write(csv, new byte[1000]);
+        JobExecution jobExecution = MetaDataInstanceFactory.createJobExecution("job", 1L, 1L,
+                new JobParametersBuilder().addString("filePath", csv.toString()).toJobParameters());
+        jobExecution.setStatus(BatchStatus.STARTED);
+        StepExecution stage = step(jobExecution, "stageStep", 1L, BatchStatus.STARTED, 400, 20);
+        stage.getExecutionContext().putLong(MappedCsvCustomerItemReader.OFFSET_CONTEXT_KEY, 800);
+
+        JobProgress progress = JobProgressService.snapshot(jobExecution);
+
+        // 80% of the bytes in 20s, 5s left
+        assertEquals(5, progress.getEtaSeconds(), 1);
+    }
+
+    @Test
+    void testSnapshot_PartitionWorkersReportedUnderTheirStep() {
+        JobExecution jobExecution = MetaDataInstanceFactory.createJobExecution();
+        jobExecution.setStatus(BatchStatus.STARTED);
+        step(jobExecution, "validationWorkerStep:partition0", 1L, BatchStatus.STARTED, 100, 10);
+        step(jobExecution, "validationWorkerStep:partition1", 2L, BatchStatus.STARTED, 300, 10);
+
+        JobProgress progress = JobProgressService.snapshot(jobExecution);
+
+        assertEquals("validationWorkerStep", progress.getStep());
+        assertEquals(400, progress.getReadCount());
+        assertEquals(40, progress.getRowsPerSecond(), 2);
+        // no earlier step and no reader offset: the total is unknown
+        assertNull(progress.getEtaSeconds());
+    }
+
+    @Test
+    void testSnapshot_EndedJobHasNoCurrentStep() {
+        JobExecution jobExecution = MetaDataInstanceFactory.createJobExecution();
+        jobExecution.setStatus(BatchStatus.COMPLETED);
+        step(jobExecution, "stageStep", 1L, BatchStatus.COMPLETED, 100, 10);
+
+        JobProgress progress = JobProgressService.snapshot(jobExecution);
+
+        assertEquals("COMPLETED", progress.getStatus());
+        assertNull(progress.getStep());
+        assertNull(progress.getEtaSeconds());
+    }
+
+    private static StepExecution step(JobExecution jobExecution, String name, long id, BatchStatus status,
+                                      long readCount, long secondsAgo) {
+        StepExecution stepExecution = MetaDataInstanceFactory.createStepExecution(jobExecution, name, id);
+        stepExecution.setStatus(status);
+        stepExecution.setReadCount(readCount);
+        stepExecution.setStartTime(LocalDateTime.now().minusSeconds(secondsAgo));
+        return stepExecution;
+    }
+}
@@ -0,0 +1,100 @@
+package com.assignment.customer_batch_processor.testpackage;
+
+import com.assignment.customer_batch_processor.Customer_Entity.Customer;
+import com.assignment.customer_batch_processor.Utilities.CustomerItemReader;
+import com.assignment.customer_batch_processor.Utilities.MappedCsvCustomerItemReader;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamReader;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MappedCsvCustomerItemReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testRead_SameCustomersAsFlatFileReader() throws Exception {
+        Path csv = Files.writeString(tempDir.resolve("customers.csv"), String.join("\n",
+                "name,email,phoneNumber,aadhaarNumber,panNumber,state,city",
+                "Ravi Kumar,ravi@example.com,9876543210,123456789012,ABCDE1234F,Karnataka,Bengaluru",
+                "  Padded Name  , PADDED@example.com ,9876543210,123456789012,ABCDE1234F,Goa,Panaji",
+                "\"Kumar, Ravi\",\"ravi\"\"q@example.com\",9876543210,123456789012,ABCDE1234F,Kerala,Kochi",
+                "# a comment line",
+                "Short Row,short@example.com",
+                "Long Row,long@example.com,1,2,3,4,5,6,7,8",
+                "Zoë Ünicode,zoe@example.com,9876543210,123456789012,ABCDE1234F,Assam,Guwahati\r",
+                "",
+                "Last Row,last@example.com,9876543210,123456789012,ABCDE1234F,Bihar,Patna") + "\n");
+
+        List<Customer> expected = readAll(CustomerItemReader.customerFlatFileItemReader(csv.toString()), new ExecutionContext());
+        List<Customer> actual = readAll(new MappedCsvCustomerItemReader(csv.toString()), new ExecutionContext());
+
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertSameFields(expected.get(i), actual.get(i));
+        }
+    }
+
+    @Test
+    void testRead_QuotedLineBreak_StaysInOneRecord() throws Exception {
+        Path csv = Files.writeString(tempDir.resolve("customers.csv"),
+                "name,email\n\"Two\nLines\",two@example.com\nNext,next@example.com\n");
+
+        List<Customer> customers = readAll(new MappedCsvCustomerItemReader(csv.toString()), new ExecutionContext());
+
+        assertEquals(2, customers.size());
+        assertEquals("Two\nLines", customers.get(0).getName());
+        assertEquals("Next", customers.get(1).getName());
+    }
+
+    @Test
+    void testOpen_Restart_ResumesAtSavedOffset() throws Exception {
+        StringBuilder content = new StringBuilder("name,email\n");
+        for (int i = 0; i < 10; i++) {
+            content.append("Customer ").append(i).append(",c").append(i).append("@example.com\n");
+        }
+        Path csv = Files.writeString(tempDir.resolve("customers.csv"), content);
+
+        ExecutionContext context = new ExecutionContext();
+        MappedCsvCustomerItemReader reader = new MappedCsvCustomerItemReader(csv.toString());
+        reader.open(context);
+        for (int i = 0; i < 4; i++) {
+            reader.read();
+        }
+        reader.update(context);
+        reader.close();
+
+        List<Customer> rest = readAll(new MappedCsvCustomerItemReader(csv.toString()), context);
+        assertEquals(6, rest.size());
+        assertEquals("Customer 4", rest.getFirst().getName());
+    }
+
+    private static List<Customer> readAll(ItemStreamReader<Customer> reader, ExecutionContext context) throws Exception {
+        List<Customer> customers = new ArrayList<>();
+        reader.open(context);
+        Customer customer;
+        while ((customer = reader.read()) != null) {
+            customers.add(customer);
+        }
+        reader.close();
+        return customers;
+    }
+
+    private static void assertSameFields(Customer expected, Customer actual) {
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getEmail(), actual.getEmail());
+        assertEquals(expected.getPhoneNumber(), actual.getPhoneNumber());
+        assertEquals(expected.getAadhaarNumber(), actual.getAadhaarNumber());
+        assertEquals(expected.getPanNumber(), actual.getPanNumber());
+        assertEquals(expected.getState(), actual.getState());
+        assertEquals(expected.getCity(), actual.getCity());
+    }
+}
@@ -0,0 +1,75 @@
+package com.assignment.customer_batch_processor.testpackage;
+
+import com.assignment.customer_batch_processor.Customer_Entity.Customer;
+import com.assignment.customer_batch_processor.Utilities.RejectFileSkipListener;
+import com.assignment.customer_batch_processor.service.RejectFileStore;
+import com.assignment.customer_batch_processor.validator.CustomerField;
+import com.assignment.customer_batch_processor.validator.ValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RejectFileSkipListenerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private RejectFileStore store;
+    private RejectFileSkipListener listener;
+    private StepExecution stepExecution;
+    private String jobId;
+
+    @BeforeEach
+    void setup() {
+        store = new RejectFileStore();
+        ReflectionTestUtils.setField(store, "rejectDir", tempDir.toString());
+        jobId = UUID.randomUUID().toString();
+        stepExecution = MetaDataInstanceFactory.createStepExecution(
+                new JobParametersBuilder().addString("jobid", jobId).toJobParameters());
+        listener = new RejectFileSkipListener(store);
+        listener.beforeStep(stepExecution);
+    }
+
+    @Test
+    void testReject_AadhaarAndPan_NeverWrittenInPlainText() throws Exception {
+        Customer invalid = customer(2, "12345678901", "ABCDE1234");
+        listener.onSkipInProcess(invalid, ValidationException.of(invalid, CustomerField.AADHAAR_NUMBER.bit()));
+        // The writer restores the plain values before a write-stage skip
+        Customer unsaved = customer(3, "987654321098", "PQRST6789K");
+        listener.onSkipInWrite(unsaved, new DataIntegrityViolationException("insert failed"));
+        listener.afterStep(stepExecution);
+        store.close(jobId);
+
+        String rejects = Files.readString(store.pathFor(jobId));
+        for (String raw : List.of("12345678901", "ABCDE1234", "987654321098", "PQRST6789K")) {
+            assertFalse(rejects.contains(raw), raw + " in the reject file");
+        }
+        List<String> lines = Files.readAllLines(store.pathFor(jobId));
+        assertTrue(lines.get(1).contains(",*******8901,*****1234,"), lines.get(1));
+        assertTrue(lines.get(2).contains(",********1098,******789K,"), lines.get(2));
+        assertEquals(2, stepExecution.getExecutionContext().getLong(RejectFileSkipListener.REJECT_COUNT_KEY));
+    }
+
+    private static Customer customer(long row, String aadhaarNumber, String panNumber) {
+        Customer customer = new Customer();
+        customer.setRowNumber(row);
+        customer.setName("Ravi");
+        customer.setEmail("ravi@example.com");
+        customer.setPhoneNumber("9876543210");
+        customer.setAadhaarNumber(aadhaarNumber);
+        customer.setPanNumber(panNumber);
+        return customer;
+    }
+}
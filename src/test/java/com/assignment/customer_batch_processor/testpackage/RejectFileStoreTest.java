@@ -0,0 +1,59 @@
+package com.assignment.customer_batch_processor.testpackage;
+
+import com.assignment.customer_batch_processor.service.RejectFileStore;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RejectFileStoreTest {
+
+    @TempDir
+    Path tempDir;
+
+    private RejectFileStore store;
+
+    @BeforeEach
+    void setup() {
+        store = new RejectFileStore();
+        ReflectionTestUtils.setField(store, "rejectDir", tempDir.toString());
+    }
+
+    @Test
+    void testAppend_WritesHeaderAndQuotedRows() throws Exception {
+        String jobId = UUID.randomUUID().toString();
+
+        store.append(jobId, List.of("3", "", "process", "Invalid name Bad, \"3\"", "Bad, \"3\""));
+        store.append(jobId, List.of("7", "", "write", "DB error", "Ok"));
+        store.close(jobId);
+
+        List<String> lines = Files.readAllLines(store.pathFor(jobId));
+        assertEquals(List.of(RejectFileStore.HEADER,
+                "3,,process,\"Invalid name Bad, \"\"3\"\"\",\"Bad, \"\"3\"\"\"",
+                "7,,write,DB error,Ok"), lines);
+    }
+
+    @Test
+    void testAppend_AfterClose_AppendsWithoutSecondHeader() throws Exception {
+        String jobId = UUID.randomUUID().toString();
+
+        store.append(jobId, List.of("1", "", "process", "first"));
+        store.close(jobId);
+        store.append(jobId, List.of("2", "", "process", "second"));
+        store.close(jobId);
+
+        assertEquals(3, Files.readAllLines(store.pathFor(jobId)).size());
+    }
+
+    @Test
+    void testPathFor_NotAJobId_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> store.pathFor("../../etc/passwd"));
+    }
+}
@@ -0,0 +1,129 @@
+package com.assignment.customer_batch_processor.testpackage;
+
+import com.assignment.customer_batch_processor.Utilities.StreamingXlsxSheetReader;
+import com.assignment.customer_batch_processor.service.FileConversionService;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StreamingXlsxSheetReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void testReadSheet_MatchesWorkbookCellValues() throws Exception {
+        Path xlsx = tempDir.resolve("customers.xlsx");
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet("customers");
+            CellStyle dateStyle = workbook.createCellStyle();
+            dateStyle.setDataFormat(workbook.getCreationHelper().createDataFormat().getFormat("dd-mm-yyyy"));
+
+            Row header = sheet.createRow(0);
+            header.createCell(0).setCellValue("name");
+            header.createCell(1).setCellValue("phoneNumber");
+
+            Row row = sheet.createRow(1);
+            row.createCell(0).setCellValue("  John Doe ");
+            row.createCell(1).setCellValue(9876543210d);
+            row.createCell(2).setCellValue(12.5d);
+            Cell date = row.createCell(3);
+            date.setCellValue(new Date(1_700_000_000_000L));
+            date.setCellStyle(dateStyle);
+            row.createCell(4).setCellFormula("B2+1");
+            row.createCell(5).setCellValue(true);
+            row.createCell(6).setCellStyle(dateStyle);
+            row.createCell(7).setCellValue("Pune, \"MH\"");
+
+            workbook.getCreationHelper().createFormulaEvaluator().evaluateAll();
+            try (FileOutputStream out = new FileOutputStream(xlsx.toFile())) {
+                workbook.write(out);
+            }
+        }
+
+        List<List<String>> streamed = new ArrayList<>();
+        try (StreamingXlsxSheetReader reader = new StreamingXlsxSheetReader(xlsx.toString())) {
+            int rows = reader.readSheet(0, (rowNum, cells) -> streamed.add(new ArrayList<>(cells)));
+            assertEquals(2, rows);
+        }
+
+        // Same values as the XSSFWorkbook based conversion
+        FileConversionService service = new FileConversionService();
+        List<List<String>> expected = new ArrayList<>();
+        try (FileInputStream in = new FileInputStream(xlsx.toFile());
+             XSSFWorkbook workbook = new XSSFWorkbook(in)) {
+            for (Row row : workbook.getSheetAt(0)) {
+                List<String> cells = new ArrayList<>();
+                for (Cell cell : row) {
+                    cells.add(ReflectionTestUtils.invokeMethod(service, "getCellValueAsString", cell));
+                }
+                expected.add(cells);
+            }
+        }
+
+        assertEquals(expected, streamed);
+        assertEquals("John Doe", streamed.get(1).get(0));
+        assertEquals("9876543210", streamed.get(1).get(1));
+        assertEquals("9.876543211E9", streamed.get(1).get(4));
+        assertEquals("true", streamed.get(1).get(5));
+        assertEquals("", streamed.get(1).get(6));
+    }
+
+    @Test
+    void testOpenSheets_StreamsParsedOnOtherThreads_ReadEverySheet() throws Exception {
+        Path xlsx = tempDir.resolve("sheets.xlsx");
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            for (int s = 0; s < 3; s++) {
+                Sheet sheet = workbook.createSheet("sheet" + s);
+                for (int r = 0; r <= s + 1; r++) {
+                    sheet.createRow(r).createCell(0).setCellValue("s" + s + "r" + r);
+                }
+            }
+            try (FileOutputStream out = new FileOutputStream(xlsx.toFile())) {
+                workbook.write(out);
+            }
+        }
+
+        ExecutorService executor = Executors.newFixedThreadPool(3);
+        try (StreamingXlsxSheetReader reader = new StreamingXlsxSheetReader(xlsx.toString())) {
+            List<InputStream> sheets = reader.openSheets();
+            assertEquals(3, sheets.size());
+
+            List<Future<List<String>>> parsed = new ArrayList<>();
+            for (InputStream sheet : sheets) {
+                parsed.add(executor.submit(() -> {
+                    List<String> values = new ArrayList<>();
+                    try (sheet) {
+                        reader.readSheet(sheet, (rowNum, cells) -> values.add(cells.get(0)));
+                    }
+                    return values;
+                }));
+            }
+
+            assertEquals(List.of("s0r0", "s0r1"), parsed.get(0).get());
+            assertEquals(List.of("s1r0", "s1r1", "s1r2"), parsed.get(1).get());
+            assertEquals(List.of("s2r0", "s2r1", "s2r2", "s2r3"), parsed.get(2).get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
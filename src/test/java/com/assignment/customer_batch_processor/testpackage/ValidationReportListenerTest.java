@@ -0,0 +1,122 @@
+package com.assignment.customer_batch_processor.testpackage;
+
+import com.assignment.customer_batch_processor.Customer_Entity.Customer;
+import com.assignment.customer_batch_processor.Utilities.ValidationReportListener;
+import com.assignment.customer_batch_processor.validator.ValidationError;
+import com.assignment.customer_batch_processor.validator.ValidationException;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.explore.support.JobExplorerFactoryBean;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.support.JobRepositoryFactoryBean;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.jdbc.support.JdbcTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ValidationReportListenerTest {
+
+    @Test
+    void testAfterStep_NoSkippedRows_KeepsExitStatus() {
+        ValidationReportListener listener = new ValidationReportListener(10);
+        StepExecution stepExecution = MetaDataInstanceFactory.createStepExecution();
+        listener.beforeStep(stepExecution);
+
+        assertNull(listener.afterStep(stepExecution));
+        assertFalse(stepExecution.getExecutionContext().containsKey(ValidationReportListener.ERRORS_KEY));
+    }
+
+    @Test
+    void testAfterStep_SkippedRows_FailsWithCappedReport() {
+        ValidationReportListener listener = new ValidationReportListener(2);
+        StepExecution stepExecution = MetaDataInstanceFactory.createStepExecution();
+        listener.beforeStep(stepExecution);
+
+        listener.onSkipInProcess(new Customer(), new ValidationException(List.of(
+                new ValidationError(3, "name", "Invalid name x1"),
+                new ValidationError(3, "email", "Invalid email for name x1"))));
+        listener.onSkipInProcess(new Customer(), new ValidationException(List.of(
+                new ValidationError(9, "city", "Invalid city for name y"))));
+
+        ExitStatus exitStatus = listener.afterStep(stepExecution);
+
+        assertEquals(ExitStatus.FAILED.getExitCode(), exitStatus.getExitCode());
+        assertEquals(2, stepExecution.getExecutionContext().getLong(ValidationReportListener.INVALID_ROW_COUNT_KEY));
+        assertEquals(3, stepExecution.getExecutionContext().getLong(ValidationReportListener.ERROR_COUNT_KEY));
+        List<?> errors = (List<?>) stepExecution.getExecutionContext().get(ValidationReportListener.ERRORS_KEY);
+        assertEquals(2, errors.size());
+    }
+
+    @Test
+    void testOnSkipInProcess_Partition_SetsSource() {
+        ValidationReportListener listener = new ValidationReportListener(10);
+        StepExecution stepExecution = MetaDataInstanceFactory.createStepExecution();
+        stepExecution.getExecutionContext().putString("filePath", "data/converted/book/sheet-002.csv");
+        listener.beforeStep(stepExecution);
+
+        listener.onSkipInProcess(new Customer(), new ValidationException(List.of(
+                new ValidationError(4, "panNumber", "Invalid PAN for name z"))));
+        listener.afterStep(stepExecution);
+
+        List<ValidationError> errors = ValidationReportListener.errors(stepExecution.getExecutionContext());
+        assertEquals("sheet-002.csv", errors.getFirst().source());
+    }
+
+    @Test
+    void testAfterStep_ReportReadBackThroughJobExplorer_HasOnlyJdkTypes() throws Exception {
+        EmbeddedDatabase database = new EmbeddedDatabaseBuilder().generateUniqueName(true)
+                .setType(EmbeddedDatabaseType.H2)
+                .addScript("/org/springframework/batch/core/schema-h2.sql")
+                .build();
+        try {
+            JdbcTransactionManager transactionManager = new JdbcTransactionManager(database);
+            JobRepositoryFactoryBean repositoryFactory = new JobRepositoryFactoryBean();
+            repositoryFactory.setDataSource(database);
+            repositoryFactory.setTransactionManager(transactionManager);
+            repositoryFactory.afterPropertiesSet();
+            JobRepository jobRepository = repositoryFactory.getObject();
+            JobExplorerFactoryBean explorerFactory = new JobExplorerFactoryBean();
+            explorerFactory.setDataSource(database);
+            explorerFactory.setTransactionManager(transactionManager);
+            explorerFactory.afterPropertiesSet();
+            JobExplorer jobExplorer = explorerFactory.getObject();
+
+            JobExecution jobExecution = jobRepository.createJobExecution("csvReadingJob", new JobParameters());
+            StepExecution stepExecution = jobExecution.createStepExecution("validationStep:partition0");
+            stepExecution.getExecutionContext().putString("filePath", "data/converted/book/sheet-002.csv");
+            jobRepository.add(stepExecution);
+            ValidationReportListener listener = new ValidationReportListener(10);
+            listener.beforeStep(stepExecution);
+            listener.onSkipInProcess(new Customer(), new ValidationException(List.of(
+                    new ValidationError(4, "panNumber", "Invalid PAN for name z"))));
+            listener.afterStep(stepExecution);
+            jobRepository.updateExecutionContext(stepExecution);
+
+            ExecutionContext saved = jobExplorer.getJobExecution(jobExecution.getId())
+                    .getStepExecutions().iterator().next().getExecutionContext();
+
+            assertEquals(List.of(new ValidationError("sheet-002.csv", 4, "panNumber", "Invalid PAN for name z")),
+                    ValidationReportListener.errors(saved));
+            // Bootstrap classes only: the context can be read by any class loader
+            for (Object entry : (List<?>) saved.get(ValidationReportListener.ERRORS_KEY)) {
+                assertNull(entry.getClass().getClassLoader());
+                for (Object value : ((Map<?, ?>) entry).values()) {
+                    assertTrue(value == null || value.getClass().getClassLoader() == null, value.getClass().getName());
+                }
+            }
+        } finally {
+            database.shutdown();
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package com.assignment.customer_batch_processor.testpackage;
+
+import com.assignment.customer_batch_processor.Customer_Entity.Customer;
+import com.assignment.customer_batch_processor.Utilities.XlsxCustomerItemReader;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.io.FileOutputStream;
+import java.nio.file.Path;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class XlsxCustomerItemReaderTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path xlsx;
+
+    @BeforeEach
+    void setup() throws Exception {
+        xlsx = tempDir.resolve("customers.xlsx");
+
+        try (XSSFWorkbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet();
+            String[] header = {"name", "email", "phoneNumber", "aadhaarNumber", "panNumber", "state", "city"};
+            Row headerRow = sheet.createRow(0);
+            for (int i = 0; i < header.length; i++) {
+                headerRow.createCell(i).setCellValue(header[i]);
+            }
+
+            Row row1 = sheet.createRow(1);
+            row1.createCell(0).setCellValue("John Doe");
+            row1.createCell(1).setCellValue("john.doe@example.com");
+            row1.createCell(2).setCellValue(9876543210d);
+            row1.createCell(3).setCellValue(123456789012d);
+            row1.createCell(4).setCellValue("ABCDE1234F");
+            row1.createCell(5).setCellValue("Karnataka");
+            row1.createCell(6).setCellValue("Bangalore");
+
+            Row row2 = sheet.createRow(2);
+            row2.createCell(0).setCellValue("Alice Smith");
+            row2.createCell(1).setCellValue("alice@example.com");
+
+            try (FileOutputStream out = new FileOutputStream(xlsx.toFile())) {
+                workbook.write(out);
+            }
+        }
+    }
+
+    @Test
+    void testRead_MapsRowsAndSkipsHeader() throws Exception {
+        XlsxCustomerItemReader reader = new XlsxCustomerItemReader(xlsx.toString());
+        reader.open(new ExecutionContext());
+
+        Customer first = reader.read();
+        assertNotNull(first);
+        assertEquals("John Doe", first.getName());
+        assertEquals("9876543210", first.getPhoneNumber());
+        assertEquals("123456789012", first.getAadhaarNumber());
+        assertEquals("Bangalore", first.getCity());
+
+        Customer second = reader.read();
+        assertNotNull(second);
+        assertEquals("Alice Smith", second.getName());
+        assertEquals("", second.getPhoneNumber());
+
+        assertNull(reader.read());
+        reader.close();
+    }
+
+    @Test
+    void testRead_RestartsFromSavedState() throws Exception {
+        XlsxCustomerItemReader reader = new XlsxCustomerItemReader(xlsx.toString());
+        ExecutionContext executionContext = new ExecutionContext();
+        reader.open(executionContext);
+        reader.read();
+        reader.update(executionContext);
+        reader.close();
+
+        XlsxCustomerItemReader restarted = new XlsxCustomerItemReader(xlsx.toString());
+        restarted.open(executionContext);
+
+        Customer customer = restarted.read();
+        assertNotNull(customer);
+        assertEquals("Alice Smith", customer.getName());
+        assertNull(restarted.read());
+        restarted.close();
+    }
+}
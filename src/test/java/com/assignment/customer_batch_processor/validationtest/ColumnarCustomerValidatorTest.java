@@ -0,0 +1,144 @@
+package com.assignment.customer_batch_processor.validationtest;
+
+import com.assignment.customer_batch_processor.Customer_Entity.Customer;
+import com.assignment.customer_batch_processor.validator.ColumnarCustomerValidator;
+import com.assignment.customer_batch_processor.validator.CustomerField;
+import com.assignment.customer_batch_processor.validator.CustomerValidator;
+import com.assignment.customer_batch_processor.validator.FastCustomerValidator;
+import com.assignment.customer_batch_processor.validator.RuleBasedCustomerValidator;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.Chunk;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * The chunk bitmap must set exactly the rows whose fields all pass CustomerValidator,
+ * with the Vector API scan (surefire adds the module) and with the scalar fallback
+ */
+class ColumnarCustomerValidatorTest {
+
+    private static final String[] VALUES = {
+            null, "", " ", "John Doe", " John\tDoe ", "John\u000BDoe", "José", "Karnataka1", "\u0000Goa\u001F",
+            "9876543210", " 9876543210\n", "5876543210", "987654321", "98765 43210", "９876543210",
+            "123456789012", "12345678901", " 123456789012 ", "12345678901०",
+            "john.doe@example.com", "JOHN@EXAMPLE.COM", "john@com", "ABCDE1234F", "abcde1234f",
+            "Tamil Nadu", "New\nDelhi", "A very long name that spans more than one vector of sixty four bytes"};
+
+    private final CustomerValidator regex = new CustomerValidator();
+    private final ColumnarCustomerValidator vector = new ColumnarCustomerValidator(new FastCustomerValidator(), true);
+    private final ColumnarCustomerValidator scalar = new ColumnarCustomerValidator(new FastCustomerValidator(), false);
+
+    @Test
+    void testValidate_ValidAndInvalidRows() {
+        Customer valid = customer("John Doe", "john.doe@example.com", "9876543210", "123456789012",
+                "ABCDE1234F", "Karnataka", "Bangalore");
+        Customer invalidPhone = customer("Jane Doe", "jane@example.com", "5876543210", "123456789012",
+                "ABCDE1234F", "Goa", "Panaji");
+        Customer invalidCity = customer("Ravi", "ravi@example.com", "9876543210", "123456789012",
+                "ABCDE1234F", "Kerala", "Kochi1");
+        Customer nullFields = new Customer();
+
+        long[] bitmap = scalar.validate(new Chunk<>(List.of(valid, invalidPhone, invalidCity, nullFields)));
+
+        assertTrue(ColumnarCustomerValidator.isSet(bitmap, 0));
+        assertFalse(ColumnarCustomerValidator.isSet(bitmap, 1));
+        assertFalse(ColumnarCustomerValidator.isSet(bitmap, 2));
+        assertTrue(ColumnarCustomerValidator.isSet(bitmap, 3));
+    }
+
+    @Test
+    void testValidate_ConfiguredRule_CheckedInsteadOfTheColumnScan() {
+        RuleBasedCustomerValidator rules = new RuleBasedCustomerValidator(Map.of(
+                CustomerField.AADHAAR_NUMBER, "length=12; chars=digits; checksum=verhoeff; normalize=trim,digits",
+                CustomerField.CITY, "chars=letters,digits,whitespace; normalize=trim,upper"));
+        ColumnarCustomerValidator columnar = new ColumnarCustomerValidator(rules, true);
+        Customer badChecksum = customer("Ravi", "ravi@example.com", "9876543210", "123456789012",
+                "ABCDE1234F", "Kerala", "Kochi");
+        Customer goodChecksum = customer("Ravi", "ravi@example.com", "9876543210", "234123412346",
+                "ABCDE1234F", "Kerala", "Sector 17");
+        Customer badPhone = customer("Ravi", "ravi@example.com", "5876543210", "234123412346",
+                "ABCDE1234F", "Kerala", "Kochi");
+
+        List<Customer> rows = List.of(badChecksum, goodChecksum, badPhone);
+        columnar.markPrevalidated(rows);
+
+        assertFalse(badChecksum.isPrevalidated());
+        assertTrue(goodChecksum.isPrevalidated());
+        assertFalse(badPhone.isPrevalidated());
+        for (Customer row : rows) {
+            assertEquals(rules.normalizeAndValidate(copy(row)) == 0, row.isPrevalidated(), row.toString());
+        }
+    }
+
+    @Test
+    void testValidate_ScalarMatchesCustomerValidator() {
+        assertMatchesCustomerValidator(scalar);
+    }
+
+    @Test
+    void testValidate_VectorApiMatchesCustomerValidator() {
+        assumeTrue(vector.usesVectorApi(), "jdk.incubator.vector not available");
+        assertMatchesCustomerValidator(vector);
+    }
+
+    private void assertMatchesCustomerValidator(ColumnarCustomerValidator columnar) {
+        Random random = new Random(42L);
+        for (int round = 0; round < 200; round++) {
+            List<Customer> rows = new ArrayList<>();
+            int size = random.nextInt(300);
+            for (int i = 0; i < size; i++) {
+                rows.add(random.nextInt(4) == 0 ? randomCustomer(random) : validCustomer(random));
+            }
+
+            long[] bitmap = columnar.validate(new Chunk<>(rows));
+
+            for (int row = 0; row < size; row++) {
+                Customer customer = rows.get(row);
+                assertEquals(isValidRow(customer), ColumnarCustomerValidator.isSet(bitmap, row),
+                        "row " + row + " differs: " + customer);
+            }
+        }
+    }
+
+    private boolean isValidRow(Customer customer) {
+        return regex.normalizeAndValidate(copy(customer)) == 0;
+    }
+
+    private static Customer validCustomer(Random random) {
+        return customer("Name " + (char) ('a' + random.nextInt(26)), "user" + random.nextInt(100) + "@example.com",
+                "9" + (100000000 + random.nextInt(900000000)), "1234567890" + (10 + random.nextInt(90)),
+                "ABCDE1234F", "Karnataka", random.nextBoolean() ? " Bangalore " : "Mysore");
+    }
+
+    private static Customer randomCustomer(Random random) {
+        return customer(pick(random), pick(random), pick(random), pick(random), pick(random), pick(random), pick(random));
+    }
+
+    private static String pick(Random random) {
+        return VALUES[random.nextInt(VALUES.length)];
+    }
+
+    private static Customer copy(Customer customer) {
+        return customer(customer.getName(), customer.getEmail(), customer.getPhoneNumber(), customer.getAadhaarNumber(),
+                customer.getPanNumber(), customer.getState(), customer.getCity());
+    }
+
+    private static Customer customer(String name, String email, String phone, String aadhaar,
+                                     String pan, String state, String city) {
+        Customer customer = new Customer();
+        customer.setName(name);
+        customer.setEmail(email);
+        customer.setPhoneNumber(phone);
+        customer.setAadhaarNumber(aadhaar);
+        customer.setPanNumber(pan);
+        customer.setState(state);
+        customer.setCity(city);
+        return customer;
+    }
+}
@@ -0,0 +1,156 @@
+package com.assignment.customer_batch_processor.validationtest;
+
+import com.assignment.customer_batch_processor.Customer_Entity.Customer;
+import com.assignment.customer_batch_processor.validator.CustomerValidator;
+import com.assignment.customer_batch_processor.validator.FastCustomerValidator;
+import com.assignment.customer_batch_processor.validator.RuleBasedCustomerValidator;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * FastCustomerValidator and RuleBasedCustomerValidator with its default rules must answer exactly
+ * like the regex CustomerValidator, field checks and normalizeAndValidate, on hand-picked edge cases and on random strings close to valid values
+ */
+class CustomerValidatorDifferentialTest {
+
+    private static final int RANDOM_CASES = 200_000;
+
+    // Characters that sit on the borders of the rules: trimmed or not, \s or not, ASCII or not
+    private static final char[] ALPHABET = (
+            "aZzAmM09568." + "@._%+-" + " \t\n\u000B\f\r" + "\u0000\u001F\u0085  　"
+            + "éÄ०０Ａ" + "!#$/\\\"'[]"
+    ).toCharArray();
+
+    private static final List<String> EDGE_CASES = List.of(
+            "", " ", "\t", "\u000B", "\u0085", " ",
+            "John Doe", " John Doe ", "John\tDoe", "John\u000BDoe", "John Doe", "José", "John ",
+            "9876543210", " 9876543210\n", "5876543210", "987654321", "98765432101", "98765 43210", "９876543210",
+            "98765432०10",
+            "john.doe@example.com", " john@example.co\n", "john@com", "john@.com", "john@a.c", "john@a.co1",
+            "@example.com", "john@@example.com", "jo hn@example.com", "john@exa_mple.com", "john@example..com",
+            "john@-.co", "john@a.b.cd", "a%+_.-@a-b.c-d.ef", "john@example.com.", "john@example.c0m", "john@ab",
+            "john@.ab", "john@..ab", "john@a..ab", "JOHN@EXAMPLE.COM",
+            "123456789012", "12345678901", "1234567890123", " 123456789012 ", "12345678901०",
+            "ABCDE1234F", "abcde1234f", "ABCDE1234", "ABCD12345F", " ABCDE1234F\r", "ABCDE12345", "ÄBCDE1234F",
+            "Karnataka", "Tamil Nadu", "Karnataka1", "New\nDelhi", "\u0000Goa\u001F");
+
+    private final CustomerValidator regex = new CustomerValidator();
+    private final List<CustomerValidator> candidates = List.of(
+            new FastCustomerValidator(), new RuleBasedCustomerValidator(Map.of()));
+
+    @Test
+    void testEdgeCases_SameAnswers() {
+        for (String value : EDGE_CASES) {
+            assertSameAnswers(value);
+        }
+        assertSameAnswers(null);
+    }
+
+    @Test
+    void testRandomStrings_SameAnswers() {
+        Random random = new Random(20241017L);
+        for (int i = 0; i < RANDOM_CASES; i++) {
+            assertSameAnswers(randomString(random));
+        }
+    }
+
+    @Test
+    void testMutatedValidValues_SameAnswers() {
+        // One character changed, added or removed from a valid value, where the rules are decided
+        Random random = new Random(7L);
+        String[] valid = {"John Doe", "9876543210", "john.doe@example.com", "123456789012", "ABCDE1234F"};
+        for (int i = 0; i < RANDOM_CASES; i++) {
+            StringBuilder value = new StringBuilder(valid[random.nextInt(valid.length)]);
+            int position = random.nextInt(value.length() + 1);
+            switch (random.nextInt(3)) {
+                case 0 -> value.insert(position, ALPHABET[random.nextInt(ALPHABET.length)]);
+                case 1 -> {
+                    if (position < value.length()) {
+                        value.deleteCharAt(position);
+                    }
+                }
+                default -> {
+                    if (position < value.length()) {
+                        value.setCharAt(position, ALPHABET[random.nextInt(ALPHABET.length)]);
+                    }
+                }
+            }
+            assertSameAnswers(value.toString());
+        }
+    }
+
+    private void assertSameAnswers(String value) {
+        for (CustomerValidator candidate : candidates) {
+            for (Rule rule : rules()) {
+                assertEquals(rule.check().apply(regex, value), rule.check().apply(candidate, value),
+                        () -> candidate.getClass().getSimpleName() + " " + rule.name() + " differs for \"" + escape(value) + "\"");
+            }
+            assertSameNormalization(candidate, value);
+        }
+    }
+
+    /**
+     * normalizeAndValidate must report the same fields and leave the same values
+     */
+    private void assertSameNormalization(CustomerValidator candidate, String value) {
+        Customer expected = customerWith(value);
+        Customer actual = customerWith(value);
+        String name = candidate.getClass().getSimpleName();
+        assertEquals(regex.normalizeAndValidate(expected), candidate.normalizeAndValidate(actual),
+                () -> name + " invalid fields differ for \"" + escape(value) + "\"");
+        assertEquals(expected, actual, () -> name + " normalized values differ for \"" + escape(value) + "\"");
+    }
+
+    private static Customer customerWith(String value) {
+        Customer customer = new Customer();
+        customer.setName(value);
+        customer.setEmail(value);
+        customer.setPhoneNumber(value);
+        customer.setAadhaarNumber(value);
+        customer.setPanNumber(value);
+        customer.setState(value);
+        customer.setCity(value);
+        return customer;
+    }
+
+    private static List<Rule> rules() {
+        List<Rule> rules = new ArrayList<>();
+        rules.add(new Rule("name", CustomerValidator::isValidName));
+        rules.add(new Rule("mobile", CustomerValidator::isValidMobile));
+        rules.add(new Rule("email", CustomerValidator::isValidEmail));
+        rules.add(new Rule("aadhaar", CustomerValidator::isValidAadhaar));
+        rules.add(new Rule("pan", CustomerValidator::isValidPAN));
+        rules.add(new Rule("state", CustomerValidator::isValidState));
+        rules.add(new Rule("city", CustomerValidator::isValidCity));
+        return rules;
+    }
+
+    private static String randomString(Random random) {
+        char[] value = new char[random.nextInt(16)];
+        for (int i = 0; i < value.length; i++) {
+            value[i] = ALPHABET[random.nextInt(ALPHABET.length)];
+        }
+        return new String(value);
+    }
+
+    private static String escape(String value) {
+        if (value == null) {
+            return "null";
+        }
+        StringBuilder escaped = new StringBuilder();
+        for (char c : value.toCharArray()) {
+            escaped.append(c < ' ' || c > '~' ? String.format("\\u%04X", (int) c) : String.valueOf(c));
+        }
+        return escaped.toString();
+    }
+
+    private record Rule(String name, BiFunction<CustomerValidator, String, Boolean> check) {
+    }
+}
@@ -0,0 +1,86 @@
+package com.assignment.customer_batch_processor.validationtest;
+
+import com.assignment.customer_batch_processor.Customer_Entity.Customer;
+import com.assignment.customer_batch_processor.validator.CustomerField;
+import com.assignment.customer_batch_processor.validator.FieldRule;
+import com.assignment.customer_batch_processor.validator.RuleBasedCustomerValidator;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FieldRuleTest {
+
+    @Test
+    void testCompile_LengthRangeAndCharacterSet() {
+        FieldRule rule = FieldRule.compile("length=3..5; chars=upper,[0-9_]");
+
+        assertTrue(rule.test("AB_"));
+        assertTrue(rule.test(" AB_12 "));
+        assertFalse(rule.test("AB"));
+        assertFalse(rule.test("AB_123"));
+        assertFalse(rule.test("ab_"));
+        assertFalse(rule.test(null));
+    }
+
+    @Test
+    void testCompile_FormatAndFirstCharacter() {
+        FieldRule pan = FieldRule.compile("format=AAAAA9999A");
+        FieldRule mobile = FieldRule.compile("length=10; chars=digits; first=[6-9]");
+
+        assertTrue(pan.test("ABCDE1234F"));
+        assertFalse(pan.test("ABCDE12345"));
+        assertTrue(mobile.test("9876543210"));
+        assertFalse(mobile.test("5876543210"));
+    }
+
+    @Test
+    void testChecksum_VerhoeffAndLuhn() {
+        FieldRule verhoeff = FieldRule.compile("length=4; chars=digits; checksum=verhoeff");
+        FieldRule luhn = FieldRule.compile("chars=digits; checksum=luhn");
+
+        assertTrue(verhoeff.test("2363"));
+        assertFalse(verhoeff.test("2364"));
+        assertFalse(verhoeff.test("2633"));
+        assertTrue(luhn.test("79927398713"));
+        assertFalse(luhn.test("79927398710"));
+    }
+
+    @Test
+    void testNormalize_SameInstanceWhenUnchanged() {
+        FieldRule upper = FieldRule.compile("normalize=trim,upper");
+        FieldRule digits = FieldRule.compile("normalize=trim,digits");
+        String unchanged = "KARNATAKA";
+
+        assertSame(unchanged, upper.normalize(unchanged));
+        assertEquals("KARNATAKA", upper.normalize(" Karnataka "));
+        assertEquals("9876543210", digits.normalize(" 98765-43210 "));
+        assertNull(upper.normalize(null));
+    }
+
+    @Test
+    void testCompile_InvalidSpec_FailsWithTheSetting() {
+        IllegalArgumentException unknown = assertThrows(IllegalArgumentException.class,
+                () -> FieldRule.compile("chars=digits; pattern=x"));
+        assertTrue(unknown.getMessage().contains("pattern"));
+        assertThrows(IllegalArgumentException.class, () -> FieldRule.compile("length=5..3"));
+        assertThrows(IllegalArgumentException.class, () -> FieldRule.compile("chars=hex"));
+        assertThrows(IllegalArgumentException.class, () -> FieldRule.compile("format=AX9"));
+    }
+
+    @Test
+    void testRuleBasedValidator_ConfiguredRuleReplacesDefault() {
+        RuleBasedCustomerValidator validator = new RuleBasedCustomerValidator(Map.of(
+                CustomerField.AADHAAR_NUMBER, "length=12; chars=digits; checksum=verhoeff; normalize=trim,digits"));
+        Customer customer = new Customer();
+        customer.setName("Ravi Kumar");
+        customer.setAadhaarNumber("123456789012");
+
+        int invalidFields = validator.normalizeAndValidate(customer);
+
+        assertEquals(CustomerField.AADHAAR_NUMBER.bit(), invalidFields);
+        assertTrue(validator.isValidAadhaar("234123412346"));
+        assertTrue(validator.isValidName("Ravi Kumar"));
+    }
+}